@@ -0,0 +1,87 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.rymc.phira.main.util.GsonUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+    private static final byte[] CHART = """
+            {"id":42,"name":"Chart","level":"IN 14","difficulty":14.6,"charter":"Charter","composer":"Composer",
+            "illustrator":"Illustrator","description":"A fairly long description of the chart that the server never reads",
+            "ranked":true,"reviewed":true,"stable":true,"stable_request":false,"illustration":"https://example.com/i.png",
+            "preview":"https://example.com/p.ogg","file":"https://example.com/f.zip","uploader":9,
+            "tags":["hard","stream","tech","jack"],"rating":4.5,"rating_count":88,"created":"2024-01-01T00:00:00Z",
+            "updated":"2024-01-02T00:00:00Z","chart_updated":"2024-01-03T00:00:00Z"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] USER = """
+            {"id":7,"name":"Alice","avatar":"https://example.com/a.png","language":"en-US",
+            "bio":"A fairly long biography that the server never reads","exp":1200,"rks":15.25,
+            "joined":"2024-01-01T00:00:00Z","last_login":"2024-06-01T12:00:00+08:00","roles":3,"banned":false,
+            "login_banned":false,"follower_count":10,"following_count":20,"email":"alice@example.com"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] RECORD = """
+            {"id":1000,"player":7,"chart":42,"score":998765,"accuracy":0.995,"perfect":500,"good":10,"bad":0,
+            "miss":0,"speed":1.0,"max_combo":510,"best":true,"best_std":false,"mods":0,"full_combo":true,
+            "time":"2024-06-01T12:00:00Z","std":0.5,"std_score":399506.0}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final Gson gson = GsonUtil.getGson();
+
+    private static JsonReader reader(byte[] body) {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public ChartInfo chartReflective() {
+        return gson.fromJson(new String(CHART, StandardCharsets.UTF_8), ChartInfo.class);
+    }
+
+    @Benchmark
+    public ChartInfo chartAdapter() throws IOException {
+        return ChartInfoAdapter.INSTANCE.read(reader(CHART));
+    }
+
+    @Benchmark
+    public UserInfo userReflective() {
+        return gson.fromJson(new String(USER, StandardCharsets.UTF_8), UserInfo.class);
+    }
+
+    @Benchmark
+    public UserInfo userAdapter() throws IOException {
+        return UserInfoAdapter.INSTANCE.read(reader(USER));
+    }
+
+    @Benchmark
+    public GameRecord recordReflective() {
+        return gson.fromJson(new String(RECORD, StandardCharsets.UTF_8), GameRecord.class);
+    }
+
+    @Benchmark
+    public GameRecord recordAdapter() throws IOException {
+        return GameRecordAdapter.INSTANCE.read(reader(RECORD));
+    }
+}
@@ -0,0 +1,105 @@
+package top.rymc.phira.main.data;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ProfileFootprintBenchmark {
+
+    private static final String[] LANGUAGES = {"zh-CN", "en-US", "ja-JP"};
+
+    @Param({"100000"})
+    private int users;
+
+    private String[] tokens;
+    private String[] bodies;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+        public long bytesPerUser;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokens = new String[users];
+        bodies = new String[users];
+        for (int id = 1; id <= users; id++) {
+            tokens[id - 1] = "token-" + id + "-" + Integer.toHexString(id * 31);
+            bodies[id - 1] = """
+                    {"id":%d,"name":"Player%d","avatar":"https://phira.5wyxi.com/files/avatar/%d.png","language":"%s",
+                    "bio":"A fairly long biography that the server never reads","exp":%d,"rks":15.25,
+                    "joined":"2024-01-01T00:00:00Z","last_login":"2024-06-01T12:00:00+08:00","roles":0,"banned":false,
+                    "login_banned":false,"follower_count":10,"following_count":20,"email":"player%d@example.com"}
+                    """.formatted(id, id, id, LANGUAGES[id % LANGUAGES.length], id * 7, id);
+        }
+    }
+
+    @Benchmark
+    public void userInfoPerCache(Footprint footprint, Blackhole blackhole) throws IOException {
+        long before = usedHeap();
+        Map<String, UserInfo> tokenCache = new HashMap<>();
+        Map<Integer, UserInfo> userCache = new HashMap<>();
+        for (int i = 0; i < users; i++) {
+            tokenCache.put(tokens[i], UserInfoAdapter.INSTANCE.fromJson(bodies[i]));
+            UserInfo info = UserInfoAdapter.INSTANCE.fromJson(bodies[i]);
+            userCache.put(info.getId(), info);
+        }
+        record(footprint, before);
+        blackhole.consume(tokenCache);
+        blackhole.consume(userCache);
+    }
+
+    @Benchmark
+    public void compactProfileStore(Footprint footprint, Blackhole blackhole) throws IOException {
+        long before = usedHeap();
+        Map<String, Integer> tokenCache = new HashMap<>();
+        Map<Integer, PlayerProfile> profileCache = new HashMap<>();
+        for (int i = 0; i < users; i++) {
+            PlayerProfile profile = PlayerProfile.of(UserInfoAdapter.INSTANCE.fromJson(bodies[i]));
+            profileCache.put(profile.getId(), profile);
+            tokenCache.put(tokens[i], profile.getId());
+        }
+        record(footprint, before);
+        blackhole.consume(tokenCache);
+        blackhole.consume(profileCache);
+    }
+
+    private void record(Footprint footprint, long before) {
+        footprint.retainedBytes = usedHeap() - before;
+        footprint.bytesPerUser = footprint.retainedBytes / users;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,77 @@
+package top.rymc.phira.main.game.player;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import top.rymc.phira.main.Server;
+import top.rymc.phira.main.data.PlayerProfile;
+import top.rymc.phira.main.game.player.local.LocalPlayer;
+import top.rymc.phira.main.network.ConnectionReference;
+import top.rymc.phira.main.network.PlayerConnection;
+import top.rymc.phira.plugin.core.PluginManager;
+
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerManagerBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int players;
+
+    private PlayerConnection[] connections;
+    private PlayerConnection anonymous;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Field pluginManager = Server.class.getDeclaredField("pluginManager");
+        pluginManager.setAccessible(true);
+        pluginManager.set(Server.getInstance(), new PluginManager(Server.getLogger(), Files.createTempDirectory("player-manager-benchmark")));
+
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 12346);
+        connections = new PlayerConnection[players];
+        for (int id = 0; id < players; id++) {
+            PlayerConnection connection = new PlayerConnection(new EmbeddedChannel(), address);
+            LocalPlayer player = new LocalPlayer(new PlayerProfile(id, "Player" + id, "en-US", false, false), new ConnectionReference(connection));
+            PlayerManager.resolvePlayer(id, LocalPlayer.class, () -> player, p -> {}, (remover, p) -> {});
+            connections[id] = connection;
+        }
+        anonymous = new PlayerConnection(new EmbeddedChannel(), address);
+    }
+
+    @Benchmark
+    public Optional<LocalPlayer> disconnectLookup() {
+        PlayerConnection connection = connections[next];
+        next = (next + 1) % players;
+        return PlayerManager.getPlayer(connection);
+    }
+
+    @Benchmark
+    public Optional<LocalPlayer> disconnectBeforeLogin() {
+        return PlayerManager.getPlayer(anonymous);
+    }
+
+    @Benchmark
+    public int onlineCount() {
+        return PlayerManager.getOnlineCount();
+    }
+}
@@ -0,0 +1,127 @@
+package top.rymc.phira.main.game.record;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class CompressionBenchmark {
+
+    @Param({"10240", "1048576", "52428800"})
+    private int recordBytes;
+
+    @Param({"ZSTD", "DEFLATE"})
+    private PhiraRecord.CompressionType type;
+
+    private int level;
+    private ByteBuf record;
+    private ByteBuf compressed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        level = type == PhiraRecord.CompressionType.DEFLATE ? Deflater.DEFAULT_COMPRESSION : Zstd.defaultCompressionLevel();
+
+        Random random = new Random(recordBytes);
+        record = ByteBufAllocator.DEFAULT.directBuffer(recordBytes);
+        while (record.readableBytes() + 13 <= recordBytes) {
+            record.writeFloatLE(record.readableBytes() / 1300f);
+            record.writeByte(1 + random.nextInt(2));
+            record.writeShortLE(random.nextInt(4096));
+            record.writeShortLE(random.nextInt(4096));
+            record.writeIntLE(random.nextInt(8));
+        }
+        record.writeZero(recordBytes - record.readableBytes());
+
+        compressed = type.compress(record, level);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        record.release();
+        compressed.release();
+    }
+
+    @Benchmark
+    public int compressLegacy() {
+        byte[] src = ByteBufUtil.getBytes(record);
+        if (type == PhiraRecord.CompressionType.ZSTD) {
+            return Unpooled.wrappedBuffer(Zstd.compress(src, level)).readableBytes();
+        }
+
+        Deflater deflater = new Deflater();
+        deflater.setLevel(level);
+        deflater.setInput(src);
+        deflater.finish();
+        byte[] buf = new byte[4096];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        deflater.end();
+        return Unpooled.wrappedBuffer(out.toByteArray()).readableBytes();
+    }
+
+    @Benchmark
+    public int compressDirect() {
+        ByteBuf output = type.compress(record, level);
+        try {
+            return output.readableBytes();
+        } finally {
+            output.release();
+        }
+    }
+
+    @Benchmark
+    public int decompressLegacy() throws IOException {
+        ByteArrayInputStream rawIn = new ByteArrayInputStream(ByteBufUtil.getBytes(compressed));
+        try (InputStream in = type == PhiraRecord.CompressionType.ZSTD ? new ZstdInputStream(rawIn) : new InflaterInputStream(rawIn)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return Unpooled.wrappedBuffer(out.toByteArray()).readableBytes();
+        }
+    }
+
+    @Benchmark
+    public int decompressDirect() {
+        ByteBuf output = type.decompress(compressed);
+        try {
+            return output.readableBytes();
+        } finally {
+            output.release();
+        }
+    }
+}
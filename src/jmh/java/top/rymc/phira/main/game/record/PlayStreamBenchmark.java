@@ -0,0 +1,160 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import top.rymc.phira.protocol.codec.Encodeable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms512m", "-Xmx512m"})
+public class PlayStreamBenchmark {
+
+    private static final int REFERENCE_BYTES = 4;
+
+    @Param({"8"})
+    private int players;
+
+    @Param({"180"})
+    private int songSeconds;
+
+    @Param({"20"})
+    private int batchesPerSecond;
+
+    @Param({"3"})
+    private int framesPerBatch;
+
+    private List<List<Frame>> batches;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long copiedBytes;
+        public long gcPauseMillis;
+        public long gcCount;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int count = songSeconds * batchesPerSecond;
+        batches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Frame> batch = new ArrayList<>(framesPerBatch);
+            for (int j = 0; j < framesPerBatch; j++) {
+                batch.add(new Frame((float) (i * framesPerBatch + j) / (batchesPerSecond * framesPerBatch), 1 + (i + j) % 4));
+            }
+            batches.add(List.copyOf(batch));
+        }
+    }
+
+    @Benchmark
+    public void copyOnWriteList(Footprint footprint, Blackhole blackhole) {
+        long[] gcBefore = gc();
+        List<List<Frame>> streams = new ArrayList<>(players);
+        for (int p = 0; p < players; p++) {
+            streams.add(new CopyOnWriteArrayList<>());
+        }
+
+        long copied = 0;
+        for (List<Frame> batch : batches) {
+            for (List<Frame> stream : streams) {
+                copied += (long) (stream.size() + batch.size()) * REFERENCE_BYTES;
+                stream.addAll(batch);
+            }
+        }
+
+        consume(streams, blackhole);
+        record(footprint, copied, gcBefore);
+    }
+
+    @Benchmark
+    public void chunkedStreamBuffer(Footprint footprint, Blackhole blackhole) {
+        long[] gcBefore = gc();
+        List<PlayStreamBuffer<Frame>> streams = new ArrayList<>(players);
+        for (int p = 0; p < players; p++) {
+            streams.add(new PlayStreamBuffer<>(Frame::decode));
+        }
+
+        for (List<Frame> batch : batches) {
+            for (PlayStreamBuffer<Frame> stream : streams) {
+                stream.append(batch);
+            }
+        }
+
+        long copied = 0;
+        for (PlayStreamBuffer<Frame> stream : streams) {
+            copied += stream.byteSize();
+        }
+
+        consume(streams, blackhole);
+        record(footprint, copied, gcBefore);
+    }
+
+    private static void consume(List<? extends List<Frame>> streams, Blackhole blackhole) {
+        for (List<Frame> stream : streams) {
+            for (Frame frame : stream) {
+                blackhole.consume(frame);
+            }
+        }
+    }
+
+    private static void record(Footprint footprint, long copied, long[] gcBefore) {
+        long[] gcAfter = gc();
+        footprint.copiedBytes = copied;
+        footprint.gcCount = gcAfter[0] - gcBefore[0];
+        footprint.gcPauseMillis = gcAfter[1] - gcBefore[1];
+    }
+
+    private static long[] gc() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return new long[]{count, time};
+    }
+
+    private record Frame(float time, int points) implements Encodeable {
+
+        @Override
+        public void encode(ByteBuf buf) {
+            buf.writeFloatLE(time);
+            buf.writeByte(points);
+            for (int i = 0; i < points; i++) {
+                buf.writeByte(i);
+                buf.writeShortLE(i * 31);
+                buf.writeShortLE(i * 17);
+            }
+        }
+
+        static Frame decode(ByteBuf buf) {
+            float time = buf.readFloatLE();
+            int points = buf.readUnsignedByte();
+            buf.skipBytes(points * 5);
+            return new Frame(time, points);
+        }
+    }
+}
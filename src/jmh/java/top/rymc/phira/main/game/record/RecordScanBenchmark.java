@@ -0,0 +1,111 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import top.rymc.phira.protocol.codec.Encodeable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class RecordScanBenchmark {
+
+    @Param({"10000"})
+    private int records;
+
+    @Param({"3000"})
+    private int framesPerRecord;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("record-scan");
+        RecordSpill.start(directory);
+        RecordArchiver.start(directory, records, 1);
+
+        List<Frame> frames = new ArrayList<>(framesPerRecord);
+        for (int i = 0; i < framesPerRecord; i++) {
+            frames.add(new Frame(i / 60f, 1 + i % 3));
+        }
+
+        for (int id = 1; id <= records; id++) {
+            try (RecordSpill spill = RecordSpill.open()) {
+                spill.append(id, RecordSpill.Kind.TOUCH, frames);
+                spill.finish(id, id, id, 100, "Chart", "Player" + id);
+            }
+        }
+        RecordArchiver.stop();
+        RecordSpill.stop();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int readFullFiles() throws IOException {
+        int total = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                ByteBuf buf = Unpooled.wrappedBuffer(Files.readAllBytes(file));
+                buf.skipBytes(12);
+                ByteBuf body = PhiraRecord.CompressionType.decode(buf).decompress(buf);
+                total += body.readableBytes();
+                body.release();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int scanHeaders() {
+        int total = 0;
+        for (PhiraRecord record : PhiraRecord.readFromDirectory(directory)) {
+            total += record.getId();
+        }
+        return total;
+    }
+
+    private record Frame(float time, int points) implements Encodeable {
+
+        @Override
+        public void encode(ByteBuf buf) {
+            buf.writeFloatLE(time);
+            buf.writeByte(points);
+            for (int i = 0; i < points; i++) {
+                buf.writeByte(i);
+                buf.writeShortLE(i * 31);
+                buf.writeShortLE(i * 17);
+            }
+        }
+    }
+}
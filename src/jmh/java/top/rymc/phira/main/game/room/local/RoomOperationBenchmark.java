@@ -0,0 +1,116 @@
+package top.rymc.phira.main.game.room.local;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import top.rymc.phira.main.Server;
+import top.rymc.phira.main.data.PlayerProfile;
+import top.rymc.phira.main.game.player.Player;
+import top.rymc.phira.main.game.player.operations.PlayerOperations;
+import top.rymc.phira.main.game.room.Room;
+import top.rymc.phira.main.game.room.state.RoomGameState;
+import top.rymc.phira.main.util.WorkerPool;
+import top.rymc.phira.plugin.core.PluginManager;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RoomOperationBenchmark {
+
+    private static final int BATCH = 16;
+
+    @Param({"false", "true"})
+    private boolean actor;
+
+    private LocalRoom room;
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Member {
+
+        private Player player;
+
+        @Setup(Level.Trial)
+        public void setUp(RoomOperationBenchmark benchmark) {
+            player = new BenchmarkPlayer(benchmark.nextId.incrementAndGet());
+            benchmark.room.join(player, false);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Field pluginManager = Server.class.getDeclaredField("pluginManager");
+        pluginManager.setAccessible(true);
+        pluginManager.set(Server.getInstance(), new PluginManager(Server.getLogger(), Files.createTempDirectory("room-operation-benchmark")));
+
+        LocalRoom.RoomSetting setting = new LocalRoom.RoomSetting(false, true, 64, false, false, false, true);
+        room = new LocalRoom(() -> {}, "benchmark", setting, RoomGameState.Type.SelectChart, null, actor ? WorkerPool.newRoomMailbox() : null, 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void blockingChat(Member member) {
+        for (int i = 0; i < BATCH; i++) {
+            room.getOperation().chat(member.player, "gg");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void asyncChat(Member member) {
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < BATCH; i++) {
+            last = room.getOperation().chatAsync(member.player, "gg");
+        }
+        last.join();
+    }
+
+    private record BenchmarkPlayer(int id) implements Player {
+
+        @Override
+        public Optional<Room> getRoom() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void kick() {
+        }
+
+        @Override
+        public PlayerProfile getProfile() {
+            return new PlayerProfile(id, "Player" + id, "en-US", false, false);
+        }
+
+        @Override
+        public Optional<PlayerOperations> operations() {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean isOnline() {
+            return true;
+        }
+    }
+}
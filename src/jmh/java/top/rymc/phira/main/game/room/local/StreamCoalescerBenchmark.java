@@ -0,0 +1,128 @@
+package top.rymc.phira.main.game.room.local;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalIoHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import top.rymc.phira.main.data.PlayerProfile;
+import top.rymc.phira.main.game.player.local.LocalPlayer;
+import top.rymc.phira.main.network.ConnectionReference;
+import top.rymc.phira.main.network.PlayerConnection;
+import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamCoalescerBenchmark {
+
+    @Param({"0", "5", "20", "50"})
+    private long windowMillis;
+
+    @Param({"8", "64"})
+    private int players;
+
+    @Param({"1000"})
+    private long tickMicros;
+
+    @Param({"500"})
+    private int packetCost;
+
+    private EventLoopGroup group;
+    private Channel channel;
+    private LocalPlayer[] senders;
+    private StreamCoalescer coalescer;
+    private List<TouchFrame> frames;
+    private final AtomicLong packets = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Output {
+        public long packets;
+        public long cpuNanos;
+
+        private long cpuStart;
+
+        @Setup(Level.Iteration)
+        public void start(StreamCoalescerBenchmark benchmark) {
+            benchmark.packets.set(0);
+            cpuStart = processCpuTime();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop(StreamCoalescerBenchmark benchmark) {
+            packets = benchmark.packets.get();
+            cpuNanos = processCpuTime() - cpuStart;
+        }
+
+        private static long processCpuTime() {
+            return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        group = new MultiThreadIoEventLoopGroup(1, new DefaultThreadFactory("Coalescer-Loop", true), LocalIoHandler.newFactory());
+        channel = new LocalChannel();
+        group.register(channel).sync();
+
+        PlayerConnection connection = new PlayerConnection(channel, new InetSocketAddress("127.0.0.1", 12346));
+        senders = new LocalPlayer[players];
+        for (int id = 0; id < players; id++) {
+            senders[id] = new LocalPlayer(new PlayerProfile(id, "Player" + id, "en-US", false, false), new ConnectionReference(connection));
+        }
+
+        coalescer = new StreamCoalescer(
+                windowMillis,
+                Runnable::run,
+                (playerId, touches) -> send(),
+                (playerId, judges) -> send()
+        );
+        frames = List.of();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    private void send() {
+        packets.incrementAndGet();
+        Blackhole.consumeCPU(packetCost);
+    }
+
+    @Benchmark
+    public void touchTick(Output output) {
+        for (LocalPlayer sender : senders) {
+            coalescer.touches(sender, frames);
+        }
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(tickMicros));
+    }
+}
@@ -0,0 +1,76 @@
+package top.rymc.phira.main.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import top.rymc.phira.protocol.codec.encoder.FrameEncoder;
+import top.rymc.phira.protocol.codec.encoder.ServerPacketEncoder;
+import top.rymc.phira.protocol.data.message.ChatMessage;
+import top.rymc.phira.protocol.packet.ClientBoundPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundMessagePacket;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"2", "8", "32"})
+    private int recipients;
+
+    private EmbeddedChannel[] channels;
+    private ClientBoundPacket packet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        channels = new EmbeddedChannel[recipients];
+        for (int i = 0; i < recipients; i++) {
+            channels[i] = new EmbeddedChannel(new FrameEncoder(), new ServerPacketEncoder());
+        }
+        packet = ClientBoundMessagePacket.create(new ChatMessage(1, "The quick brown fox jumps over the lazy dog"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (EmbeddedChannel channel : channels) {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Benchmark
+    public void encodePerRecipient() {
+        for (EmbeddedChannel channel : channels) {
+            channel.writeAndFlush(packet);
+            channel.releaseOutbound();
+        }
+    }
+
+    @Benchmark
+    public void encodeOnce() {
+        ByteBuf encoded = EncodedPackets.encode(packet);
+        try {
+            for (EmbeddedChannel channel : channels) {
+                channel.pipeline().context(ServerPacketEncoder.class).writeAndFlush(encoded.retainedDuplicate());
+                channel.releaseOutbound();
+            }
+        } finally {
+            encoded.release();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package top.rymc.phira.main.network;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ConnectStormBenchmark {
+
+    private static final int HANDSHAKE_BYTE = 1;
+
+    @Param({"nio", "epoll"})
+    private String transport;
+
+    @Param({"0"})
+    private int acceptors;
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private EventLoopGroup clientGroup;
+    private final List<Channel> serverChannels = new ArrayList<>();
+    private Bootstrap client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        NetworkTransport resolved = NetworkTransport.resolve(transport);
+        int acceptorCount = resolved.resolveAcceptors(acceptors);
+
+        bossGroup = new MultiThreadIoEventLoopGroup(acceptorCount, new DefaultThreadFactory("Storm-Boss", true), resolved.newIoHandlerFactory());
+        workerGroup = new MultiThreadIoEventLoopGroup(0, new DefaultThreadFactory("Storm-Worker", true), resolved.newIoHandlerFactory());
+        clientGroup = new MultiThreadIoEventLoopGroup(0, new DefaultThreadFactory("Storm-Client", true), NioIoHandler.newFactory());
+
+        ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(resolved.getServerChannelClass())
+                .option(ChannelOption.SO_BACKLOG, 4096)
+                .childHandler(new ChannelInitializer<>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                ReferenceCountUtil.release(msg);
+                                ctx.writeAndFlush(ctx.alloc().buffer(1).writeByte(HANDSHAKE_BYTE));
+                            }
+
+                            @Override
+                            public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+                                ctx.close();
+                            }
+                        });
+                    }
+                });
+        if (acceptorCount > 1) {
+            resolved.enableReusePort(bootstrap);
+        }
+
+        InetAddress address = InetAddress.getLoopbackAddress();
+        Channel first = bootstrap.bind(address, 0).sync().channel();
+        serverChannels.add(first);
+        int port = ((InetSocketAddress) first.localAddress()).getPort();
+        for (int i = 1; i < acceptorCount; i++) {
+            serverChannels.add(bootstrap.bind(address, port).sync().channel());
+        }
+
+        client = new Bootstrap()
+                .group(clientGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.SO_LINGER, 0)
+                .remoteAddress(address, port)
+                .handler(new ChannelInboundHandlerAdapter());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        for (Channel channel : serverChannels) {
+            channel.close().sync();
+        }
+        clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Benchmark
+    public Object connectAndHandshake() throws Exception {
+        CompletableFuture<Object> reply = new CompletableFuture<>();
+        Channel channel = client.clone()
+                .handler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        reply.complete(((ByteBuf) msg).readByte());
+                        ReferenceCountUtil.release(msg);
+                    }
+
+                    @Override
+                    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+                        reply.completeExceptionally(cause);
+                    }
+                })
+                .connect().sync().channel();
+        try {
+            channel.writeAndFlush(channel.alloc().buffer(1).writeByte(HANDSHAKE_BYTE));
+            return reply.get(5, TimeUnit.SECONDS);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package top.rymc.phira.main.network;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import top.rymc.phira.main.Server;
+import top.rymc.phira.plugin.core.PluginManager;
+import top.rymc.phira.protocol.codec.encoder.FrameEncoder;
+import top.rymc.phira.protocol.codec.encoder.ServerPacketEncoder;
+import top.rymc.phira.protocol.data.message.ChatMessage;
+import top.rymc.phira.protocol.packet.ClientBoundPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundMessagePacket;
+
+import java.lang.reflect.Field;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboundFlushBenchmark {
+
+    @Param({"1", "2", "8", "256"})
+    private int burst;
+
+    @Param({"8192", "1048576"})
+    private int highWaterMark;
+
+    private EventLoopGroup serverGroup;
+    private EventLoopGroup clientGroup;
+    private Channel serverChannel;
+    private Channel channel;
+    private PlayerConnection connection;
+    private FlushCounter counter;
+    private ClientBoundPacket packet;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Syscalls {
+        public long flushes;
+        public long unwritable;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Field pluginManager = Server.class.getDeclaredField("pluginManager");
+        pluginManager.setAccessible(true);
+        pluginManager.set(Server.getInstance(), new PluginManager(Server.getLogger(), Files.createTempDirectory("outbound-flush-benchmark")));
+
+        serverGroup = new MultiThreadIoEventLoopGroup(1, new DefaultThreadFactory("Flush-Server", true), NioIoHandler.newFactory());
+        clientGroup = new MultiThreadIoEventLoopGroup(1, new DefaultThreadFactory("Flush-Client", true), NioIoHandler.newFactory());
+
+        InetAddress address = InetAddress.getLoopbackAddress();
+        serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                        ReferenceCountUtil.release(msg);
+                    }
+                })
+                .bind(address, 0).sync().channel();
+
+        counter = new FlushCounter();
+        channel = new Bootstrap()
+                .group(clientGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(highWaterMark / 2, highWaterMark))
+                .handler(new ChannelInitializer<>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        ch.pipeline().addLast(counter, new FrameEncoder(), new ServerPacketEncoder());
+                    }
+                })
+                .connect(serverChannel.localAddress()).sync().channel();
+
+        connection = new PlayerConnection(channel, (InetSocketAddress) channel.localAddress());
+        packet = ClientBoundMessagePacket.create(new ChatMessage(1, "The quick brown fox jumps over the lazy dog"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.close().sync();
+        serverChannel.close().sync();
+        clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+        serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Benchmark
+    public void writeAndFlushPerPacket(Syscalls syscalls) {
+        ChannelFuture last = null;
+        for (int i = 0; i < burst; i++) {
+            last = channel.writeAndFlush(packet);
+        }
+        last.syncUninterruptibly();
+        record(syscalls);
+    }
+
+    @Benchmark
+    public void coalescedSend(Syscalls syscalls) {
+        ChannelFuture last = null;
+        for (int i = 0; i < burst; i++) {
+            last = connection.send(packet).orElseThrow();
+        }
+        last.syncUninterruptibly();
+        record(syscalls);
+    }
+
+    private void record(Syscalls syscalls) {
+        syscalls.flushes += counter.flushes.getAndSet(0);
+        syscalls.unwritable += counter.unwritable.getAndSet(0);
+    }
+
+    private static final class FlushCounter extends ChannelDuplexHandler {
+
+        private final AtomicLong flushes = new AtomicLong();
+        private final AtomicLong unwritable = new AtomicLong();
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            flushes.incrementAndGet();
+            ctx.flush();
+        }
+
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+            if (!ctx.channel().isWritable()) {
+                unwritable.incrementAndGet();
+            }
+            ctx.fireChannelWritabilityChanged();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package top.rymc.phira.main.util;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import top.rymc.phira.main.data.ChartInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DiskCacheBenchmark {
+
+    private static final String CHART_JSON = """
+            {"id":1,"name":"Benchmark Chart","level":"IN 15","difficulty":15.2,"charter":"Charter",
+            "composer":"Composer","illustrator":"Illustrator","description":"Description","ranked":true,
+            "reviewed":true,"stable":true,"stable_request":false,"illustration":"","preview":"","file":"",
+            "uploader":1,"tags":["tag"],"rating":4.5,"rating_count":100,
+            "created":"2026-01-01T00:00Z","updated":"2026-01-01T00:00Z","chart_updated":"2026-01-01T00:00Z"}
+            """;
+
+    @Param({"100", "1000"})
+    private int charts;
+
+    private final Gson gson = GsonUtil.getGson();
+
+    private Path directory;
+    private Path file;
+    private HttpServer server;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("disk-cache-benchmark");
+        file = directory.resolve("charts.cache");
+
+        ChartInfo chart = gson.fromJson(CHART_JSON, ChartInfo.class);
+        try (DiskCache<ChartInfo> cache = DiskCache.open(file, ChartInfo.class, 1, TimeUnit.DAYS)) {
+            for (int i = 0; i < charts; i++) {
+                cache.put(i, chart);
+            }
+        }
+
+        byte[] body = CHART_JSON.getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/chart/", exchange -> {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/chart/";
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.stop(0);
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void coldStartFromUpstream(Blackhole blackhole) throws IOException, InterruptedException {
+        for (int i = 0; i < charts; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + i)).GET().build();
+            String response = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            blackhole.consume(gson.fromJson(response, ChartInfo.class));
+        }
+    }
+
+    @Benchmark
+    public void warmStartFromDisk(Blackhole blackhole) throws IOException {
+        try (DiskCache<ChartInfo> cache = DiskCache.open(file, ChartInfo.class, 1, TimeUnit.DAYS)) {
+            for (int i = 0; i < charts; i++) {
+                blackhole.consume(cache.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package top.rymc.phira.main.util;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g", "-XX:+UseParallelGC"})
+public class MailboxBenchmark {
+
+    @Param({"50000"})
+    private int connections;
+
+    private List<?> retained;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+        public long bytesPerConnection;
+        public long liveThreads;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        WorkerPool.newMailbox().execute(started::countDown);
+        started.await();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Dispatch {
+
+        @Param({"mailbox", "thread"})
+        private String executor;
+
+        @Param({"1000"})
+        private int connections;
+
+        private final List<ExecutorService> dedicated = new ArrayList<>();
+        private Executor[] executors;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executors = new Executor[connections];
+            for (int i = 0; i < connections; i++) {
+                if (executor.equals("mailbox")) {
+                    executors[i] = WorkerPool.newMailbox();
+                } else {
+                    ExecutorService service = Executors.newSingleThreadExecutor(new DefaultThreadFactory("Connection-" + i, true));
+                    dedicated.add(service);
+                    executors[i] = service;
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            dedicated.forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object dispatchLatency(Dispatch dispatch) {
+        CompletableFuture<Object> done = new CompletableFuture<>();
+        Executor target = dispatch.executors[ThreadLocalRandom.current().nextInt(dispatch.executors.length)];
+        target.execute(() -> done.complete(Boolean.TRUE));
+        return done.join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void mailboxPerConnection(Footprint footprint) throws InterruptedException {
+        retained = null;
+        long before = usedHeap();
+        int threadsBefore = Thread.activeCount();
+        CountDownLatch started = new CountDownLatch(connections);
+        List<Mailbox> mailboxes = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            Mailbox mailbox = WorkerPool.newMailbox();
+            mailbox.execute(started::countDown);
+            mailboxes.add(mailbox);
+        }
+        retained = mailboxes;
+        started.await();
+        record(footprint, before, threadsBefore);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void threadPerConnection(Footprint footprint) throws InterruptedException {
+        retained = null;
+        long before = usedHeap();
+        int threadsBefore = Thread.activeCount();
+        CountDownLatch started = new CountDownLatch(connections);
+        List<ExecutorService> executors = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                ExecutorService executor = Executors.newSingleThreadExecutor(new DefaultThreadFactory("Connection-" + i, true));
+                executor.execute(started::countDown);
+                executors.add(executor);
+            }
+            retained = executors;
+            started.await();
+            record(footprint, before, threadsBefore);
+        } finally {
+            executors.forEach(ExecutorService::shutdownNow);
+            for (ExecutorService executor : executors) {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private void record(Footprint footprint, long before, int threadsBefore) {
+        footprint.retainedBytes = usedHeap() - before;
+        footprint.bytesPerConnection = footprint.retainedBytes / connections;
+        footprint.liveThreads = Thread.activeCount() - threadsBefore;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
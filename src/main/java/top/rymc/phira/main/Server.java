@@ -3,12 +3,12 @@ package top.rymc.phira.main;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioIoHandler;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import lombok.Getter;
@@ -22,13 +22,24 @@ import top.rymc.phira.main.event.server.ServerLifecycleEvent;
 import top.rymc.phira.main.game.player.Player;
 import top.rymc.phira.main.game.player.PlayerManager;
 import top.rymc.phira.main.game.i18n.I18nService;
+import top.rymc.phira.main.game.record.RecordArchiver;
+import top.rymc.phira.main.game.record.RecordSpill;
+import top.rymc.phira.main.game.room.state.RoomPlaying;
+import top.rymc.phira.main.network.ConnectionLimiter;
+import top.rymc.phira.main.network.NetworkTransport;
 import top.rymc.phira.main.network.ServerChannelInitializer;
 import top.rymc.phira.main.util.ExecutorServiceManager;
+import top.rymc.phira.main.util.HotCharts;
+import top.rymc.phira.main.util.PhiraFetcher;
+import top.rymc.phira.main.util.SimulatedPhiraUpstream;
+import top.rymc.phira.main.util.WorkerPool;
 import top.rymc.phira.plugin.core.PluginManager;
 import top.rymc.phira.plugin.event.CancellableEvent;
 import top.rymc.phira.plugin.event.Event;
 
+import java.io.IOException;
 import java.net.InetAddress;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -110,19 +121,77 @@ public class Server {
         }
         logger.info("Loaded {} plugin(s)", pluginManager.getPluginCount());
 
+        WorkerPool.configure(args.getWorkerThreads());
+
+        if (SimulatedPhiraUpstream.NAME.equalsIgnoreCase(args.getUpstream())) {
+            PhiraFetcher.setUpstream(new SimulatedPhiraUpstream(
+                    args.getSimulatorSeed(),
+                    args.getSimulatorLatencyMillis(),
+                    args.getSimulatorLatencyP99Millis(),
+                    args.getSimulatorErrorRate()
+            ));
+            logger.warn("Using the built-in upstream simulator, player data is generated locally and not authenticated");
+        } else {
+            String upstream = args.getUpstream();
+            PhiraFetcher.setHost(upstream.endsWith("/") ? upstream : upstream + "/");
+        }
+
+        if (args.getCacheDir() != null) {
+            try {
+                PhiraFetcher.enableDiskCache(args.getCacheDir());
+                logger.info("Using persistent metadata cache in {}", args.getCacheDir());
+            } catch (IOException e) {
+                logger.error("Failed to open persistent metadata cache, continuing without it", e);
+            }
+        }
+
+        HotCharts.start(args.getCacheDir());
+        RoomPlaying.setRecordRetries(args.getRecordRetries());
+
+        if (args.getRecordDir() != null) {
+            try {
+                RecordSpill.start(args.getRecordDir());
+                RecordArchiver.start(args.getRecordDir(), args.getRecordQueue(), Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+                logger.info("Streaming and archiving game recordings to {}", args.getRecordDir());
+            } catch (IOException e) {
+                logger.error("Failed to prepare recording directory, keeping recordings in memory", e);
+            }
+        }
+
         logger.info("Initializing network...");
 
-        bossGroup = new MultiThreadIoEventLoopGroup(1, new DefaultThreadFactory("Netty-Boss", true), NioIoHandler.newFactory());
-        workerGroup = new MultiThreadIoEventLoopGroup(0, new DefaultThreadFactory("Netty-Worker", true), NioIoHandler.newFactory());
+        NetworkTransport transport = NetworkTransport.resolve(args.getTransport());
+        int acceptors = transport.resolveAcceptors(args.getAcceptors());
+        logger.info("Using {} transport with {} acceptor(s)", transport, acceptors);
+
+        bossGroup = new MultiThreadIoEventLoopGroup(acceptors, new DefaultThreadFactory("Netty-Boss", true), transport.newIoHandlerFactory());
+        workerGroup = new MultiThreadIoEventLoopGroup(0, new DefaultThreadFactory("Netty-Worker", true), transport.newIoHandlerFactory());
 
         ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
-                .childHandler(new ServerChannelInitializer(allChannels));
+                .channel(transport.getServerChannelClass())
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                        args.getWriteBufferLowWaterMark(),
+                        args.getWriteBufferHighWaterMark()
+                ))
+                .childHandler(new ServerChannelInitializer(
+                        allChannels,
+                        new ConnectionLimiter(args.getMaxConnections(), args.getMaxConnectionsPerIp()),
+                        args.getHandshakeTimeoutMillis()
+                ));
+
+        if (acceptors > 1) {
+            transport.enableReusePort(bootstrap);
+        }
 
-        ChannelFuture future = bootstrap.bind(InetAddress.getByName(args.getHost()), args.getPort()).sync();
-        serverChannel = future.channel();
-        allChannels.add(serverChannel);
+        InetAddress address = InetAddress.getByName(args.getHost());
+        for (int i = 0; i < acceptors; i++) {
+            ChannelFuture future = bootstrap.bind(address, args.getPort()).sync();
+            if (serverChannel == null) {
+                serverChannel = future.channel();
+            }
+            allChannels.add(future.channel());
+        }
 
         logger.info("Listening on {}:{}", args.getHost(), args.getPort());
 
@@ -152,14 +221,15 @@ public class Server {
         postEvent(new ServerLifecycleEvent(ServerLifecycleEvent.State.STOPPING));
 
         long shutdownStart = System.nanoTime();
-        int onlineCount = PlayerManager.getOnlinePlayers().size();
+        List<Player> onlinePlayers = PlayerManager.getOnlinePlayers();
+        int onlineCount = onlinePlayers.size();
         int channelCount = allChannels.size();
 
         logger.info("Shutting down...");
 
         if (onlineCount > 0) {
             logger.info("Kicking {} player(s)...", onlineCount);
-            PlayerManager.getOnlinePlayers().forEach(Player::kick);
+            onlinePlayers.forEach(Player::kick);
         }
 
         if (pluginManager != null) {
@@ -182,6 +252,12 @@ public class Server {
             bossGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS).awaitUninterruptibly(5, TimeUnit.SECONDS);
         }
 
+        HotCharts.stop();
+        RecordSpill.stop();
+        RoomPlaying.stop();
+        RecordArchiver.stop();
+        PhiraFetcher.closeDiskCache();
+
         long uptime = System.currentTimeMillis() - startTime.get();
         long shutdownTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - shutdownStart);
 
@@ -9,6 +9,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.io.IoBuilder;
 import top.rymc.phira.main.Server;
+import top.rymc.phira.main.game.record.RecordArchiver;
+import top.rymc.phira.main.util.HttpPhiraUpstream;
 
 import java.io.IOException;
 import java.io.PrintStream;
@@ -25,6 +27,26 @@ public class ServerArgs {
     private final Path pluginsDir;
     private final boolean proxyProtocol;
     private final String defaultLanguage;
+    private final String transport;
+    private final int acceptors;
+    private final int workerThreads;
+    private final boolean roomActor;
+    private final int writeBufferLowWaterMark;
+    private final int writeBufferHighWaterMark;
+    private final int streamWindowMillis;
+    private final int maxConnections;
+    private final int maxConnectionsPerIp;
+    private final int handshakeTimeoutMillis;
+    private final boolean packetRateLimit;
+    private final Path cacheDir;
+    private final int recordRetries;
+    private final Path recordDir;
+    private final int recordQueue;
+    private final String upstream;
+    private final long simulatorSeed;
+    private final int simulatorLatencyMillis;
+    private final int simulatorLatencyP99Millis;
+    private final double simulatorErrorRate;
 
     public ServerArgs(String[] args) {
         OptionParser parser = new OptionParser();
@@ -54,6 +76,104 @@ public class ServerArgs {
                 .ofType(String.class)
                 .defaultsTo("zh-CN");
 
+        OptionSpec<String> transportSpec = parser.accepts("transport", "Network transport (auto, nio, epoll)")
+                .withRequiredArg()
+                .ofType(String.class)
+                .defaultsTo("auto");
+
+        OptionSpec<Integer> acceptorsSpec = parser.accepts("acceptors", "Number of SO_REUSEPORT listeners, 0 for one per CPU (epoll only)")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(0);
+
+        OptionSpec<Integer> workerThreadsSpec = parser.accepts("worker-threads", "Packet worker pool size, 0 for virtual threads when available")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(0);
+
+        OptionSpec<Boolean> roomActorSpec = parser.accepts("room-actor", "Run each room's operations one at a time on its own mailbox")
+                .withOptionalArg()
+                .ofType(Boolean.class)
+                .defaultsTo(false);
+
+        OptionSpec<Integer> writeBufferLowSpec = parser.accepts("write-buffer-low", "Outbound buffer size in bytes at which a connection becomes writable again")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(32 * 1024);
+
+        OptionSpec<Integer> writeBufferHighSpec = parser.accepts("write-buffer-high", "Outbound buffer size in bytes at which a connection stops being writable")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(64 * 1024);
+
+        OptionSpec<Integer> streamWindowSpec = parser.accepts("stream-window", "Milliseconds to coalesce touch and judge streams before sending them to monitors, 0 to disable")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(0);
+
+        OptionSpec<Integer> maxConnectionsSpec = parser.accepts("max-connections", "Maximum number of concurrent connections, 0 for unlimited")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(0);
+
+        OptionSpec<Integer> maxConnectionsPerIpSpec = parser.accepts("max-connections-per-ip", "Maximum number of concurrent connections from one IP, 0 for unlimited")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(0);
+
+        OptionSpec<Integer> handshakeTimeoutSpec = parser.accepts("handshake-timeout", "Milliseconds allowed for the proxy and Phira handshakes to complete")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(10000);
+
+        OptionSpec<Boolean> packetRateLimitSpec = parser.accepts("packet-rate-limit", "Limit inbound packet rate per connection and kick on sustained abuse")
+                .withOptionalArg()
+                .ofType(Boolean.class)
+                .defaultsTo(false);
+
+        OptionSpec<String> cacheDirSpec = parser.accepts("cache-dir", "Directory for the persistent chart and user metadata cache, disabled when not set")
+                .withRequiredArg()
+                .ofType(String.class);
+
+        OptionSpec<Integer> recordRetriesSpec = parser.accepts("record-retries", "Times a failed game result lookup is retried with backoff before the result is rejected")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(2);
+
+        OptionSpec<String> recordDirSpec = parser.accepts("record-dir", "Directory that game recordings are streamed to while playing and archived to when finished, disabled when not set")
+                .withRequiredArg()
+                .ofType(String.class);
+
+        OptionSpec<Integer> recordQueueSpec = parser.accepts("record-queue", "Finished recordings that may wait to be archived before game threads write them directly")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(RecordArchiver.DEFAULT_QUEUE_CAPACITY);
+
+        OptionSpec<String> upstreamSpec = parser.accepts("upstream", "Phira API base URL, or 'simulator' to generate users, charts and records locally")
+                .withRequiredArg()
+                .ofType(String.class)
+                .defaultsTo(HttpPhiraUpstream.DEFAULT_HOST);
+
+        OptionSpec<Long> simulatorSeedSpec = parser.accepts("simulator-seed", "Seed for data generated by the upstream simulator")
+                .withRequiredArg()
+                .ofType(Long.class)
+                .defaultsTo(0L);
+
+        OptionSpec<Integer> simulatorLatencySpec = parser.accepts("simulator-latency", "Median response latency of the upstream simulator in milliseconds")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(20);
+
+        OptionSpec<Integer> simulatorLatencyP99Spec = parser.accepts("simulator-latency-p99", "99th percentile response latency of the upstream simulator in milliseconds")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(100);
+
+        OptionSpec<Double> simulatorErrorRateSpec = parser.accepts("simulator-error-rate", "Fraction of upstream simulator requests that fail, between 0 and 1")
+                .withRequiredArg()
+                .ofType(Double.class)
+                .defaultsTo(0.0);
+
         parser.accepts("help", "Show this help message").forHelp();
 
         OptionSet options;
@@ -77,8 +197,28 @@ public class ServerArgs {
         this.port = clampPort(options.valueOf(portSpec));
         this.host = options.valueOf(hostSpec);
         this.pluginsDir = Paths.get(options.valueOf(pluginsSpec));
-        this.proxyProtocol = options.valueOf(proxyProtocol);
+        this.proxyProtocol = flag(options, proxyProtocol);
         this.defaultLanguage = options.valueOf(languageSpec);
+        this.transport = options.valueOf(transportSpec);
+        this.acceptors = Math.max(0, options.valueOf(acceptorsSpec));
+        this.workerThreads = Math.max(0, options.valueOf(workerThreadsSpec));
+        this.roomActor = flag(options, roomActorSpec);
+        this.writeBufferLowWaterMark = Math.max(0, options.valueOf(writeBufferLowSpec));
+        this.writeBufferHighWaterMark = Math.max(this.writeBufferLowWaterMark, options.valueOf(writeBufferHighSpec));
+        this.streamWindowMillis = Math.max(0, options.valueOf(streamWindowSpec));
+        this.maxConnections = Math.max(0, options.valueOf(maxConnectionsSpec));
+        this.maxConnectionsPerIp = Math.max(0, options.valueOf(maxConnectionsPerIpSpec));
+        this.handshakeTimeoutMillis = Math.max(1, options.valueOf(handshakeTimeoutSpec));
+        this.packetRateLimit = flag(options, packetRateLimitSpec);
+        this.cacheDir = options.has(cacheDirSpec) ? Paths.get(options.valueOf(cacheDirSpec)) : null;
+        this.recordRetries = Math.max(0, options.valueOf(recordRetriesSpec));
+        this.recordDir = options.has(recordDirSpec) ? Paths.get(options.valueOf(recordDirSpec)) : null;
+        this.recordQueue = Math.max(1, options.valueOf(recordQueueSpec));
+        this.upstream = options.valueOf(upstreamSpec);
+        this.simulatorSeed = options.valueOf(simulatorSeedSpec);
+        this.simulatorLatencyMillis = Math.max(0, options.valueOf(simulatorLatencySpec));
+        this.simulatorLatencyP99Millis = Math.max(this.simulatorLatencyMillis, options.valueOf(simulatorLatencyP99Spec));
+        this.simulatorErrorRate = Math.min(1, Math.max(0, options.valueOf(simulatorErrorRateSpec)));
     }
 
     private void printHelp(OptionParser parser) {
@@ -91,6 +231,13 @@ public class ServerArgs {
         }
     }
 
+    private static boolean flag(OptionSet options, OptionSpec<Boolean> spec) {
+        if (options.has(spec) && !options.hasArgument(spec)) {
+            return true;
+        }
+        return options.valueOf(spec);
+    }
+
     private static int clampPort(int value) {
         return Math.max(1, Math.min(value, 65535));
     }
@@ -1,12 +1,15 @@
 package top.rymc.phira.main.data;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.time.OffsetDateTime;
 
 @Getter
+@Setter(AccessLevel.PACKAGE)
 @ToString
 @EqualsAndHashCode
 @SuppressWarnings("unused")
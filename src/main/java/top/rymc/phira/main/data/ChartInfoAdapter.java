@@ -0,0 +1,90 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import static top.rymc.phira.main.data.JsonFields.*;
+
+public final class ChartInfoAdapter extends TypeAdapter<ChartInfo> {
+
+    public static final ChartInfoAdapter INSTANCE = new ChartInfoAdapter();
+
+    private ChartInfoAdapter() {
+    }
+
+    @Override
+    public ChartInfo read(JsonReader reader) throws IOException {
+        if (skipNull(reader)) {
+            return null;
+        }
+
+        ChartInfo info = new ChartInfo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+
+            switch (name) {
+                case "id" -> info.setId(reader.nextInt());
+                case "name" -> info.setName(reader.nextString());
+                case "level" -> info.setLevel(reader.nextString());
+                case "difficulty" -> info.setDifficulty((float) reader.nextDouble());
+                case "charter" -> info.setCharter(reader.nextString());
+                case "composer" -> info.setComposer(reader.nextString());
+                case "illustrator" -> info.setIllustrator(reader.nextString());
+                case "ranked" -> info.setRanked(reader.nextBoolean());
+                case "reviewed" -> info.setReviewed(reader.nextBoolean());
+                case "stable" -> info.setStable(reader.nextBoolean());
+                case "stable_request" -> info.setStableRequest(reader.nextBoolean());
+                case "illustration" -> info.setIllustration(reader.nextString());
+                case "preview" -> info.setPreview(reader.nextString());
+                case "file" -> info.setFile(reader.nextString());
+                case "uploader" -> info.setUploader(reader.nextInt());
+                case "rating" -> info.setRating((float) reader.nextDouble());
+                case "rating_count" -> info.setRatingCount(reader.nextInt());
+                case "created" -> info.setCreated(nextDateTime(reader));
+                case "updated" -> info.setUpdated(nextDateTime(reader));
+                case "chart_updated" -> info.setChartUpdated(nextDateTime(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return info;
+    }
+
+    @Override
+    public void write(JsonWriter writer, ChartInfo info) throws IOException {
+        if (info == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("id").value(info.getId());
+        writer.name("name").value(info.getName());
+        writer.name("level").value(info.getLevel());
+        writer.name("difficulty").value(info.getDifficulty());
+        writer.name("charter").value(info.getCharter());
+        writer.name("composer").value(info.getComposer());
+        writer.name("illustrator").value(info.getIllustrator());
+        writer.name("ranked").value(info.isRanked());
+        writer.name("reviewed").value(info.isReviewed());
+        writer.name("stable").value(info.isStable());
+        writer.name("stable_request").value(info.isStableRequest());
+        writer.name("illustration").value(info.getIllustration());
+        writer.name("preview").value(info.getPreview());
+        writer.name("file").value(info.getFile());
+        writer.name("uploader").value(info.getUploader());
+        writer.name("rating").value(info.getRating());
+        writer.name("rating_count").value(info.getRatingCount());
+        writeDateTime(writer, "created", info.getCreated());
+        writeDateTime(writer, "updated", info.getUpdated());
+        writeDateTime(writer, "chart_updated", info.getChartUpdated());
+        writer.endObject();
+    }
+}
@@ -0,0 +1,86 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import static top.rymc.phira.main.data.JsonFields.*;
+
+public final class GameRecordAdapter extends TypeAdapter<GameRecord> {
+
+    public static final GameRecordAdapter INSTANCE = new GameRecordAdapter();
+
+    private GameRecordAdapter() {
+    }
+
+    @Override
+    public GameRecord read(JsonReader reader) throws IOException {
+        if (skipNull(reader)) {
+            return null;
+        }
+
+        GameRecord record = new GameRecord();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+
+            switch (name) {
+                case "id" -> record.setId(reader.nextInt());
+                case "player" -> record.setPlayer(reader.nextInt());
+                case "chart" -> record.setChart(reader.nextInt());
+                case "score" -> record.setScore(reader.nextInt());
+                case "accuracy" -> record.setAccuracy((float) reader.nextDouble());
+                case "perfect" -> record.setPerfect(reader.nextInt());
+                case "good" -> record.setGood(reader.nextInt());
+                case "bad" -> record.setBad(reader.nextInt());
+                case "miss" -> record.setMiss(reader.nextInt());
+                case "speed" -> record.setSpeed((float) reader.nextDouble());
+                case "max_combo" -> record.setMaxCombo(reader.nextInt());
+                case "best" -> record.setBest(reader.nextBoolean());
+                case "best_std" -> record.setBestStd(reader.nextBoolean());
+                case "mods" -> record.setMods(reader.nextInt());
+                case "full_combo" -> record.setFullCombo(reader.nextBoolean());
+                case "time" -> record.setTime(nextDateTime(reader));
+                case "std" -> record.setStd((float) reader.nextDouble());
+                case "std_score" -> record.setStdScore((float) reader.nextDouble());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return record;
+    }
+
+    @Override
+    public void write(JsonWriter writer, GameRecord record) throws IOException {
+        if (record == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("id").value(record.getId());
+        writer.name("player").value(record.getPlayer());
+        writer.name("chart").value(record.getChart());
+        writer.name("score").value(record.getScore());
+        writer.name("accuracy").value(record.getAccuracy());
+        writer.name("perfect").value(record.getPerfect());
+        writer.name("good").value(record.getGood());
+        writer.name("bad").value(record.getBad());
+        writer.name("miss").value(record.getMiss());
+        writer.name("speed").value(record.getSpeed());
+        writer.name("max_combo").value(record.getMaxCombo());
+        writer.name("best").value(record.isBest());
+        writer.name("best_std").value(record.isBestStd());
+        writer.name("mods").value(record.getMods());
+        writer.name("full_combo").value(record.isFullCombo());
+        writeDateTime(writer, "time", record.getTime());
+        writer.name("std").value(record.getStd());
+        writer.name("std_score").value(record.getStdScore());
+        writer.endObject();
+    }
+}
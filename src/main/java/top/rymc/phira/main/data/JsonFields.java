@@ -0,0 +1,35 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+
+final class JsonFields {
+
+    private JsonFields() {
+    }
+
+    static boolean skipNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    static OffsetDateTime nextDateTime(JsonReader reader) throws IOException {
+        return OffsetDateTime.parse(reader.nextString());
+    }
+
+    static void writeDateTime(JsonWriter writer, String name, OffsetDateTime value) throws IOException {
+        writer.name(name);
+        if (value == null) {
+            writer.nullValue();
+        } else {
+            writer.value(value.toString());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.annotations.JsonAdapter;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@JsonAdapter(PlayerProfileAdapter.class)
+public class PlayerProfile {
+
+    private final int id;
+    private final String name;
+    private final String language;
+    private final boolean banned;
+    private final boolean loginBanned;
+
+    public PlayerProfile(int id, String name, String language, boolean banned, boolean loginBanned) {
+        this.id = id;
+        this.name = intern(name);
+        this.language = intern(language);
+        this.banned = banned;
+        this.loginBanned = loginBanned;
+    }
+
+    public static PlayerProfile of(UserInfo info) {
+        return new PlayerProfile(info.getId(), info.getName(), info.getLanguage(), info.isBanned(), info.isLoginBanned());
+    }
+
+    @Deprecated(forRemoval = true)
+    public UserInfo toUserInfo() {
+        UserInfo info = new UserInfo();
+        info.setId(id);
+        info.setName(name);
+        info.setLanguage(language);
+        info.setBanned(banned);
+        info.setLoginBanned(loginBanned);
+        return info;
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+}
@@ -0,0 +1,65 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import static top.rymc.phira.main.data.JsonFields.*;
+
+public final class PlayerProfileAdapter extends TypeAdapter<PlayerProfile> {
+
+    public static final PlayerProfileAdapter INSTANCE = new PlayerProfileAdapter();
+
+    private PlayerProfileAdapter() {
+    }
+
+    @Override
+    public PlayerProfile read(JsonReader reader) throws IOException {
+        if (skipNull(reader)) {
+            return null;
+        }
+
+        int id = 0;
+        String name = null;
+        String language = null;
+        boolean banned = false;
+        boolean loginBanned = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+
+            switch (field) {
+                case "id" -> id = reader.nextInt();
+                case "name" -> name = reader.nextString();
+                case "language" -> language = reader.nextString();
+                case "banned" -> banned = reader.nextBoolean();
+                case "login_banned" -> loginBanned = reader.nextBoolean();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new PlayerProfile(id, name, language, banned, loginBanned);
+    }
+
+    @Override
+    public void write(JsonWriter writer, PlayerProfile profile) throws IOException {
+        if (profile == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("id").value(profile.getId());
+        writer.name("name").value(profile.getName());
+        writer.name("language").value(profile.getLanguage());
+        writer.name("banned").value(profile.isBanned());
+        writer.name("login_banned").value(profile.isLoginBanned());
+        writer.endObject();
+    }
+}
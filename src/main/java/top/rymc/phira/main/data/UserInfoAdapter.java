@@ -0,0 +1,76 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import static top.rymc.phira.main.data.JsonFields.*;
+
+public final class UserInfoAdapter extends TypeAdapter<UserInfo> {
+
+    public static final UserInfoAdapter INSTANCE = new UserInfoAdapter();
+
+    private UserInfoAdapter() {
+    }
+
+    @Override
+    public UserInfo read(JsonReader reader) throws IOException {
+        if (skipNull(reader)) {
+            return null;
+        }
+
+        UserInfo info = new UserInfo();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+
+            switch (name) {
+                case "id" -> info.setId(reader.nextInt());
+                case "name" -> info.setName(reader.nextString());
+                case "avatar" -> info.setAvatar(reader.nextString());
+                case "language" -> info.setLanguage(reader.nextString());
+                case "exp" -> info.setExp(reader.nextInt());
+                case "rks" -> info.setRks(reader.nextDouble());
+                case "joined" -> info.setJoined(nextDateTime(reader));
+                case "last_login" -> info.setLastLogin(nextDateTime(reader));
+                case "roles" -> info.setRoles(reader.nextInt());
+                case "banned" -> info.setBanned(reader.nextBoolean());
+                case "login_banned" -> info.setLoginBanned(reader.nextBoolean());
+                case "follower_count" -> info.setFollowerCount(reader.nextInt());
+                case "following_count" -> info.setFollowingCount(reader.nextInt());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return info;
+    }
+
+    @Override
+    public void write(JsonWriter writer, UserInfo info) throws IOException {
+        if (info == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("id").value(info.getId());
+        writer.name("name").value(info.getName());
+        writer.name("avatar").value(info.getAvatar());
+        writer.name("language").value(info.getLanguage());
+        writer.name("exp").value(info.getExp());
+        writer.name("rks").value(info.getRks());
+        writeDateTime(writer, "joined", info.getJoined());
+        writeDateTime(writer, "last_login", info.getLastLogin());
+        writer.name("roles").value(info.getRoles());
+        writer.name("banned").value(info.isBanned());
+        writer.name("login_banned").value(info.isLoginBanned());
+        writer.name("follower_count").value(info.getFollowerCount());
+        writer.name("following_count").value(info.getFollowingCount());
+        writer.endObject();
+    }
+}
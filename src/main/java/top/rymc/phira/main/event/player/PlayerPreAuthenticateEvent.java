@@ -3,6 +3,7 @@ package top.rymc.phira.main.event.player;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.data.UserInfo;
 import top.rymc.phira.main.network.PlayerConnection;
 import top.rymc.phira.plugin.event.ReasonedCancellableEvent;
@@ -14,6 +15,16 @@ public class PlayerPreAuthenticateEvent extends ReasonedCancellableEvent {
     private final String token;
 
     @Setter
-    private UserInfo userInfo;
+    private PlayerProfile profile;
+
+    @Deprecated(forRemoval = true)
+    public UserInfo getUserInfo() {
+        return profile != null ? profile.toUserInfo() : null;
+    }
+
+    @Deprecated(forRemoval = true)
+    public void setUserInfo(UserInfo userInfo) {
+        this.profile = userInfo != null ? PlayerProfile.of(userInfo) : null;
+    }
 
 }
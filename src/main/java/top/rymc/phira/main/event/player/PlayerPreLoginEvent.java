@@ -2,6 +2,7 @@ package top.rymc.phira.main.event.player;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.data.UserInfo;
 import top.rymc.phira.plugin.event.ReasonedCancellableEvent;
 
@@ -9,6 +10,11 @@ import top.rymc.phira.plugin.event.ReasonedCancellableEvent;
 @Getter
 public class PlayerPreLoginEvent extends ReasonedCancellableEvent {
 
-    private final UserInfo userInfo;
+    private final PlayerProfile profile;
+
+    @Deprecated(forRemoval = true)
+    public UserInfo getUserInfo() {
+        return profile.toUserInfo();
+    }
 
 }
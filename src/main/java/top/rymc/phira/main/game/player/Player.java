@@ -1,6 +1,7 @@
 package top.rymc.phira.main.game.player;
 
 import top.rymc.phira.main.Server;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.data.UserInfo;
 import top.rymc.phira.main.game.player.operations.PlayerOperations;
 import top.rymc.phira.main.game.room.Room;
@@ -20,21 +21,26 @@ public interface Player extends ProtocolConvertible<UserProfile> {
 
     void kick();
 
-    UserInfo getUserInfo();
+    PlayerProfile getProfile();
+
+    @Deprecated(forRemoval = true)
+    default UserInfo getUserInfo() {
+        return getProfile().toUserInfo();
+    }
 
     Optional<PlayerOperations> operations();
 
     boolean isOnline();
 
-    default int getId() { return getUserInfo().getId(); }
-    default String getName() { return getUserInfo().getName(); }
+    default int getId() { return getProfile().getId(); }
+    default String getName() { return getProfile().getName(); }
 
     default UserProfile toProtocol() {
         return new UserProfile(getId(), getName());
     }
 
     default String getLanguage() {
-        String lang = getUserInfo().getLanguage();
+        String lang = getProfile().getLanguage();
         return lang != null ? lang : Server.getInstance().getArgs().getDefaultLanguage();
     }
 }
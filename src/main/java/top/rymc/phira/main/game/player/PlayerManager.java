@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
@@ -27,6 +28,9 @@ public class PlayerManager {
     }
 
     private static final Map<Integer, Player> PLAYERS = new ConcurrentHashMap<>();
+    private static final Map<PlayerConnection, LocalPlayer> CONNECTIONS = new ConcurrentHashMap<>();
+    private static final Map<String, Player> NAMES = new ConcurrentHashMap<>();
+    private static final Set<Player> ONLINE = ConcurrentHashMap.newKeySet();
 
     public static <T extends Player> ResolveResult<T> resolvePlayer(
             int userId,
@@ -47,6 +51,12 @@ public class PlayerManager {
                 PlayerCreateEvent createEvent = new PlayerCreateEvent(player);
                 Server.postEvent(createEvent);
 
+                String name = player.getName();
+                if (name != null) {
+                    NAMES.put(name, player);
+                }
+                bindConnection(player);
+
                 return player;
             }
 
@@ -66,6 +76,7 @@ public class PlayerManager {
             }
 
             reference.set(new ResolveResult<>(castedExisting, ResolveResult.Type.Resume));
+            bindConnection(castedExisting);
 
             return existing;
 
@@ -81,20 +92,52 @@ public class PlayerManager {
             throw new AssertionError();
         }
 
-        closeBinder.accept(() -> PLAYERS.remove(userId), result.player);
+        closeBinder.accept(() -> remove(userId), result.player);
 
         return result;
     }
 
+    private static void bindConnection(Player player) {
+        ONLINE.add(player);
+        if (!(player instanceof LocalPlayer localPlayer)) {
+            return;
+        }
+
+        PlayerConnection connection = localPlayer.getConnection();
+        if (connection == null) {
+            return;
+        }
+
+        CONNECTIONS.put(connection, localPlayer);
+        connection.onClose(ctx -> {
+            CONNECTIONS.remove(connection, localPlayer);
+            if (localPlayer.getConnection() == connection) {
+                ONLINE.remove(localPlayer);
+            }
+        });
+    }
+
+    private static void remove(int userId) {
+        PLAYERS.computeIfPresent(userId, (id, player) -> {
+            ONLINE.remove(player);
+            String name = player.getName();
+            if (name != null) {
+                NAMES.remove(name, player);
+            }
+            if (player instanceof LocalPlayer localPlayer && localPlayer.getConnection() != null) {
+                CONNECTIONS.remove(localPlayer.getConnection(), localPlayer);
+            }
+            return null;
+        });
+    }
+
     public static Optional<LocalPlayer> getPlayer(PlayerConnection connection) {
-        return PLAYERS.values().stream()
-                .<LocalPlayer>mapMulti((p, consumer) -> {
-                    if (p instanceof LocalPlayer lp) {
-                        consumer.accept(lp);
-                    }
-                })
-                .filter(player -> player.getConnection() == connection)
-                .findFirst();
+        LocalPlayer player = CONNECTIONS.get(connection);
+        return player != null && player.getConnection() == connection ? Optional.of(player) : Optional.empty();
+    }
+
+    public static Optional<Player> getPlayer(String name) {
+        return Optional.ofNullable(NAMES.get(name));
     }
 
     public static Optional<Player> getPlayer(int playerId) {
@@ -107,12 +150,15 @@ public class PlayerManager {
     }
 
     public static List<Player> getOnlinePlayers() {
-        return PLAYERS.values()
-                .stream()
+        return ONLINE.stream()
                 .filter(Player::isOnline)
                 .toList();
     }
 
+    public static int getOnlineCount() {
+        return ONLINE.size();
+    }
+
 
     public static List<Player> getAllPlayers() {
         return new ArrayList<>(PLAYERS.values());
@@ -2,7 +2,7 @@ package top.rymc.phira.main.game.player.local;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.game.player.Player;
 import top.rymc.phira.main.game.player.operations.LocalPlayerOperations;
 import top.rymc.phira.main.game.player.operations.PlayerOperations;
@@ -16,7 +16,7 @@ import java.util.Optional;
 
 @RequiredArgsConstructor
 public class LocalPlayer implements Player {
-    @Getter private final UserInfo userInfo;
+    @Getter private final PlayerProfile profile;
     @Getter private final ConnectionReference connectionRef;
 
     public PlayerConnection getConnection() {
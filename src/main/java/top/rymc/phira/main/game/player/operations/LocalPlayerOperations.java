@@ -1,5 +1,6 @@
 package top.rymc.phira.main.game.player.operations;
 
+import top.rymc.phira.main.network.EncodedPackets;
 import top.rymc.phira.main.network.PlayerConnection;
 import top.rymc.phira.protocol.data.FullUserProfile;
 import top.rymc.phira.protocol.data.message.*;
@@ -7,6 +8,7 @@ import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
 import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
 import top.rymc.phira.protocol.data.state.GameState;
 import top.rymc.phira.protocol.data.state.SelectChart;
+import top.rymc.phira.protocol.packet.ClientBoundPacket;
 import top.rymc.phira.protocol.packet.clientbound.ClientBoundChangeHostPacket;
 import top.rymc.phira.protocol.packet.clientbound.ClientBoundChangeStatePacket;
 import top.rymc.phira.protocol.packet.clientbound.ClientBoundJudgesPacket;
@@ -15,103 +17,108 @@ import top.rymc.phira.protocol.packet.clientbound.ClientBoundOnJoinRoomPacket;
 import top.rymc.phira.protocol.packet.clientbound.ClientBoundTouchesPacket;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public class LocalPlayerOperations implements PlayerOperations {
-    private final PlayerConnection connection;
+    private final Consumer<ClientBoundPacket> sender;
 
     public LocalPlayerOperations(PlayerConnection connection) {
-        this.connection = connection;
+        this(connection::send);
+    }
+
+    public LocalPlayerOperations(Consumer<ClientBoundPacket> sender) {
+        this.sender = sender;
     }
 
     @Override
     public void updateHostStatus(boolean isHost) {
-        connection.send(ClientBoundChangeHostPacket.create(isHost));
+        sender.accept(ClientBoundChangeHostPacket.create(isHost));
     }
 
     @Override
     public void enterState(GameState state) {
-        connection.send(ClientBoundChangeStatePacket.create(state));
+        sender.accept(ClientBoundChangeStatePacket.create(state));
     }
 
     @Override
     public void selectChart(int chartId, String chartName, int selectedBy) {
-        connection.send(ClientBoundMessagePacket.create(
+        sender.accept(ClientBoundMessagePacket.create(
             new SelectChartMessage(selectedBy, chartName, chartId)
         ));
-        connection.send(ClientBoundChangeStatePacket.create(new SelectChart(chartId)));
+        sender.accept(ClientBoundChangeStatePacket.create(new SelectChart(chartId)));
     }
 
     @Override
     public void lockRoom(boolean locked) {
-        connection.send(ClientBoundMessagePacket.create(new LockRoomMessage(locked)));
+        sender.accept(ClientBoundMessagePacket.create(new LockRoomMessage(locked)));
     }
 
     @Override
     public void cycleRoom(boolean cycle) {
-        connection.send(ClientBoundMessagePacket.create(new CycleRoomMessage(cycle)));
+        sender.accept(ClientBoundMessagePacket.create(new CycleRoomMessage(cycle)));
     }
 
     @Override
     public void memberJoined(int memberId, String memberName, boolean isMonitor) {
-        connection.send(ClientBoundOnJoinRoomPacket.create(new FullUserProfile(memberId, memberName, isMonitor)));
-        connection.send(ClientBoundMessagePacket.create(
+        sender.accept(ClientBoundOnJoinRoomPacket.create(new FullUserProfile(memberId, memberName, isMonitor)));
+        sender.accept(ClientBoundMessagePacket.create(
             new JoinRoomMessage(memberId, memberName)
         ));
     }
 
     @Override
     public void memberLeft(int memberId, String memberName) {
-        connection.send(ClientBoundMessagePacket.create(
+        sender.accept(ClientBoundMessagePacket.create(
             new LeaveRoomMessage(memberId, memberName)
         ));
     }
 
     @Override
     public void memberReady(int memberId) {
-        connection.send(ClientBoundMessagePacket.create(new ReadyMessage(memberId)));
+        sender.accept(ClientBoundMessagePacket.create(new ReadyMessage(memberId)));
     }
 
     @Override
     public void memberCancelReady(int memberId) {
-        connection.send(ClientBoundMessagePacket.create(new CancelReadyMessage(memberId)));
+        sender.accept(ClientBoundMessagePacket.create(new CancelReadyMessage(memberId)));
     }
 
     @Override
     public void gameRequireStart(int initiatorId) {
-        connection.send(ClientBoundMessagePacket.create(new GameStartMessage(initiatorId)));
+        sender.accept(ClientBoundMessagePacket.create(new GameStartMessage(initiatorId)));
     }
 
     @Override
     public void gameStartPlaying() {
-        connection.send(ClientBoundMessagePacket.create(StartPlayingMessage.INSTANCE));
+        sender.accept(EncodedPackets.START_PLAYING);
     }
 
     @Override
     public void gameAbort(int abortedBy) {
-        connection.send(ClientBoundMessagePacket.create(new AbortMessage(abortedBy)));
+        sender.accept(ClientBoundMessagePacket.create(new AbortMessage(abortedBy)));
     }
 
     @Override
     public void receiveTouchStream(int fromPlayerId, List<TouchFrame> frames) {
-        connection.send(ClientBoundTouchesPacket.create(fromPlayerId, frames));
+        sender.accept(ClientBoundTouchesPacket.create(fromPlayerId, frames));
     }
 
     @Override
     public void receiveJudgeStream(int fromPlayerId, List<JudgeEvent> events) {
-        connection.send(ClientBoundJudgesPacket.create(fromPlayerId, events));
+        sender.accept(ClientBoundJudgesPacket.create(fromPlayerId, events));
     }
 
     @Override
     public void receiveChat(int senderId, String message) {
-        connection.send(ClientBoundMessagePacket.create(new ChatMessage(senderId, message)));
+        sender.accept(ClientBoundMessagePacket.create(new ChatMessage(senderId, message)));
     }
 
     public void gameEnd() {
-        connection.send(ClientBoundMessagePacket.create(GameEndMessage.INSTANCE));
+        sender.accept(EncodedPackets.GAME_END);
     }
 
     public void gamePlayed(int id, int score, float accuracy, boolean fullCombo) {
-        connection.send(ClientBoundMessagePacket.create( new PlayedMessage(id, score, accuracy, fullCombo)));
+        sender.accept(ClientBoundMessagePacket.create( new PlayedMessage(id, score, accuracy, fullCombo)));
     }
 
 }
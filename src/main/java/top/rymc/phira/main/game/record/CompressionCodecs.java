@@ -0,0 +1,197 @@
+package top.rymc.phira.main.game.record;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdException;
+import com.github.luben.zstd.ZstdInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+final class CompressionCodecs {
+
+    private static final int MAX_POOLED = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int STREAM_CHUNK = 64 * 1024;
+
+    private static final Pool<ZstdCompressCtx> ZSTD_COMPRESSORS = new Pool<>(ZstdCompressCtx::new, ZstdCompressCtx::close);
+    private static final Pool<ZstdDecompressCtx> ZSTD_DECOMPRESSORS = new Pool<>(ZstdDecompressCtx::new, ZstdDecompressCtx::close);
+    private static final Pool<Deflater> DEFLATERS = new Pool<>(Deflater::new, Deflater::end);
+    private static final Pool<Inflater> INFLATERS = new Pool<>(Inflater::new, Inflater::end);
+
+    private CompressionCodecs() {
+    }
+
+    static ByteBuf zstdCompress(ByteBuf input, int level) {
+        ByteBuf source = direct(input);
+        ByteBuf output = null;
+        ZstdCompressCtx ctx = ZSTD_COMPRESSORS.borrow();
+        try {
+            ByteBuffer src = source.nioBuffer();
+            output = ByteBufAllocator.DEFAULT.directBuffer((int) Zstd.compressBound(src.remaining()));
+            ByteBuffer dst = output.nioBuffer(0, output.capacity());
+
+            ctx.setLevel(level);
+            int written = ctx.compressDirectByteBuffer(dst, dst.position(), dst.remaining(), src, src.position(), src.remaining());
+            output.writerIndex(written);
+            return output;
+        } catch (ZstdException e) {
+            if (output != null) {
+                output.release();
+            }
+            throw new EncoderException("Zstd compression failed", e);
+        } finally {
+            ZSTD_COMPRESSORS.release(ctx);
+            source.release();
+        }
+    }
+
+    static ByteBuf zstdDecompress(ByteBuf input) {
+        ByteBuf source = direct(input);
+        try {
+            ByteBuffer src = source.nioBuffer();
+            long size = Zstd.getDirectByteBufferFrameContentSize(src, src.position(), src.remaining());
+            if (size < 0 || size > Integer.MAX_VALUE) {
+                return zstdDecompressStream(source);
+            }
+
+            ByteBuf output = ByteBufAllocator.DEFAULT.directBuffer((int) size);
+            ZstdDecompressCtx ctx = ZSTD_DECOMPRESSORS.borrow();
+            try {
+                ByteBuffer dst = output.nioBuffer(0, (int) size);
+                int read = ctx.decompressDirectByteBuffer(dst, dst.position(), dst.remaining(), src, src.position(), src.remaining());
+                output.writerIndex(read);
+                return output;
+            } catch (ZstdException e) {
+                output.release();
+                throw new DecoderException("Zstd decompression failed", e);
+            } finally {
+                ZSTD_DECOMPRESSORS.release(ctx);
+            }
+        } finally {
+            source.release();
+        }
+    }
+
+    private static ByteBuf zstdDecompressStream(ByteBuf source) {
+        ByteBuf output = ByteBufAllocator.DEFAULT.directBuffer(Math.max(STREAM_CHUNK, source.readableBytes() * 4));
+        try (InputStream in = new ZstdInputStream(new ByteBufInputStream(source.duplicate()))) {
+            while (output.writeBytes(in, STREAM_CHUNK) >= 0) {
+                output.ensureWritable(STREAM_CHUNK);
+            }
+            return output;
+        } catch (IOException | ZstdException e) {
+            output.release();
+            throw new DecoderException("Zstd decompression failed", e);
+        }
+    }
+
+    static ByteBuf deflate(ByteBuf input, int level) {
+        ByteBuf source = direct(input);
+        ByteBuf output = ByteBufAllocator.DEFAULT.directBuffer(Math.max(64, source.readableBytes() / 2));
+        Deflater deflater = DEFLATERS.borrow();
+        try {
+            deflater.setLevel(level);
+            deflater.setInput(source.nioBuffer());
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                output.ensureWritable(STREAM_CHUNK);
+                int written = deflater.deflate(output.nioBuffer(output.writerIndex(), output.writableBytes()));
+                output.writerIndex(output.writerIndex() + written);
+            }
+            return output;
+        } catch (RuntimeException e) {
+            output.release();
+            throw e;
+        } finally {
+            deflater.reset();
+            DEFLATERS.release(deflater);
+            source.release();
+        }
+    }
+
+    static ByteBuf inflate(ByteBuf input) {
+        ByteBuf source = direct(input);
+        ByteBuf output = ByteBufAllocator.DEFAULT.directBuffer(Math.max(STREAM_CHUNK, source.readableBytes() * 4));
+        Inflater inflater = INFLATERS.borrow();
+        try {
+            inflater.setInput(source.nioBuffer());
+
+            while (!inflater.finished()) {
+                output.ensureWritable(STREAM_CHUNK);
+                int read = inflater.inflate(output.nioBuffer(output.writerIndex(), output.writableBytes()));
+                output.writerIndex(output.writerIndex() + read);
+                if (read == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DecoderException("Deflate decompress failed: unexpected end of input");
+                }
+            }
+            return output;
+        } catch (DataFormatException e) {
+            output.release();
+            throw new DecoderException("Deflate decompress failed", e);
+        } catch (RuntimeException e) {
+            output.release();
+            throw e;
+        } finally {
+            inflater.reset();
+            INFLATERS.release(inflater);
+            source.release();
+        }
+    }
+
+    private static ByteBuf direct(ByteBuf input) {
+        if (input.isDirect() && input.nioBufferCount() == 1) {
+            return input.retainedDuplicate();
+        }
+
+        ByteBuf copy = ByteBufAllocator.DEFAULT.directBuffer(input.readableBytes());
+        copy.writeBytes(input, input.readerIndex(), input.readableBytes());
+        return copy;
+    }
+
+    private static final class Pool<T> {
+
+        private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final Supplier<T> factory;
+        private final Consumer<T> destroyer;
+
+        private Pool(Supplier<T> factory, Consumer<T> destroyer) {
+            this.factory = factory;
+            this.destroyer = destroyer;
+        }
+
+        T borrow() {
+            T resource = idle.poll();
+            if (resource == null) {
+                return factory.get();
+            }
+            size.decrementAndGet();
+            return resource;
+        }
+
+        void release(T resource) {
+            if (size.incrementAndGet() <= MAX_POOLED) {
+                idle.offer(resource);
+                return;
+            }
+            size.decrementAndGet();
+            destroyer.accept(resource);
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package top.rymc.phira.main.game.record;
 
+import com.github.luben.zstd.RecyclingBufferPool;
 import com.github.luben.zstd.Zstd;
 import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.CodecException;
 import io.netty.handler.codec.CorruptedFrameException;
 import io.netty.handler.codec.DecoderException;
 import io.netty.util.ReferenceCountUtil;
+import io.netty.util.internal.PlatformDependent;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import top.rymc.phira.function.throwable.ThrowableBiFunction;
+import top.rymc.phira.function.throwable.ThrowableConsumer;
+import top.rymc.phira.function.throwable.ThrowableFunction;
 import top.rymc.phira.main.util.PhiraFetcher;
 import top.rymc.phira.main.util.ThreadFactoryCompat;
 import top.rymc.phira.protocol.PacketRegistry;
@@ -29,26 +36,35 @@ import top.rymc.phira.protocol.packet.serverbound.ServerBoundTouchesPacket;
 import top.rymc.phira.protocol.util.NettyPacketUtil;
 import top.rymc.phira.protocol.util.PacketWriter;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
 
 @Getter
@@ -58,6 +74,8 @@ public final class PhiraRecord implements Encodeable {
 
     private static final FileHeader fileHeader = new FileHeader();
     private static final int formatVersion = 1;
+    private static final Encodeable EMPTY_ELEMENT = buf -> {};
+    private static final int HEADER_PROBE_SIZE = 4096;
 
     private static CompressionType formatCompressionType = CompressionType.ZSTD;
     private static int formatCompressionLevel = Zstd.defaultCompressionLevel();
@@ -79,6 +97,9 @@ public final class PhiraRecord implements Encodeable {
     private String userName;
     private List<TouchFrame> touchFrames;
     private List<JudgeEvent> judgeEvents;
+    private Path file;
+    @Getter(AccessLevel.NONE)
+    private CompletableFuture<Path> written;
 
     private PhiraRecord() {
     }
@@ -94,13 +115,112 @@ public final class PhiraRecord implements Encodeable {
         this.judgeEvents = judgeEvents;
     }
 
+    public PhiraRecord(int id, long time, int chart, String chartName, int user, String userName, Path file) {
+        this(id, time, chart, chartName, user, userName, file, null);
+    }
+
+    PhiraRecord(int id, long time, int chart, String chartName, int user, String userName, Path file, CompletableFuture<Path> written) {
+        this.id = id;
+        this.time = time;
+        this.chart = chart;
+        this.chartName = chartName;
+        this.user = user;
+        this.userName = userName;
+        this.file = file;
+        this.written = written;
+    }
+
+    public synchronized List<TouchFrame> getTouchFrames() {
+        loadStreams();
+        return touchFrames;
+    }
+
+    public synchronized List<JudgeEvent> getJudgeEvents() {
+        loadStreams();
+        return judgeEvents;
+    }
+
+    public synchronized Stream<TouchFrame> streamTouchFrames() {
+        if (touchFrames != null || file == null) {
+            return getTouchFrames().stream();
+        }
+
+        awaitWritten();
+        return streamBody(file, reader -> {}, TouchFrame::decode);
+    }
+
+    public synchronized Stream<JudgeEvent> streamJudgeEvents() {
+        if (judgeEvents != null || file == null) {
+            return getJudgeEvents().stream();
+        }
+
+        awaitWritten();
+        return streamBody(file, reader -> reader.skipList(TouchFrame::decode), JudgeEvent::decode);
+    }
+
+    private static <T> Stream<T> streamBody(Path file, ThrowableConsumer<RecordBodyReader, IOException> seek, Function<ByteBuf, T> decoder) {
+        RecordBodyReader reader = null;
+        PhiraRecordIO.MappedFile mapped = null;
+        try {
+            mapped = PhiraRecordIO.MappedFile.map(file.toFile());
+            ByteBuf buf = mapped.getBuf();
+            if (fileHeader.check(buf) != FileHeader.FileType.JPhiraRec) {
+                throw new IllegalArgumentException(String.format("Only JPhiraRec records can be streamed: %s", file));
+            }
+
+            PhiraRecord record = new PhiraRecord();
+            record.fileVersion = buf.readIntLE();
+            if (record.fileVersion != 0 && record.fileVersion != 1) {
+                throw new IllegalArgumentException(String.format("Unsupported file version: %d (supported version: %d)", record.fileVersion, formatVersion));
+            }
+
+            record.decodeBodyCompression(buf);
+            reader = record.openBody(new ByteBufInputStream(buf));
+            seek.accept(reader);
+            return reader.streamList(decoder).onClose(mapped::close);
+        } catch (IOException e) {
+            release(reader, mapped);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            release(reader, mapped);
+            throw e;
+        }
+    }
+
+    private static void release(RecordBodyReader reader, PhiraRecordIO.MappedFile mapped) {
+        if (reader != null) {
+            reader.close();
+        }
+        if (mapped != null) {
+            mapped.close();
+        }
+    }
+
+    private void loadStreams() {
+        if (touchFrames != null && judgeEvents != null) {
+            return;
+        }
+
+        awaitWritten();
+        PhiraRecord stored = file != null ? PhiraRecordIO.readRecordFromFile(file.toFile()) : null;
+        this.touchFrames = stored != null ? stored.touchFrames : List.of();
+        this.judgeEvents = stored != null ? stored.judgeEvents : List.of();
+    }
+
+    private void awaitWritten() {
+        if (written != null) {
+            written.exceptionally(error -> null).join();
+        }
+    }
+
     @Override
     public void encode(ByteBuf byteBuf) {
         PacketWriter.write(byteBuf, fileHeader);
         PacketWriter.write(byteBuf, formatVersion);
         PacketWriter.write(byteBuf, formatCompressionType);
 
-        ByteBuf tmpBuf = Unpooled.buffer();
+        ByteBuf tmpBuf = ByteBufAllocator.DEFAULT.directBuffer();
+        ByteBuf compressed = null;
         try {
             PacketWriter.write(tmpBuf, id);
             PacketWriter.write(tmpBuf, time);
@@ -108,14 +228,51 @@ public final class PhiraRecord implements Encodeable {
             PacketWriter.write(tmpBuf, chartName);
             PacketWriter.write(tmpBuf, user);
             PacketWriter.write(tmpBuf, userName);
-            PacketWriter.write(tmpBuf, touchFrames);
-            PacketWriter.write(tmpBuf, judgeEvents);
+            PacketWriter.write(tmpBuf, getTouchFrames());
+            PacketWriter.write(tmpBuf, getJudgeEvents());
+
+            compressed = formatCompressionType.compress(tmpBuf, formatCompressionLevel);
+            byteBuf.writeBytes(compressed);
+        } finally {
+            ReferenceCountUtil.release(tmpBuf);
+            if (compressed != null) {
+                ReferenceCountUtil.release(compressed);
+            }
+        }
+
+    }
+
+    static OutputStream beginStreamed(OutputStream out, int id, long time, int chart, String chartName, int user, String userName) throws IOException {
+        ByteBuf tmpBuf = Unpooled.buffer();
+        try {
+            PacketWriter.write(tmpBuf, fileHeader);
+            PacketWriter.write(tmpBuf, formatVersion);
+            PacketWriter.write(tmpBuf, formatCompressionType);
+            tmpBuf.readBytes(out, tmpBuf.readableBytes());
 
-            byteBuf.writeBytes(formatCompressionType.compress(tmpBuf, formatCompressionLevel));
+            OutputStream body = formatCompressionType.compress(out, formatCompressionLevel);
+            tmpBuf.clear();
+            PacketWriter.write(tmpBuf, id);
+            PacketWriter.write(tmpBuf, time);
+            PacketWriter.write(tmpBuf, chart);
+            PacketWriter.write(tmpBuf, chartName);
+            PacketWriter.write(tmpBuf, user);
+            PacketWriter.write(tmpBuf, userName);
+            tmpBuf.readBytes(body, tmpBuf.readableBytes());
+            return body;
         } finally {
             ReferenceCountUtil.release(tmpBuf);
         }
+    }
 
+    static void writeStreamedListHeader(OutputStream body, int size) throws IOException {
+        ByteBuf tmpBuf = Unpooled.buffer(8);
+        try {
+            PacketWriter.write(tmpBuf, Collections.nCopies(size, EMPTY_ELEMENT));
+            tmpBuf.readBytes(body, tmpBuf.readableBytes());
+        } finally {
+            ReferenceCountUtil.release(tmpBuf);
+        }
     }
 
     public void decode(ByteBuf buf) {
@@ -162,24 +319,72 @@ public final class PhiraRecord implements Encodeable {
 
     }
 
-    private void decodeAsV2JPhiraRec(ByteBuf buf) {
+    private boolean decodeHeader(ByteBuf probe, FileChannel channel) {
+        this.fileType = fileHeader.check(probe);
+        if (fileType != FileHeader.FileType.JPhiraRec) {
+            return false;
+        }
+
+        this.fileVersion = probe.readIntLE();
+        if (fileVersion != 0 && fileVersion != 1) {
+            return false;
+        }
+
+        try {
+            decodeBodyCompression(probe);
+            channel.position(probe.writerIndex());
+            InputStream body = new SequenceInputStream(new ByteBufInputStream(probe), Channels.newInputStream(channel));
+            RecordBodyReader reader = openBody(body);
+            reader.close();
+        } catch (IOException | CodecException e) {
+            throw new RuntimeException(String.format("Failed to decode JPhiraRec version %d format record header", fileVersion), e);
+        }
+
+        if (fileVersion == 0) {
+            this.time = getTimeStamp(id);
+        }
+        return true;
+    }
+
+    private void decodeBodyCompression(ByteBuf buf) {
+        this.fileCompressionType = fileVersion == 1 ? CompressionType.decode(buf) : CompressionType.NONE;
+    }
+
+    private RecordBodyReader openBody(InputStream in) throws IOException {
+        RecordBodyReader reader = new RecordBodyReader(fileCompressionType.decompress(in));
+        try {
+            boolean timed = fileVersion == 1;
+            reader.read(body -> {
+                decodeInfo(body, timed);
+                return this;
+            });
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private void decodeInfo(ByteBuf buf, boolean timed) {
         this.id = buf.readIntLE();
-        this.time = buf.readLongLE();
+        if (timed) {
+            this.time = buf.readLongLE();
+        }
         this.chart = buf.readIntLE();
         this.chartName = NettyPacketUtil.decodeString(buf,Short.MAX_VALUE);
         this.user = buf.readIntLE();
         this.userName = NettyPacketUtil.decodeString(buf,Short.MAX_VALUE);
+    }
+
+    private void decodeAsV2JPhiraRec(ByteBuf buf) {
+        decodeInfo(buf, true);
         this.touchFrames = NettyPacketUtil.decodeList(buf, TouchFrame::decode);
         this.judgeEvents = NettyPacketUtil.decodeList(buf, JudgeEvent::decode);
     }
 
     private void decodeAsV1JPhiraRec(ByteBuf buf) throws IOException {
-        this.id = buf.readIntLE();
+        decodeInfo(buf, false);
         this.time = getTimeStamp(id);
-        this.chart = buf.readIntLE();
-        this.chartName = NettyPacketUtil.decodeString(buf,Short.MAX_VALUE);
-        this.user = buf.readIntLE();
-        this.userName = NettyPacketUtil.decodeString(buf,Short.MAX_VALUE);
         this.touchFrames = NettyPacketUtil.decodeList(buf, TouchFrame::decode);
         this.judgeEvents = NettyPacketUtil.decodeList(buf, JudgeEvent::decode);
     }
@@ -188,7 +393,7 @@ public final class PhiraRecord implements Encodeable {
         this.chart = buf.readIntLE();
         this.chartName = PhiraFetcher.GET_CHART_INFO.apply(chart).getName();
         this.user = buf.readIntLE();
-        this.userName = PhiraFetcher.GET_USER_INFO_BY_ID.apply(user).getName();
+        this.userName = PhiraFetcher.GET_PROFILE_BY_ID.apply(user).getName();
         this.id = buf.readIntLE();
         this.time = getTimeStamp(id);
         this.fileVersion = 0;
@@ -282,7 +487,7 @@ public final class PhiraRecord implements Encodeable {
 
         List<Future<PhiraRecord>> futures = new ArrayList<>(files.length);
         for (File file : files) {
-            futures.add(BATCH_EXECUTOR.submit(() -> PhiraRecordIO.readRecordFromFile(file)));
+            futures.add(BATCH_EXECUTOR.submit(() -> PhiraRecordIO.readHeaderFromFile(file)));
         }
 
         List<PhiraRecord> records = new ArrayList<>(files.length);
@@ -314,7 +519,7 @@ public final class PhiraRecord implements Encodeable {
             return null;
         }
 
-        return PhiraRecordIO.readRecordFromFile(file);
+        return PhiraRecordIO.readHeaderFromFile(file);
     }
 
     private static class PhiraRecordIO {
@@ -340,32 +545,77 @@ public final class PhiraRecord implements Encodeable {
         private static PhiraRecord readRecordFromFile(File file) {
             PhiraRecord record = new PhiraRecord();
 
-            try (FileInputStream fis = new FileInputStream(file);
-                 FileChannel channel = fis.getChannel()) {
+            try (MappedFile mapped = MappedFile.map(file)) {
+                record.decode(mapped.getBuf());
+                return record;
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("Invalid record file format: {} - {}", file.getAbsolutePath(), e.getMessage());
+                return null;
+            } catch (Exception e) {
+                LOGGER.error("Failed to read record from file: {} - {}", file.getAbsolutePath(), e.getMessage(), e);
+                return null;
+            }
+        }
+
+        private static PhiraRecord readHeaderFromFile(File file) {
+            PhiraRecord record = new PhiraRecord();
 
-                long fileSize = channel.size();
-                if (fileSize > Integer.MAX_VALUE) {
-                    LOGGER.error("Record file too large: {} ({} bytes)", file.getAbsolutePath(), fileSize);
-                    return null;
+            ByteBuf probe = ByteBufAllocator.DEFAULT.ioBuffer(HEADER_PROBE_SIZE);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                int length = (int) Math.min(channel.size(), HEADER_PROBE_SIZE);
+                while (probe.writerIndex() < length) {
+                    if (probe.writeBytes(channel, probe.writerIndex(), length - probe.writerIndex()) < 0) {
+                        break;
+                    }
                 }
 
-                ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
-                channel.read(buffer);
-                buffer.flip();
-
-                ByteBuf byteBuf = Unpooled.wrappedBuffer(buffer);
-                try {
-                    record.decode(byteBuf);
-                    return record;
-                } finally {
-                    byteBuf.release();
+                if (!record.decodeHeader(probe, channel)) {
+                    return readRecordFromFile(file);
                 }
+                record.file = file.toPath();
+                return record;
             } catch (IllegalArgumentException e) {
                 LOGGER.error("Invalid record file format: {} - {}", file.getAbsolutePath(), e.getMessage());
                 return null;
             } catch (Exception e) {
                 LOGGER.error("Failed to read record from file: {} - {}", file.getAbsolutePath(), e.getMessage(), e);
                 return null;
+            } finally {
+                probe.release();
+            }
+        }
+
+        private static final class MappedFile implements Closeable {
+
+            private final MappedByteBuffer mapped;
+            @Getter
+            private final ByteBuf buf;
+            private boolean closed;
+
+            private MappedFile(MappedByteBuffer mapped) {
+                this.mapped = mapped;
+                this.buf = Unpooled.wrappedBuffer(mapped);
+            }
+
+            private static MappedFile map(File file) throws IOException {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    long fileSize = channel.size();
+                    if (fileSize > Integer.MAX_VALUE) {
+                        throw new IOException(String.format("Record file too large: %s (%d bytes)", file.getAbsolutePath(), fileSize));
+                    }
+
+                    return new MappedFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize));
+                }
+            }
+
+            @Override
+            public synchronized void close() {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                buf.release();
+                PlatformDependent.freeDirectBuffer(mapped);
             }
         }
     }
@@ -411,77 +661,29 @@ public final class PhiraRecord implements Encodeable {
     @RequiredArgsConstructor
     @Getter(AccessLevel.PRIVATE)
     public enum CompressionType implements Encodeable {
-        NONE(0x00, ByteBuf::retainedSlice, (input,level) -> input.retainedSlice()),
-        ZSTD(0x01,
-                (input) -> {
-                    ByteArrayInputStream rawIn = new ByteArrayInputStream(ByteBufUtil.getBytes(input));
-                    try (ZstdInputStream in = new ZstdInputStream(rawIn)) {
-                        ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-                        byte[] buffer = new byte[4096];
-                        int index;
-
-                        while ((index = in.read(buffer)) != -1) {
-                            out.write(buffer, 0, index);
+        NONE(0x00, ByteBuf::retainedSlice, (input,level) -> input.retainedSlice(), (out, level) -> out, in -> in),
+        ZSTD(0x01, CompressionCodecs::zstdDecompress, CompressionCodecs::zstdCompress, ZstdOutputStream::new, in -> new ZstdInputStream(in, RecyclingBufferPool.INSTANCE)),
+        DEFLATE(0x02, CompressionCodecs::inflate, CompressionCodecs::deflate,
+                (out, level) -> {
+                    Deflater deflater = new Deflater(level);
+                    return new DeflaterOutputStream(out, deflater, 4096) {
+                        @Override
+                        public void close() throws IOException {
+                            try {
+                                super.close();
+                            } finally {
+                                deflater.end();
+                            }
                         }
-
-                        return Unpooled.wrappedBuffer(out.toByteArray());
-
-                    } catch (IOException e) {
-                        throw new DecoderException("Zstd decompression failed", e);
-                    }
+                    };
                 },
-                (input, level) -> {
-                    byte[] src = ByteBufUtil.getBytes(input);
-                    byte[] compressed = Zstd.compress(src, level);
-                    return Unpooled.wrappedBuffer(compressed);
-
-                }),
-        DEFLATE(0x02,
-                (input) -> {
-                    ByteArrayInputStream rawIn = new ByteArrayInputStream(ByteBufUtil.getBytes(input));
-                    try (InflaterInputStream in = new InflaterInputStream(rawIn)) {
-
-                        ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-                        byte[] buf = new byte[4096];
-                        int n;
-
-                        while ((n = in.read(buf)) != -1) {
-                            out.write(buf, 0, n);
-                        }
-
-                        return Unpooled.wrappedBuffer(out.toByteArray());
-
-                    } catch (IOException e) {
-                        throw new DecoderException("Deflate decompress failed", e);
-                    }
-                },
-                (input, level) -> {
-                    byte[] src = ByteBufUtil.getBytes(input);
-
-                    Deflater deflater = new Deflater();
-                    deflater.setLevel(level);
-                    deflater.setInput(src);
-                    deflater.finish();
-
-                    byte[] buf = new byte[4096];
-                    ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-                    while (!deflater.finished()) {
-                        int index = deflater.deflate(buf);
-                        out.write(buf, 0, index);
-                    }
-
-                    deflater.end();
-
-                    return Unpooled.wrappedBuffer(out.toByteArray());
-
-                });
+                InflaterInputStream::new);
 
         private final int id;
         private final Function<ByteBuf, ByteBuf> decompressor;
         private final BiFunction<ByteBuf, Integer, ByteBuf> compressor;
+        private final ThrowableBiFunction<OutputStream, Integer, OutputStream, IOException> streamCompressor;
+        private final ThrowableFunction<InputStream, InputStream, IOException> streamDecompressor;
 
         public ByteBuf decompress(ByteBuf buf) {
             return decompressor.apply(buf);
@@ -491,6 +693,14 @@ public final class PhiraRecord implements Encodeable {
             return compressor.apply(buf, level);
         }
 
+        public OutputStream compress(OutputStream out, int level) throws IOException {
+            return streamCompressor.apply(out, level);
+        }
+
+        public InputStream decompress(InputStream in) throws IOException {
+            return streamDecompressor.apply(in);
+        }
+
         private static Map<Integer, CompressionType> getCompressionTypeMap() {
             return Map.copyOf(Arrays.stream(values()).collect(Collectors.toMap(
                     CompressionType::getId,
@@ -0,0 +1,121 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import top.rymc.phira.protocol.codec.Encodeable;
+import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
+import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+public final class PlayStreamBuffer<T extends Encodeable> extends AbstractList<T> implements RandomAccess {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+    static final int INDEX_PAGE_SIZE = 4096;
+
+    private final Function<ByteBuf, T> decoder;
+    private final ByteBuf scratch = Unpooled.buffer(256);
+
+    private byte[][] chunks = new byte[4][];
+    private int chunkCount;
+    private int chunkPosition;
+
+    private int[][] chunkIndexes = new int[4][];
+    private int[][] offsets = new int[4][];
+    private int[][] lengths = new int[4][];
+
+    private long bytes;
+    private volatile int size;
+
+    public PlayStreamBuffer(Function<ByteBuf, T> decoder) {
+        this.decoder = decoder;
+    }
+
+    public static PlayStreamBuffer<TouchFrame> touches() {
+        return new PlayStreamBuffer<>(TouchFrame::decode);
+    }
+
+    public static PlayStreamBuffer<JudgeEvent> judges() {
+        return new PlayStreamBuffer<>(JudgeEvent::decode);
+    }
+
+    public synchronized void append(List<? extends T> elements) {
+        for (T element : elements) {
+            append(element);
+        }
+    }
+
+    public synchronized void append(T element) {
+        scratch.clear();
+        element.encode(scratch);
+        int length = scratch.readableBytes();
+
+        byte[] chunk = reserve(length);
+        scratch.readBytes(chunk, chunkPosition, length);
+
+        int index = size;
+        int page = index / INDEX_PAGE_SIZE;
+        if (page == offsets.length) {
+            int capacity = page * 2;
+            chunkIndexes = Arrays.copyOf(chunkIndexes, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        if (offsets[page] == null) {
+            chunkIndexes[page] = new int[INDEX_PAGE_SIZE];
+            offsets[page] = new int[INDEX_PAGE_SIZE];
+            lengths[page] = new int[INDEX_PAGE_SIZE];
+        }
+
+        int slot = index % INDEX_PAGE_SIZE;
+        chunkIndexes[page][slot] = chunkCount - 1;
+        offsets[page][slot] = chunkPosition;
+        lengths[page][slot] = length;
+
+        chunkPosition += length;
+        bytes += length;
+        size = index + 1;
+    }
+
+    private byte[] reserve(int length) {
+        if (chunkCount > 0) {
+            byte[] current = chunks[chunkCount - 1];
+            if (current.length - chunkPosition >= length) {
+                return current;
+            }
+        }
+
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+
+        byte[] chunk = new byte[Math.max(CHUNK_SIZE, length)];
+        chunks[chunkCount++] = chunk;
+        chunkPosition = 0;
+        return chunk;
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+
+        int page = index / INDEX_PAGE_SIZE;
+        int slot = index % INDEX_PAGE_SIZE;
+        byte[] chunk = chunks[chunkIndexes[page][slot]];
+        return decoder.apply(Unpooled.wrappedBuffer(chunk, offsets[page][slot], lengths[page][slot]));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public synchronized long byteSize() {
+        return bytes;
+    }
+}
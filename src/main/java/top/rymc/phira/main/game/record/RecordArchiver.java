@@ -0,0 +1,302 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RecordArchiver {
+
+    private static final Logger LOGGER = LogManager.getLogger("RecordArchiver");
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final int BATCH_SIZE = 32;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long POLL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private static final LongAdder submitted = new LongAdder();
+    private static final LongAdder archived = new LongAdder();
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder failed = new LongAdder();
+    private static final LongAdder synchronous = new LongAdder();
+    private static final LongAdder batches = new LongAdder();
+
+    private static volatile Path directory;
+    private static volatile BlockingQueue<Job> queue;
+    private static volatile boolean running;
+    private static ExecutorService compressors;
+    private static Thread writer;
+
+    private RecordArchiver() {
+    }
+
+    public static synchronized void start(Path directory, int capacity, int compressionThreads) throws IOException {
+        if (writer != null) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        RecordArchiver.directory = directory;
+        RecordArchiver.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        RecordArchiver.compressors = Executors.newFixedThreadPool(Math.max(1, compressionThreads), new DefaultThreadFactory("Record-Compress", true));
+        RecordArchiver.running = true;
+
+        writer = new DefaultThreadFactory("Record-Archiver", true).newThread(RecordArchiver::run);
+        writer.start();
+    }
+
+    public static synchronized void stop() {
+        if (writer == null) {
+            return;
+        }
+
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(STOP_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            LOGGER.warn("Record archiver did not finish within {}s, {} recording(s) left unwritten", STOP_TIMEOUT_SECONDS, queue.size());
+            writer.interrupt();
+        }
+
+        compressors.shutdownNow();
+        for (Job job : queue) {
+            job.result().completeExceptionally(new IOException("Record archiver stopped before writing recording " + job.id()));
+        }
+        writer = null;
+        compressors = null;
+        queue = null;
+        directory = null;
+    }
+
+    public static boolean isEnabled() {
+        return running;
+    }
+
+    public static Path getDirectory() {
+        return directory;
+    }
+
+    public static boolean submit(PhiraRecord record) {
+        return offer(job(record));
+    }
+
+    public static boolean write(PhiraRecord record) {
+        return writeNow(job(record));
+    }
+
+    static CompletableFuture<Path> submit(int id, RecordWriter writer) {
+        Job job = new Job(id, writer, new CompletableFuture<>());
+        if (!offer(job)) {
+            writeNow(job);
+        }
+        return job.result();
+    }
+
+    static Path target(Path directory, int id) {
+        return directory.resolve(String.format("%d.phirarec", id));
+    }
+
+    private static Job job(PhiraRecord record) {
+        return new Job(record.getId(), out -> encode(record, out), new CompletableFuture<>());
+    }
+
+    private static boolean offer(Job job) {
+        BlockingQueue<Job> queue = RecordArchiver.queue;
+        if (!running || queue == null || !queue.offer(job)) {
+            rejected.increment();
+            return false;
+        }
+
+        submitted.increment();
+        return true;
+    }
+
+    private static boolean writeNow(Job job) {
+        Path directory = RecordArchiver.directory;
+        if (directory == null) {
+            job.result().completeExceptionally(new IOException("Record archiver is not running"));
+            return false;
+        }
+
+        LOGGER.warn("Record archive queue is full, writing recording {} on {}", job.id(), Thread.currentThread().getName());
+        synchronous.increment();
+        try {
+            Path temporary = writeTemporary(directory, job);
+            Path target = target(directory, job.id());
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(directory);
+            archived.increment();
+            job.result().complete(target);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            LOGGER.error("Failed to archive recording {}", job.id(), e);
+            job.result().completeExceptionally(e);
+            return false;
+        }
+    }
+
+    private static void run() {
+        BlockingQueue<Job> queue = RecordArchiver.queue;
+        List<Job> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Job first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                archive(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.error("Unexpected error while archiving recordings", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void archive(List<Job> batch) {
+        Path directory = RecordArchiver.directory;
+
+        List<CompletableFuture<Path>> written = new ArrayList<>(batch.size());
+        for (Job job : batch) {
+            written.add(CompletableFuture.supplyAsync(() -> writeTemporary(directory, job), compressors));
+        }
+
+        int moved = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Job job = batch.get(i);
+            try {
+                Path temporary = written.get(i).join();
+                Path target = target(directory, job.id());
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                job.result().complete(target);
+                moved++;
+            } catch (CompletionException | IOException e) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                failed.increment();
+                LOGGER.error("Failed to archive recording {}", job.id(), cause);
+                job.result().completeExceptionally(cause);
+            }
+        }
+
+        if (moved > 0) {
+            syncDirectory(directory);
+            archived.add(moved);
+        }
+        batches.increment();
+    }
+
+    private static Path writeTemporary(Path directory, Job job) {
+        Path temporary = directory.resolve(target(directory, job.id()).getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+            job.writer().write(out);
+            out.flush();
+            channel.force(false);
+            return temporary;
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(temporary);
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void encode(PhiraRecord record, OutputStream out) throws IOException {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            record.encode(buf);
+            buf.readBytes(out, buf.readableBytes());
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Directory fsync is not supported for {}", directory, e);
+        }
+    }
+
+    public static Statistics getStatistics() {
+        BlockingQueue<Job> queue = RecordArchiver.queue;
+        return new Statistics(
+                queue != null ? queue.size() : 0,
+                queue != null ? queue.remainingCapacity() : 0,
+                submitted.sum(),
+                archived.sum(),
+                rejected.sum(),
+                failed.sum(),
+                synchronous.sum(),
+                batches.sum()
+        );
+    }
+
+    public record Statistics(
+            int queued,
+            int remainingCapacity,
+            long submitted,
+            long archived,
+            long rejected,
+            long failed,
+            long synchronous,
+            long batches
+    ) {
+    }
+
+    @FunctionalInterface
+    interface RecordWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private record Job(int id, RecordWriter writer, CompletableFuture<Path> result) {
+    }
+}
@@ -0,0 +1,132 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.CorruptedFrameException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+final class RecordBodyReader implements Closeable {
+
+    private static final int WINDOW = 8 * 1024;
+
+    private final InputStream in;
+    private final ByteBuf window = Unpooled.buffer(WINDOW);
+    private boolean eof;
+
+    RecordBodyReader(InputStream in) {
+        this.in = in;
+    }
+
+    <T> T read(Function<ByteBuf, T> decoder) throws IOException {
+        if (window.readableBytes() < WINDOW / 2) {
+            fill();
+        }
+
+        while (true) {
+            ByteBuf view = window.duplicate();
+            try {
+                T value = decoder.apply(view);
+                window.readerIndex(view.readerIndex());
+                return value;
+            } catch (IndexOutOfBoundsException e) {
+                if (!fill()) {
+                    throw new EOFException("Unexpected end of record body");
+                }
+            }
+        }
+    }
+
+    int readListSize() throws IOException {
+        return read(RecordBodyReader::readVarInt);
+    }
+
+    <T> void skipList(Function<ByteBuf, T> decoder) throws IOException {
+        int size = readListSize();
+        for (int i = 0; i < size; i++) {
+            read(decoder);
+        }
+    }
+
+    <T> Stream<T> streamList(Function<ByteBuf, T> decoder) throws IOException {
+        int size = readListSize();
+        Iterator<T> iterator = new Iterator<>() {
+
+            private int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    T value = read(decoder);
+                    remaining--;
+                    return value;
+                } catch (IOException e) {
+                    remaining = 0;
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+        Spliterator<T> spliterator = Spliterators.spliterator(iterator, size, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+
+        if (window.readerIndex() > WINDOW / 2) {
+            window.discardReadBytes();
+        }
+        window.ensureWritable(WINDOW);
+        if (window.writeBytes(in, window.writableBytes()) < 0) {
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+
+    private static int readVarInt(ByteBuf buf) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buf.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new CorruptedFrameException("Negative list size: " + value);
+                }
+                return value;
+            }
+        }
+        throw new CorruptedFrameException("List size is longer than 5 bytes");
+    }
+
+    @Override
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+        eof = true;
+    }
+}
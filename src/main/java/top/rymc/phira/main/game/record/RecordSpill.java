@@ -0,0 +1,246 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import top.rymc.phira.protocol.codec.Encodeable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public final class RecordSpill implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger("RecordSpill");
+
+    static final String EXTENSION = ".spill";
+
+    private static final int FLUSH_THRESHOLD = 32 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Getter
+    private static volatile Path directory;
+
+    @Getter
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuf pending = Unpooled.buffer(FLUSH_THRESHOLD * 2);
+    private final Map<Integer, Runs[]> index = new HashMap<>();
+    private long flushed;
+    private int readers;
+    @Getter
+    private boolean failed;
+    private boolean closed;
+
+    private RecordSpill(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public static void start(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : stale) {
+                LOGGER.warn("Discarding recording spill file left by an unclean shutdown: {}", file);
+                Files.deleteIfExists(file);
+            }
+        }
+        RecordSpill.directory = directory;
+    }
+
+    public static void stop() {
+        RecordSpill.directory = null;
+    }
+
+    public static boolean isEnabled() {
+        return directory != null;
+    }
+
+    public static RecordSpill open() {
+        Path directory = RecordSpill.directory;
+        if (directory == null) {
+            return null;
+        }
+
+        Path file = directory.resolve(UUID.randomUUID() + EXTENSION);
+        try {
+            return new RecordSpill(file);
+        } catch (IOException e) {
+            LOGGER.error("Failed to create recording spill file {}, keeping recordings in memory", file, e);
+            return null;
+        }
+    }
+
+    public synchronized boolean append(int playerId, Kind kind, List<? extends Encodeable> elements) {
+        if (failed || closed) {
+            return false;
+        }
+
+        int start = pending.writerIndex();
+        for (Encodeable element : elements) {
+            element.encode(pending);
+        }
+        Runs runs = index.computeIfAbsent(playerId, id -> new Runs[] { new Runs(), new Runs() })[kind.ordinal()];
+        runs.add(flushed + start, pending.writerIndex() - start, elements.size());
+
+        if (pending.readableBytes() >= FLUSH_THRESHOLD) {
+            try {
+                flush();
+            } catch (IOException e) {
+                failed = true;
+                LOGGER.error("Failed to write recording spill file {}, recording will be incomplete", file, e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(int playerId) {
+        return index.containsKey(playerId);
+    }
+
+    public synchronized int count(int playerId, Kind kind) {
+        Runs[] runs = index.get(playerId);
+        return runs != null ? runs[kind.ordinal()].elements : 0;
+    }
+
+    public PhiraRecord finish(int playerId, int id, long time, int chart, String chartName, String userName) throws IOException {
+        Path directory = RecordArchiver.getDirectory();
+        if (directory == null) {
+            throw new IOException("Record archiver is not running");
+        }
+
+        Runs[] runs;
+        synchronized (this) {
+            if (failed || closed) {
+                throw new IOException("Recording spill file is not writable: " + file);
+            }
+            flush();
+            Runs[] indexed = index.get(playerId);
+            runs = indexed != null ? new Runs[] { indexed[0].copy(), indexed[1].copy() } : new Runs[] { new Runs(), new Runs() };
+            readers++;
+        }
+
+        CompletableFuture<Path> written = RecordArchiver.submit(id, out -> write(out, runs, playerId, id, time, chart, chartName, userName));
+        written.whenComplete((target, error) -> release());
+        return new PhiraRecord(id, time, chart, chartName, playerId, userName, RecordArchiver.target(directory, id), written);
+    }
+
+    private synchronized void release() {
+        if (--readers == 0 && closed) {
+            delete();
+        }
+    }
+
+    private void write(OutputStream out, Runs[] runs, int playerId, int id, long time, int chart, String chartName, String userName) throws IOException {
+        try (OutputStream body = PhiraRecord.beginStreamed(out, id, time, chart, chartName, playerId, userName)) {
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            for (Kind kind : Kind.values()) {
+                Runs kindRuns = runs[kind.ordinal()];
+                PhiraRecord.writeStreamedListHeader(body, kindRuns.elements);
+                for (int i = 0; i < kindRuns.size; i++) {
+                    copy(kindRuns.offsets[i], kindRuns.lengths[i], buffer, body);
+                }
+            }
+        }
+    }
+
+    private void copy(long position, int length, ByteBuffer buffer, OutputStream body) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            buffer.clear().limit(Math.min(remaining, buffer.capacity()));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("Recording spill file is truncated: " + file);
+                }
+            }
+            body.write(buffer.array(), 0, buffer.limit());
+            position += buffer.limit();
+            remaining -= buffer.limit();
+        }
+    }
+
+    private void flush() throws IOException {
+        while (pending.isReadable()) {
+            flushed += pending.readBytes(channel, pending.readableBytes());
+        }
+        pending.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.release();
+
+        if (readers == 0) {
+            delete();
+        }
+    }
+
+    private void delete() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to remove recording spill file {}", file, e);
+        }
+    }
+
+    private static final class Runs {
+
+        private long[] offsets = new long[8];
+        private int[] lengths = new int[8];
+        private int size;
+        private int elements;
+
+        void add(long offset, int length, int count) {
+            elements += count;
+            if (length == 0) {
+                return;
+            }
+            if (size > 0 && offsets[size - 1] + lengths[size - 1] == offset) {
+                lengths[size - 1] += length;
+                return;
+            }
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            offsets[size] = offset;
+            lengths[size] = length;
+            size++;
+        }
+
+        Runs copy() {
+            Runs copy = new Runs();
+            copy.offsets = Arrays.copyOf(offsets, Math.max(size, 1));
+            copy.lengths = Arrays.copyOf(lengths, Math.max(size, 1));
+            copy.size = size;
+            copy.elements = elements;
+            return copy;
+        }
+    }
+
+    public enum Kind {
+        TOUCH,
+        JUDGE
+    }
+}
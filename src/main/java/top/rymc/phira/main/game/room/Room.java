@@ -5,6 +5,7 @@ import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
 import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface Room {
 
@@ -14,6 +15,14 @@ public interface Room {
 
     void leave(Player player);
 
+    default CompletableFuture<Void> joinAsync(Player player, boolean isMonitor) {
+        return completed(() -> join(player, isMonitor));
+    }
+
+    default CompletableFuture<Void> leaveAsync(Player player) {
+        return completed(() -> leave(player));
+    }
+
     Operation getOperation();
 
     RoomSnapshot getView();
@@ -47,5 +56,50 @@ public interface Room {
         void abort(Player player);
 
         void played(Player player, int recordId);
+
+        default CompletableFuture<Void> lockRoomAsync(Player player) {
+            return completed(() -> lockRoom(player));
+        }
+
+        default CompletableFuture<Void> cycleRoomAsync(Player player) {
+            return completed(() -> cycleRoom(player));
+        }
+
+        default CompletableFuture<Void> selectChartAsync(Player player, int id) {
+            return completed(() -> selectChart(player, id));
+        }
+
+        default CompletableFuture<Void> chatAsync(Player player, String message) {
+            return completed(() -> chat(player, message));
+        }
+
+        default CompletableFuture<Void> requireStartAsync(Player player) {
+            return completed(() -> requireStart(player));
+        }
+
+        default CompletableFuture<Void> readyAsync(Player player) {
+            return completed(() -> ready(player));
+        }
+
+        default CompletableFuture<Void> cancelReadyAsync(Player player) {
+            return completed(() -> cancelReady(player));
+        }
+
+        default CompletableFuture<Void> abortAsync(Player player) {
+            return completed(() -> abort(player));
+        }
+
+        default CompletableFuture<Void> playedAsync(Player player, int recordId) {
+            return completed(() -> played(player, recordId));
+        }
+    }
+
+    private static CompletableFuture<Void> completed(Runnable action) {
+        try {
+            action.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 }
@@ -16,24 +16,36 @@ import top.rymc.phira.main.event.room.RoomDestroyEvent;
 import top.rymc.phira.main.event.room.RoomHostChangeEvent;
 import top.rymc.phira.main.game.exception.GameOperationException;
 import top.rymc.phira.main.game.player.Player;
+import top.rymc.phira.main.game.player.local.LocalPlayer;
+import top.rymc.phira.main.game.player.operations.LocalPlayerOperations;
 import top.rymc.phira.main.game.player.operations.PlayerOperations;
 import top.rymc.phira.main.game.room.Room;
 import top.rymc.phira.main.game.room.RoomSnapshot;
 import top.rymc.phira.main.game.room.state.RoomGameState;
 import top.rymc.phira.main.game.room.state.RoomGameStateReference;
 import top.rymc.phira.main.game.room.state.RoomSelectChart;
+import top.rymc.phira.main.network.PlayerConnection;
+import top.rymc.phira.main.util.HotCharts;
+import top.rymc.phira.main.util.Mailbox;
 import top.rymc.phira.main.util.PhiraFetcher;
 import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
 import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 public class LocalRoom implements Room {
 
@@ -46,6 +58,8 @@ public class LocalRoom implements Room {
 
     private final Runnable onDestroy;
     private final RoomGameStateReference stateRef;
+    private final Mailbox actor;
+    private final StreamCoalescer streamCoalescer;
 
     public LocalRoom(
             Runnable onDestroy,
@@ -53,13 +67,109 @@ public class LocalRoom implements Room {
             RoomSetting setting,
             RoomGameState.Type state,
             ChartInfo chart
+    ) {
+        this(onDestroy, roomId, setting, state, chart, null, 0);
+    }
+
+    public LocalRoom(
+            Runnable onDestroy,
+            String roomId,
+            RoomSetting setting,
+            RoomGameState.Type state,
+            ChartInfo chart,
+            Mailbox actor,
+            long streamWindowMillis
     ) {
         this.roomId = roomId;
         this.onDestroy = onDestroy;
         this.setting = setting;
+        this.actor = actor;
+        this.streamCoalescer = new StreamCoalescer(
+                streamWindowMillis,
+                actor != null ? actor : Runnable::run,
+                (playerId, frames) -> playerManager.broadcastTouchStream(playerId, frames),
+                (playerId, events) -> playerManager.broadcastToMonitors(operations -> operations.receiveJudgeStream(playerId, events))
+        );
         this.stateRef = new RoomGameStateReference(updater -> state.build(this, updater, chart));
     }
 
+    public boolean isActor() {
+        return actor != null;
+    }
+
+    public Executor getSerialExecutor() {
+        return actor != null ? actor : Runnable::run;
+    }
+
+    private void runSerialized(Runnable action) {
+        await(runAsync(action));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Void> runAsync(Runnable action) {
+        return callAsync(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> callAsync(Supplier<T> action) {
+        if (actor == null || actor.isCurrent()) {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            actor.execute(() -> {
+                try {
+                    future.complete(action.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void dispatch(Runnable action) {
+        if (actor == null || actor.isCurrent()) {
+            action.run();
+            return;
+        }
+
+        actor.execute(action);
+    }
+
+    private <T> T withLifecycleLock(Supplier<T> action) {
+        if (actor != null) {
+            return action.get();
+        }
+
+        synchronized (lifecycleLock) {
+            return action.get();
+        }
+    }
+
     @Getter
     @Setter(AccessLevel.PRIVATE)
     @AllArgsConstructor
@@ -155,12 +265,54 @@ public class LocalRoom implements Room {
         }
 
         public void broadcast(Consumer<PlayerOperations> action) {
-            players.forEach(p -> p.operations().ifPresent(action));
-            monitors.forEach(p -> p.operations().ifPresent(action));
+            List<PlayerConnection> connections = new ArrayList<>(players.size() + monitors.size());
+            collectRecipients(players, connections, action);
+            collectRecipients(monitors, connections, action);
+            fanOut(connections, action);
         }
 
         public void broadcastToMonitors(Consumer<PlayerOperations> action) {
-            monitors.forEach(p -> p.operations().ifPresent(action));
+            List<PlayerConnection> connections = new ArrayList<>(monitors.size());
+            collectRecipients(monitors, connections, action);
+            fanOut(connections, action);
+        }
+
+        public void broadcastTouchStream(int playerId, List<TouchFrame> frames) {
+            List<PlayerConnection> connections = new ArrayList<>(monitors.size());
+            for (Player monitor : monitors) {
+                if (!(monitor instanceof LocalPlayer localPlayer)) {
+                    monitor.operations().ifPresent(operations -> operations.receiveTouchStream(playerId, frames));
+                    continue;
+                }
+
+                PlayerConnection connection = localPlayer.getConnection();
+                if (!connection.isClosed() && connection.getStreamShaper().offerTouches(playerId, frames)) {
+                    connections.add(connection);
+                }
+            }
+            fanOut(connections, operations -> operations.receiveTouchStream(playerId, frames));
+        }
+
+        private void collectRecipients(Set<Player> recipients, List<PlayerConnection> connections, Consumer<PlayerOperations> action) {
+            for (Player player : recipients) {
+                if (!(player instanceof LocalPlayer localPlayer)) {
+                    player.operations().ifPresent(action);
+                    continue;
+                }
+
+                PlayerConnection connection = localPlayer.getConnection();
+                if (!connection.isClosed()) {
+                    connections.add(connection);
+                }
+            }
+        }
+
+        private void fanOut(List<PlayerConnection> connections, Consumer<PlayerOperations> action) {
+            if (connections.isEmpty()) {
+                return;
+            }
+
+            action.accept(new LocalPlayerOperations(packet -> PlayerConnection.sendToAll(connections, packet)));
         }
     }
 
@@ -177,52 +329,61 @@ public class LocalRoom implements Room {
     }
 
     public void join(Player player, boolean isMonitor) {
-        boolean shouldBroadcastJoin = false;
-
-        synchronized (lifecycleLock) {
-            if (!isMonitor && playerManager.players.size() >= setting.maxPlayer) {
-                throw GameOperationException.roomFull();
-            }
-
-            if (!isMonitor && setting.locked && !playerManager.players.isEmpty()) {
-                throw GameOperationException.roomLocked();
-            }
+        runSerialized(() -> doJoin(player, isMonitor));
+    }
 
-            Set<Player> set = isMonitor ? playerManager.monitors : playerManager.players;
-            boolean added = set.add(player);
-            if (!added) {
-                return;
-            }
+    @Override
+    public CompletableFuture<Void> joinAsync(Player player, boolean isMonitor) {
+        return runAsync(() -> doJoin(player, isMonitor));
+    }
 
-            if (!isMonitor && playerManager.players.size() == 1 && setting.host) {
-                playerManager.host = player;
-            } else {
-                shouldBroadcastJoin = true;
-            }
+    private void doJoin(Player player, boolean isMonitor) {
+        Admission admission = withLifecycleLock(() -> admit(player, isMonitor));
+        if (admission == Admission.ALREADY_PRESENT) {
+            return;
         }
 
-        if (shouldBroadcastJoin) {
+        if (admission == Admission.MEMBER) {
             playerManager.broadcast(op -> op.memberJoined(player.getId(), player.getName(), isMonitor));
         }
 
         stateRef.get().handleJoin(player);
     }
 
-    public void leave(Player player) {
-        boolean shouldDestroy = false;
+    private Admission admit(Player player, boolean isMonitor) {
+        if (!isMonitor && playerManager.players.size() >= setting.maxPlayer) {
+            throw GameOperationException.roomFull();
+        }
 
-        synchronized (lifecycleLock) {
-            if (!playerManager.players.remove(player) && !playerManager.monitors.remove(player)) {
-                return;
-            }
+        if (!isMonitor && setting.locked && !playerManager.players.isEmpty()) {
+            throw GameOperationException.roomLocked();
+        }
 
-            if (playerManager.players.isEmpty() && playerManager.monitors.isEmpty()) {
-                shouldDestroy = setting.autoDestroy;
-            }
+        Set<Player> set = isMonitor ? playerManager.monitors : playerManager.players;
+        if (!set.add(player)) {
+            return Admission.ALREADY_PRESENT;
+        }
 
-            if (setting.host && player.equals(playerManager.host)) {
-                playerManager.transferHostToNextPlayer();
-            }
+        if (!isMonitor && playerManager.players.size() == 1 && setting.host) {
+            playerManager.host = player;
+            return Admission.HOST;
+        }
+        return Admission.MEMBER;
+    }
+
+    public void leave(Player player) {
+        runSerialized(() -> doLeave(player));
+    }
+
+    @Override
+    public CompletableFuture<Void> leaveAsync(Player player) {
+        return runAsync(() -> doLeave(player));
+    }
+
+    private void doLeave(Player player) {
+        Departure departure = withLifecycleLock(() -> depart(player));
+        if (departure == Departure.ABSENT) {
+            return;
         }
 
         playerManager.broadcast(op -> op.memberLeft(player.getId(), player.getName()));
@@ -231,11 +392,35 @@ public class LocalRoom implements Room {
         PlayerLeaveRoomEvent event = new PlayerLeaveRoomEvent(player, this);
         Server.postEvent(event);
 
-        if (shouldDestroy) {
+        if (departure == Departure.LAST && setting.autoDestroy) {
             destroyRoom();
         }
     }
 
+    private Departure depart(Player player) {
+        if (!playerManager.players.remove(player) && !playerManager.monitors.remove(player)) {
+            return Departure.ABSENT;
+        }
+
+        if (setting.host && player.equals(playerManager.host)) {
+            playerManager.transferHostToNextPlayer();
+        }
+
+        return playerManager.players.isEmpty() && playerManager.monitors.isEmpty() ? Departure.LAST : Departure.REMAINING;
+    }
+
+    private enum Admission {
+        ALREADY_PRESENT,
+        HOST,
+        MEMBER
+    }
+
+    private enum Departure {
+        ABSENT,
+        REMAINING,
+        LAST
+    }
+
     @Getter
     private final LocalOperation operation = new LocalOperation();
 
@@ -248,30 +433,79 @@ public class LocalRoom implements Room {
         }
 
         public void lockRoom(Player player) {
-            validateHost(player);
+            await(lockRoomAsync(player));
+        }
 
-            boolean newLockState = !setting.locked;
+        @Override
+        public CompletableFuture<Void> lockRoomAsync(Player player) {
+            return runAsync(() -> {
+                validateHost(player);
 
-            RoomLockChangeEvent event = new RoomLockChangeEvent(LocalRoom.this, player, newLockState);
-            Server.postEvent(event);
+                boolean newLockState = !setting.locked;
+
+                RoomLockChangeEvent event = new RoomLockChangeEvent(LocalRoom.this, player, newLockState);
+                Server.postEvent(event);
 
-            setting.locked = newLockState;
-            playerManager.broadcast(op -> op.lockRoom(setting.locked));
+                setting.locked = newLockState;
+                playerManager.broadcast(op -> op.lockRoom(setting.locked));
+            });
         }
 
         public void cycleRoom(Player player) {
-            validateHost(player);
+            await(cycleRoomAsync(player));
+        }
+
+        @Override
+        public CompletableFuture<Void> cycleRoomAsync(Player player) {
+            return runAsync(() -> {
+                validateHost(player);
 
-            boolean newCycleState = !setting.cycle;
+                boolean newCycleState = !setting.cycle;
 
-            RoomCycleChangeEvent event = new RoomCycleChangeEvent(LocalRoom.this, player, newCycleState);
-            Server.postEvent(event);
+                RoomCycleChangeEvent event = new RoomCycleChangeEvent(LocalRoom.this, player, newCycleState);
+                Server.postEvent(event);
 
-            setting.cycle = newCycleState;
-            playerManager.broadcast(op -> op.cycleRoom(setting.cycle));
+                setting.cycle = newCycleState;
+                playerManager.broadcast(op -> op.cycleRoom(setting.cycle));
+            });
         }
 
         public void selectChart(Player player, int id) {
+            runSerialized(() -> {
+                RoomPreSelectChartEvent preEvent = prepareSelectChart(player, id);
+
+                IntFunction<ChartInfo> getInfoFunc = PhiraFetcher.GET_CHART_INFO.toIntFunction(e -> {
+                    throw GameOperationException.chartNotFound();
+                });
+
+                ChartInfo eventChartInfo = preEvent.getChartInfo();
+                ChartInfo info = eventChartInfo != null ? eventChartInfo : getInfoFunc.apply(id);
+
+                applySelectChart(player, info);
+            });
+        }
+
+        @Override
+        public CompletableFuture<Void> selectChartAsync(Player player, int id) {
+            return callAsync(() -> prepareSelectChart(player, id)).thenCompose(preEvent -> {
+                ChartInfo eventChartInfo = preEvent.getChartInfo();
+                CompletableFuture<ChartInfo> chart = eventChartInfo != null
+                        ? CompletableFuture.completedFuture(eventChartInfo)
+                        : PhiraFetcher.getChartInfoAsync(id).exceptionally(e -> {
+                            throw GameOperationException.chartNotFound();
+                        });
+
+                return chart.thenCompose(info -> runAsync(() -> {
+                    validateHost(player);
+                    if (!(stateRef.get() instanceof RoomSelectChart)) {
+                        throw GameOperationException.invalidState();
+                    }
+                    applySelectChart(player, info);
+                }));
+            });
+        }
+
+        private RoomPreSelectChartEvent prepareSelectChart(Player player, int id) {
             validateHost(player);
 
             if (!(stateRef.get() instanceof RoomSelectChart)) {
@@ -284,78 +518,120 @@ public class LocalRoom implements Room {
                 throw new GameOperationException(preEvent.getCancelReason());
             }
 
-            IntFunction<ChartInfo> getInfoFunc = PhiraFetcher.GET_CHART_INFO.toIntFunction(e -> {
-                throw GameOperationException.chartNotFound();
-            });
-
-            ChartInfo eventChartInfo = preEvent.getChartInfo();
-            ChartInfo info = eventChartInfo != null ? eventChartInfo : getInfoFunc.apply(id);
+            return preEvent;
+        }
 
+        private void applySelectChart(Player player, ChartInfo info) {
             stateRef.get().setChart(info);
             playerManager.broadcast(operations -> operations.selectChart(info.getId(), info.getName(), player.getId()));
+            HotCharts.recordSelected(info.getId());
 
             RoomPostSelectChartEvent postEvent = new RoomPostSelectChartEvent(LocalRoom.this, player, info);
             Server.postEvent(postEvent);
         }
 
         public void chat(Player player, String message) {
-            if (!setting.chat) {
-                throw GameOperationException.chatNotEnabled();
-            }
+            await(chatAsync(player, message));
+        }
 
-            RoomChatEvent event = new RoomChatEvent(player, LocalRoom.this, message);
-            if (Server.postEvent(event)) {
-                return;
-            }
+        @Override
+        public CompletableFuture<Void> chatAsync(Player player, String message) {
+            return runAsync(() -> {
+                if (!setting.chat) {
+                    throw GameOperationException.chatNotEnabled();
+                }
 
-            playerManager.broadcast(operations -> operations.receiveChat(player.getId(), event.getMessage()));
+                RoomChatEvent event = new RoomChatEvent(player, LocalRoom.this, message);
+                if (Server.postEvent(event)) {
+                    return;
+                }
+
+                playerManager.broadcast(operations -> operations.receiveChat(player.getId(), event.getMessage()));
+            });
         }
 
         public void touchSend(Player player, List<TouchFrame> touchFrames) {
-            stateRef.get().touchSend(player, touchFrames);
-            playerManager.broadcastToMonitors(operations -> operations.receiveTouchStream(player.getId(), touchFrames));
+            dispatch(() -> {
+                stateRef.get().touchSend(player, touchFrames);
+                streamCoalescer.touches(player, touchFrames);
+            });
         }
 
         public void judgeSend(Player player, List<JudgeEvent> judgeEvents) {
-            stateRef.get().judgeSend(player, judgeEvents);
-            playerManager.broadcastToMonitors(operations -> operations.receiveJudgeStream(player.getId(), judgeEvents));
+            dispatch(() -> {
+                stateRef.get().judgeSend(player, judgeEvents);
+                streamCoalescer.judges(player, judgeEvents);
+            });
         }
 
         public void requireStart(Player player) {
-            validateHost(player);
-            stateRef.get().requireStart(player);
+            await(requireStartAsync(player));
+        }
+
+        @Override
+        public CompletableFuture<Void> requireStartAsync(Player player) {
+            return runAsync(() -> {
+                validateHost(player);
+                stateRef.get().requireStart(player);
+            });
         }
 
         public void ready(Player player) {
-            stateRef.get().ready(player);
+            await(readyAsync(player));
+        }
+
+        @Override
+        public CompletableFuture<Void> readyAsync(Player player) {
+            return runAsync(() -> {
+                stateRef.get().ready(player);
+            });
         }
 
         public void cancelReady(Player player) {
-            stateRef.get().cancelReady(player);
+            await(cancelReadyAsync(player));
+        }
+
+        @Override
+        public CompletableFuture<Void> cancelReadyAsync(Player player) {
+            return runAsync(() -> {
+                stateRef.get().cancelReady(player);
+            });
         }
 
         public void abort(Player player) {
-            stateRef.get().abort(player);
+            await(abortAsync(player));
+        }
+
+        @Override
+        public CompletableFuture<Void> abortAsync(Player player) {
+            return runAsync(() -> {
+                stateRef.get().abort(player);
+            });
         }
 
         public void played(Player player, int recordId) {
-            stateRef.get().played(player, recordId);
+            runSerialized(() -> {
+                stateRef.get().played(player, recordId);
+            });
+        }
+
+        @Override
+        public CompletableFuture<Void> playedAsync(Player player, int recordId) {
+            return callAsync(() -> stateRef.get().playedAsync(player, recordId)).thenCompose(Function.identity());
         }
     }
 
     public RoomSnapshot getView() {
-        synchronized (lifecycleLock) {
-            return new RoomSnapshot(
-                    roomId,
-                    stateRef.get(),
-                    setting.live,
-                    setting.locked,
-                    setting.cycle,
-                    setting.host && playerManager.host != null ? playerManager.host.getId() : null,
-                    playerManager.getPlayersCopy(),
-                    playerManager.getMonitorsCopy()
-            );
-        }
+        return withLifecycleLock(() -> new RoomSnapshot(
+                roomId,
+                stateRef.get(),
+                setting.live,
+                setting.locked,
+                setting.cycle,
+                setting.host && playerManager.host != null ? playerManager.host.getId() : null,
+                playerManager.getPlayersCopy(),
+                playerManager.getMonitorsCopy()
+        ));
     }
 
     private void destroyRoom() {
@@ -3,6 +3,7 @@ package top.rymc.phira.main.game.room.local;
 import top.rymc.phira.main.data.ChartInfo;
 import top.rymc.phira.main.game.room.RoomManager;
 import top.rymc.phira.main.game.room.state.RoomGameState;
+import top.rymc.phira.main.util.WorkerPool;
 
 public class LocalRoomBuilder {
 
@@ -15,6 +16,8 @@ public class LocalRoomBuilder {
     private boolean chat = true;
     private RoomGameState.Type state = RoomGameState.Type.SelectChart;
     private ChartInfo chart;
+    private boolean actor = false;
+    private long streamWindowMillis = 0;
 
     public LocalRoomBuilder autoDestroy(boolean autoDestroy) {
         this.autoDestroy = autoDestroy;
@@ -61,6 +64,16 @@ public class LocalRoomBuilder {
         return this;
     }
 
+    public LocalRoomBuilder actor(boolean actor) {
+        this.actor = actor;
+        return this;
+    }
+
+    public LocalRoomBuilder streamWindow(long streamWindowMillis) {
+        this.streamWindowMillis = streamWindowMillis;
+        return this;
+    }
+
     public LocalRoomBuilder setting(LocalRoom.RoomSetting setting) {
         this.autoDestroy = setting.isAutoDestroy();
         this.host = setting.isHost();
@@ -80,7 +93,7 @@ public class LocalRoomBuilder {
 
     public LocalRoom build(String roomId) {
         return RoomManager.resolveRoom(roomId, (onDestroy) ->
-                new LocalRoom(onDestroy, roomId, buildSetting(), state, chart)
+                new LocalRoom(onDestroy, roomId, buildSetting(), state, chart, actor ? WorkerPool.newRoomMailbox() : null, streamWindowMillis)
         );
     }
 }
@@ -0,0 +1,114 @@
+package top.rymc.phira.main.game.room.local;
+
+import top.rymc.phira.main.game.player.Player;
+import top.rymc.phira.main.game.player.local.LocalPlayer;
+import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
+import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+class StreamCoalescer {
+
+    private final long windowMillis;
+    private final Executor flushExecutor;
+    private final BiConsumer<Integer, List<TouchFrame>> touchSink;
+    private final BiConsumer<Integer, List<JudgeEvent>> judgeSink;
+
+    private final Map<Integer, List<TouchFrame>> pendingTouches = new LinkedHashMap<>();
+    private final Map<Integer, List<JudgeEvent>> pendingJudges = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    StreamCoalescer(
+            long windowMillis,
+            Executor flushExecutor,
+            BiConsumer<Integer, List<TouchFrame>> touchSink,
+            BiConsumer<Integer, List<JudgeEvent>> judgeSink
+    ) {
+        this.windowMillis = windowMillis;
+        this.flushExecutor = flushExecutor;
+        this.touchSink = touchSink;
+        this.judgeSink = judgeSink;
+    }
+
+    boolean isEnabled() {
+        return windowMillis > 0;
+    }
+
+    void touches(Player player, List<TouchFrame> frames) {
+        if (!isEnabled()) {
+            touchSink.accept(player.getId(), frames);
+            return;
+        }
+
+        synchronized (this) {
+            pendingTouches.computeIfAbsent(player.getId(), k -> new ArrayList<>()).addAll(frames);
+        }
+        scheduleFlush(player);
+    }
+
+    void judges(Player player, List<JudgeEvent> events) {
+        if (!isEnabled()) {
+            judgeSink.accept(player.getId(), events);
+            return;
+        }
+
+        synchronized (this) {
+            pendingJudges.computeIfAbsent(player.getId(), k -> new ArrayList<>()).addAll(events);
+        }
+        scheduleFlush(player);
+    }
+
+    private void scheduleFlush(Player player) {
+        synchronized (this) {
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+
+        if (!(player instanceof LocalPlayer localPlayer)) {
+            flush();
+            return;
+        }
+
+        try {
+            localPlayer.getConnection().getChannel().eventLoop()
+                    .schedule(this::submitFlush, windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            flush();
+        }
+    }
+
+    private void submitFlush() {
+        try {
+            flushExecutor.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            flush();
+        }
+    }
+
+    void flush() {
+        Map<Integer, List<TouchFrame>> touches;
+        Map<Integer, List<JudgeEvent>> judges;
+        synchronized (this) {
+            scheduled = false;
+            if (pendingTouches.isEmpty() && pendingJudges.isEmpty()) {
+                return;
+            }
+            touches = new LinkedHashMap<>(pendingTouches);
+            judges = new LinkedHashMap<>(pendingJudges);
+            pendingTouches.clear();
+            pendingJudges.clear();
+        }
+
+        touches.forEach(touchSink);
+        judges.forEach(judgeSink);
+    }
+}
@@ -13,6 +13,7 @@ import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
 import top.rymc.phira.protocol.data.state.GameState;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public abstract sealed class RoomGameState implements ProtocolConvertible<GameState> permits RoomPlaying, RoomWaitForReady, RoomSelectChart {
@@ -61,6 +62,11 @@ public abstract sealed class RoomGameState implements ProtocolConvertible<GameSt
 
     public abstract void played(Player player, int recordId);
 
+    public CompletableFuture<Void> playedAsync(Player player, int recordId) {
+        played(player, recordId);
+        return CompletableFuture.completedFuture(null);
+    }
+
     @RequiredArgsConstructor
     public enum Type {
         Playing(RoomPlaying::new),
@@ -16,8 +16,7 @@ public class RoomGameStateReference {
     }
 
     private void updateState(RoomGameState newState) {
-        RoomGameState oldState = stateReference.get();
-        stateReference.set(newState);
+        RoomGameState oldState = stateReference.getAndSet(newState);
 
         RoomStateChangeEvent event = new RoomStateChangeEvent(oldState, newState);
         Server.postEvent(event);
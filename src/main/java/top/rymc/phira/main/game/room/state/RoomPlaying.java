@@ -1,5 +1,10 @@
 package top.rymc.phira.main.game.room.state;
 
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import lombok.Setter;
 import top.rymc.phira.main.Server;
 import top.rymc.phira.main.data.ChartInfo;
 import top.rymc.phira.main.data.GameRecord;
@@ -10,30 +15,60 @@ import top.rymc.phira.main.game.exception.GameOperationException;
 import top.rymc.phira.main.game.player.Player;
 import top.rymc.phira.main.game.player.operations.PlayerOperations;
 import top.rymc.phira.main.game.record.PhiraRecord;
+import top.rymc.phira.main.game.record.PlayStreamBuffer;
+import top.rymc.phira.main.game.record.RecordArchiver;
+import top.rymc.phira.main.game.record.RecordSpill;
 import top.rymc.phira.main.game.room.local.LocalRoom;
+import top.rymc.phira.main.util.HotCharts;
+import top.rymc.phira.main.util.Mailbox;
 import top.rymc.phira.main.util.PhiraFetcher;
+import top.rymc.phira.main.util.TransientUpstreamException;
 import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
 import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
 import top.rymc.phira.protocol.data.state.GameState;
 import top.rymc.phira.protocol.data.state.Playing;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public final class RoomPlaying extends RoomGameState {
 
+    private static final Timer RETRY_TIMER = new HashedWheelTimer(
+            new DefaultThreadFactory("Record-Retry", true),
+            100, TimeUnit.MILLISECONDS,
+            512
+    );
+
+    @Getter
+    @Setter
+    private static volatile int recordRetries = 2;
+    @Getter
+    @Setter
+    private static volatile long recordRetryDelayMillis = 1000;
+
     private final Set<Player> donePlayers = ConcurrentHashMap.newKeySet();
+    private final Map<Player, CompletableFuture<Void>> pendingResults = new ConcurrentHashMap<>();
+    private final AtomicBoolean ended = new AtomicBoolean();
 
     private final Map<Player, GameRecord> gameRecords = new ConcurrentHashMap<>();
     private final Map<Player, PhiraRecord> playerRecords = new ConcurrentHashMap<>();
 
-    private final Map<Player, List<TouchFrame>> touchFrames = new ConcurrentHashMap<>();
-    private final Map<Player, List<JudgeEvent>> judgeEvents = new ConcurrentHashMap<>();
+    private final Map<Player, PlayStreamBuffer<TouchFrame>> touchFrames = new ConcurrentHashMap<>();
+    private final Map<Player, PlayStreamBuffer<JudgeEvent>> judgeEvents = new ConcurrentHashMap<>();
+    private final RecordSpill spill = RecordSpill.open();
 
     public RoomPlaying(LocalRoom room, Consumer<RoomGameState> stateUpdater) {
         super(room, stateUpdater);
@@ -50,7 +85,9 @@ public final class RoomPlaying extends RoomGameState {
 
     @Override
     public void handleLeave(Player player) {
-
+        if (spill != null && room.getPlayerManager().getPlayers().isEmpty()) {
+            spill.close();
+        }
     }
 
     @Override
@@ -70,17 +107,23 @@ public final class RoomPlaying extends RoomGameState {
 
     @Override
     public void touchSend(Player player, List<TouchFrame> touchFrames) {
-        this.touchFrames.computeIfAbsent(player, p -> new CopyOnWriteArrayList<>()).addAll(touchFrames);
+        if (spill != null && spill.append(player.getId(), RecordSpill.Kind.TOUCH, touchFrames)) {
+            return;
+        }
+        this.touchFrames.computeIfAbsent(player, p -> PlayStreamBuffer.touches()).append(touchFrames);
     }
 
     @Override
     public void judgeSend(Player player, List<JudgeEvent> judgeEvents) {
-        this.judgeEvents.computeIfAbsent(player, p -> new CopyOnWriteArrayList<>()).addAll(judgeEvents);
+        if (spill != null && spill.append(player.getId(), RecordSpill.Kind.JUDGE, judgeEvents)) {
+            return;
+        }
+        this.judgeEvents.computeIfAbsent(player, p -> PlayStreamBuffer.judges()).append(judgeEvents);
     }
 
     @Override
     public void abort(Player player) {
-        if (donePlayers.contains(player)) {
+        if (donePlayers.contains(player) || pendingResults.containsKey(player)) {
             return;
         }
 
@@ -96,33 +139,96 @@ public final class RoomPlaying extends RoomGameState {
 
     @Override
     public void played(Player player, int recordId) {
+        if (donePlayers.contains(player) || pendingResults.containsKey(player)) {
+            return;
+        }
+
+        GameRecord record;
+        try {
+            record = fetchRecord(recordId, recordRetries).join();
+        } catch (CompletionException | CancellationException e) {
+            record = null;
+        }
+
+        completePlayed(player, recordId, record);
+    }
+
+    @Override
+    public CompletableFuture<Void> playedAsync(Player player, int recordId) {
+        if (donePlayers.contains(player)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        CompletableFuture<Void> pending = pendingResults.putIfAbsent(player, result);
+        if (pending != null) {
+            return pending;
+        }
+
+        fetchRecord(recordId, recordRetries).handleAsync((record, error) -> {
+            completePlayed(player, recordId, error == null ? record : null);
+            return null;
+        }, room.getSerialExecutor()).whenComplete((ignored, error) -> {
+            if (error == null) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        return result;
+    }
+
+    public static void stop() {
+        RETRY_TIMER.stop();
+    }
+
+    private static CompletableFuture<GameRecord> fetchRecord(int recordId, int retriesLeft) {
+        return PhiraFetcher.getRecordInfoAsync(recordId).handle((record, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(record);
+            }
+            if (retriesLeft <= 0 || !isTransient(error)) {
+                return CompletableFuture.<GameRecord>failedFuture(error);
+            }
+
+            long delay = recordRetryDelayMillis << Math.max(0, recordRetries - retriesLeft);
+            CompletableFuture<GameRecord> retry = new CompletableFuture<>();
+            try {
+                RETRY_TIMER.newTimeout(timeout -> fetchRecord(recordId, retriesLeft - 1).whenComplete((retried, retryError) -> {
+                    if (retryError == null) {
+                        retry.complete(retried);
+                    } else {
+                        retry.completeExceptionally(retryError);
+                    }
+                }), delay, TimeUnit.MILLISECONDS);
+            } catch (IllegalStateException e) {
+                return CompletableFuture.<GameRecord>failedFuture(error);
+            }
+            return retry;
+        }).thenCompose(Function.identity());
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return Mailbox.unwrap(error) instanceof TransientUpstreamException;
+    }
+
+    private void completePlayed(Player player, int recordId, GameRecord record) {
         if (donePlayers.contains(player)) {
             return;
         }
 
         try {
-            GameRecord record = PhiraFetcher.GET_RECORD_INFO.toIntFunction(e -> {
+            if (record == null) {
                 throw GameOperationException.recordNotFound();
-            }).apply(recordId);
+            }
 
             gameRecords.put(player, record);
 
-            List<TouchFrame> playerTouchFrames = touchFrames.getOrDefault(player, List.of());
-            List<JudgeEvent> playerJudgeEvents = judgeEvents.getOrDefault(player, List.of());
-
-            if (!playerTouchFrames.isEmpty() || !playerJudgeEvents.isEmpty()) {
-
-                PhiraRecord phiraRecord = new PhiraRecord(
-                        record.getId(),
-                        record.getTime().toInstant().toEpochMilli(),
-                        chart.getId(),
-                        chart.getName(),
-                        player.getId(),
-                        player.getName(),
-                        playerTouchFrames,
-                        playerJudgeEvents
-                );
+            PhiraRecord phiraRecord = spill != null && spill.contains(player.getId())
+                    ? finishSpilled(player, record)
+                    : bufferedRecord(player, record);
 
+            if (phiraRecord != null) {
                 playerRecords.put(player, phiraRecord);
             }
 
@@ -140,12 +246,54 @@ public final class RoomPlaying extends RoomGameState {
         }
     }
 
+    private PhiraRecord bufferedRecord(Player player, GameRecord record) {
+        List<TouchFrame> playerTouchFrames = Objects.requireNonNullElse(touchFrames.get(player), List.of());
+        List<JudgeEvent> playerJudgeEvents = Objects.requireNonNullElse(judgeEvents.get(player), List.of());
+
+        if (playerTouchFrames.isEmpty() && playerJudgeEvents.isEmpty()) {
+            return null;
+        }
+
+        return new PhiraRecord(
+                record.getId(),
+                record.getTime().toInstant().toEpochMilli(),
+                chart.getId(),
+                chart.getName(),
+                player.getId(),
+                player.getName(),
+                playerTouchFrames,
+                playerJudgeEvents
+        );
+    }
+
+    private PhiraRecord finishSpilled(Player player, GameRecord record) {
+        if (spill.isFailed()) {
+            Server.getLogger().warn("Discarding recording {} of player {}, its spill file failed mid-game", record.getId(), player.getId());
+            return null;
+        }
+
+        long time = record.getTime().toInstant().toEpochMilli();
+        try {
+            return spill.finish(player.getId(), record.getId(), time, chart.getId(), chart.getName(), player.getName());
+        } catch (IOException e) {
+            Server.getLogger().error("Failed to write recording {} of player {}", record.getId(), player.getId(), e);
+            return null;
+        }
+    }
+
     private void updateState(Player player) {
         donePlayers.add(player);
 
-        if (isAllOnlinePlayersDone()) {
+        if (isAllOnlinePlayersDone() && ended.compareAndSet(false, true)) {
             GameEndEvent event = new GameEndEvent(room, chart, Map.copyOf(gameRecords), Map.copyOf(playerRecords));
             Server.postEvent(event);
+            if (spill != null) {
+                spill.close();
+            }
+            archive(event.getPlayerRecords().values());
+            if (chart != null) {
+                HotCharts.recordPlayed(chart.getId(), gameRecords.size());
+            }
 
             RoomSelectChart state = new RoomSelectChart(room, stateUpdater, chart);
             updateGameState(state);
@@ -156,6 +304,18 @@ public final class RoomPlaying extends RoomGameState {
         }
     }
 
+    private static void archive(Collection<PhiraRecord> records) {
+        if (!RecordArchiver.isEnabled()) {
+            return;
+        }
+
+        for (PhiraRecord record : records) {
+            if (record.getFile() == null && !RecordArchiver.submit(record)) {
+                RecordArchiver.write(record);
+            }
+        }
+    }
+
     private boolean isAllOnlinePlayersDone() {
         Set<Player> onlinePlayers = room.getPlayerManager().getPlayers().stream()
                 .filter(Player::isOnline)
@@ -1,5 +1,9 @@
 package top.rymc.phira.main.game.session;
 
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -21,15 +25,20 @@ import top.rymc.phira.protocol.handler.server.ServerBoundPacketHandler;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public class LocalSessionManager {
 
     private static final Map<Integer, SuspendedRoomSession> SUSPENDED = new ConcurrentHashMap<>();
-    private static final ScheduledExecutorService TIMER = Executors.newScheduledThreadPool(1);
+    private static final Timer TIMER = new HashedWheelTimer(
+            new DefaultThreadFactory("Session-Timer", true),
+            100, TimeUnit.MILLISECONDS,
+            512
+    );
+
+    private static final LongAdder EXPIRED = new LongAdder();
+    private static final LongAdder RESUMED = new LongAdder();
 
     @Getter
     @Setter
@@ -50,10 +59,11 @@ public class LocalSessionManager {
             throw new ResumeFailedException();
         }
 
-        ScheduledFuture<?> timeout = session.timeout;
+        Timeout timeout = session.timeout;
         if (timeout != null) {
-            timeout.cancel(false);
+            timeout.cancel();
         }
+        RESUMED.increment();
 
         Optional<Room> optionalRoom = player.getRoom();
         if (optionalRoom.isPresent()) {
@@ -107,13 +117,13 @@ public class LocalSessionManager {
 
             if (oldSession != null && oldSession.timeout != null) {
                 Server.getLogger().warn("Player {} already has a suspended session, cancelling old timeout", player.getId());
-                oldSession.timeout.cancel(false);
+                oldSession.timeout.cancel();
             }
 
             SuspendedRoomSession newSession = new SuspendedRoomSession(player);
 
-            newSession.timeout = TIMER.schedule(
-                    () -> forceLeave(id, newSession, remover),
+            newSession.timeout = TIMER.newTimeout(
+                    (timeout) -> forceLeave(id, newSession, remover),
                     suspendTimeoutMillis,
                     TimeUnit.MILLISECONDS
             );
@@ -123,26 +133,32 @@ public class LocalSessionManager {
     }
 
     private static void forceLeave(int playerId, SuspendedRoomSession session, Runnable remover) {
-        remover.run();
+        if (SUSPENDED.remove(playerId, session)) {
+            EXPIRED.increment();
 
-        if (!SUSPENDED.remove(playerId, session)) {
-            return;
+            session.player.getRoom().ifPresent((room) -> {
+                if (room.containsPlayer(session.player)) {
+                    PlayerSessionTimeoutEvent event = new PlayerSessionTimeoutEvent(session.player, room);
+                    Server.postEvent(event);
+
+                    room.leave(session.player);
+                }
+            });
         }
 
-        session.player.getRoom().ifPresent((room) -> {
-            if (room.containsPlayer(session.player)) {
-                PlayerSessionTimeoutEvent event = new PlayerSessionTimeoutEvent(session.player, room);
-                Server.postEvent(event);
+        remover.run();
+    }
 
-                room.leave(session.player);
-            }
-        });
+    public static Statistics getStatistics() {
+        return new Statistics(SUSPENDED.size(), EXPIRED.sum(), RESUMED.sum());
+    }
 
+    public record Statistics(long pending, long expired, long resumed) {
     }
 
     @RequiredArgsConstructor
     private static final class SuspendedRoomSession {
         private final LocalPlayer player;
-        private volatile ScheduledFuture<?> timeout;
+        private volatile Timeout timeout;
     }
 }
\ No newline at end of file
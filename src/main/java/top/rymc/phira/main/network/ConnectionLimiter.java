@@ -0,0 +1,85 @@
+package top.rymc.phira.main.network;
+
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionLimiter {
+
+    private final int maxConnections;
+    private final int maxConnectionsPerAddress;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Map<InetAddress, Integer> connectionsPerAddress = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConnectionLimiter(int maxConnections, int maxConnectionsPerAddress) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerAddress = maxConnectionsPerAddress;
+    }
+
+    public boolean tryAcquire() {
+        if (maxConnections <= 0) {
+            connections.incrementAndGet();
+            return true;
+        }
+
+        while (true) {
+            int current = connections.get();
+            if (current >= maxConnections) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (connections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        connections.decrementAndGet();
+    }
+
+    public boolean tryAcquire(InetAddress address) {
+        if (maxConnectionsPerAddress <= 0) {
+            return true;
+        }
+
+        boolean[] acquired = new boolean[1];
+        connectionsPerAddress.compute(address, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxConnectionsPerAddress) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+
+        if (!acquired[0]) {
+            rejected.incrementAndGet();
+        }
+        return acquired[0];
+    }
+
+    public void release(InetAddress address) {
+        if (maxConnectionsPerAddress <= 0) {
+            return;
+        }
+
+        connectionsPerAddress.computeIfPresent(address, (key, count) -> count <= 1 ? null : count - 1);
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public int getConnections(InetAddress address) {
+        return connectionsPerAddress.getOrDefault(address, 0);
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
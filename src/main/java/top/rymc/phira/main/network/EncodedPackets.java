@@ -0,0 +1,68 @@
+package top.rymc.phira.main.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import top.rymc.phira.main.Server;
+import top.rymc.phira.protocol.codec.encoder.ServerPacketEncoder;
+import top.rymc.phira.protocol.data.message.GameEndMessage;
+import top.rymc.phira.protocol.data.message.StartPlayingMessage;
+import top.rymc.phira.protocol.packet.ClientBoundPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundMessagePacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundPongPacket;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public final class EncodedPackets {
+
+    private EncodedPackets() {
+    }
+
+    public static final ClientBoundPacket GAME_END = ClientBoundMessagePacket.create(GameEndMessage.INSTANCE);
+    public static final ClientBoundPacket START_PLAYING = ClientBoundMessagePacket.create(StartPlayingMessage.INSTANCE);
+
+    private static final Queue<EmbeddedChannel> ENCODERS = new ConcurrentLinkedQueue<>();
+    private static final Map<ClientBoundPacket, ByteBuf> CONSTANTS = new IdentityHashMap<>();
+
+    static {
+        cache(ClientBoundPongPacket.INSTANCE);
+        cache(GAME_END);
+        cache(START_PLAYING);
+    }
+
+    private static void cache(ClientBoundPacket packet) {
+        ByteBuf encoded = encode(packet);
+        if (encoded == null) {
+            return;
+        }
+
+        ByteBuf copy = Unpooled.directBuffer(encoded.readableBytes()).writeBytes(encoded);
+        encoded.release();
+        CONSTANTS.put(packet, Unpooled.unreleasableBuffer(copy.asReadOnly()));
+    }
+
+    public static ByteBuf getConstant(ClientBoundPacket packet) {
+        return CONSTANTS.get(packet);
+    }
+
+    public static ByteBuf encode(ClientBoundPacket packet) {
+        EmbeddedChannel encoder = ENCODERS.poll();
+        if (encoder == null) {
+            encoder = new EmbeddedChannel(new ServerPacketEncoder());
+        }
+
+        try {
+            encoder.writeOutbound(packet);
+            ByteBuf encoded = encoder.readOutbound();
+            ENCODERS.offer(encoder);
+            return encoded;
+        } catch (Exception e) {
+            encoder.finishAndReleaseAll();
+            Server.getLogger().warn("Failed to pre-encode {}: {}", packet.getClass().getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+}
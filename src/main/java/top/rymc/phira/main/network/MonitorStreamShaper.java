@@ -0,0 +1,71 @@
+package top.rymc.phira.main.network;
+
+import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundTouchesPacket;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MonitorStreamShaper {
+
+    public static final int MAX_PENDING_FRAMES = 32;
+
+    private final PlayerConnection connection;
+    private final Map<Integer, List<TouchFrame>> pendingTouches = new LinkedHashMap<>();
+
+    private final AtomicLong deferredTouchBatches = new AtomicLong();
+    private final AtomicLong shedTouchFrames = new AtomicLong();
+
+    public MonitorStreamShaper(PlayerConnection connection) {
+        this.connection = connection;
+    }
+
+    public synchronized boolean offerTouches(int playerId, List<TouchFrame> frames) {
+        if (pendingTouches.isEmpty() && connection.getChannel().isWritable()) {
+            return true;
+        }
+
+        deferredTouchBatches.incrementAndGet();
+
+        List<TouchFrame> pending = pendingTouches.computeIfAbsent(playerId, k -> new ArrayList<>());
+        pending.addAll(frames);
+
+        int overflow = pending.size() - MAX_PENDING_FRAMES;
+        if (overflow > 0) {
+            pending.subList(0, overflow).clear();
+            shedTouchFrames.addAndGet(overflow);
+        }
+
+        return false;
+    }
+
+    public synchronized void flushPending() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, List<TouchFrame>> pending = new LinkedHashMap<>(pendingTouches);
+        pendingTouches.clear();
+        pending.forEach((playerId, frames) -> connection.send(ClientBoundTouchesPacket.create(playerId, frames)));
+    }
+
+    public synchronized void discardPending() {
+        pendingTouches.values().forEach(frames -> shedTouchFrames.addAndGet(frames.size()));
+        pendingTouches.clear();
+    }
+
+    public synchronized int getPendingFrames() {
+        return pendingTouches.values().stream().mapToInt(List::size).sum();
+    }
+
+    public long getDeferredTouchBatches() {
+        return deferredTouchBatches.get();
+    }
+
+    public long getShedTouchFrames() {
+        return shedTouchFrames.get();
+    }
+}
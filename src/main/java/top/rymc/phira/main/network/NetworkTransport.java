@@ -0,0 +1,116 @@
+package top.rymc.phira.main.network;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.IoHandlerFactory;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollIoHandler;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import top.rymc.phira.main.Server;
+
+import java.util.Locale;
+
+public enum NetworkTransport {
+
+    NIO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean isReusePortSupported() {
+            return false;
+        }
+
+        @Override
+        public IoHandlerFactory newIoHandlerFactory() {
+            return NioIoHandler.newFactory();
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        public void enableReusePort(ServerBootstrap bootstrap) {
+            throw new UnsupportedOperationException("SO_REUSEPORT is not supported by the NIO transport");
+        }
+    },
+
+    EPOLL {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public boolean isReusePortSupported() {
+            return true;
+        }
+
+        @Override
+        public IoHandlerFactory newIoHandlerFactory() {
+            return EpollIoHandler.newFactory();
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public void enableReusePort(ServerBootstrap bootstrap) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+    };
+
+    public static final String AUTO = "auto";
+
+    public abstract boolean isAvailable();
+
+    public abstract boolean isReusePortSupported();
+
+    public abstract IoHandlerFactory newIoHandlerFactory();
+
+    public abstract Class<? extends ServerChannel> getServerChannelClass();
+
+    public abstract void enableReusePort(ServerBootstrap bootstrap);
+
+    public int resolveAcceptors(int requested) {
+        if (!isReusePortSupported()) {
+            return 1;
+        }
+
+        if (requested > 0) {
+            return requested;
+        }
+
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public static NetworkTransport resolve(String name) {
+        if (name == null || name.equalsIgnoreCase(AUTO)) {
+            return EPOLL.isAvailable() ? EPOLL : NIO;
+        }
+
+        NetworkTransport transport;
+        try {
+            transport = valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            Server.getLogger().warn("Unknown transport '{}', falling back to {}", name, NIO);
+            return NIO;
+        }
+
+        if (!transport.isAvailable()) {
+            Server.getLogger().warn("Transport {} is not available on this platform, falling back to {}", transport, NIO);
+            return NIO;
+        }
+
+        return transport;
+    }
+}
@@ -0,0 +1,253 @@
+package top.rymc.phira.main.network;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
+import top.rymc.phira.main.Server;
+import top.rymc.phira.main.game.i18n.I18nService;
+import top.rymc.phira.protocol.packet.ClientBoundPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundAbortPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundCancelReadyPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundChatPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundCreateRoomPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundCycleRoomPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundJoinRoomPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundLeaveRoomPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundLockRoomPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundPlayedPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundReadyPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundRequestStartPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundSelectChartPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundAbortPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundAuthenticatePacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundCancelReadyPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundChatPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundCreateRoomPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundCycleRoomPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundJoinRoomPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundJudgesPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundLeaveRoomPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundLockRoomPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundPingPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundPlayedPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundReadyPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundRequestStartPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundSelectChartPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundTouchesPacket;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class PacketRateLimiter extends ChannelInboundHandlerAdapter {
+
+    public enum Overflow {
+        DROP,
+        REJECT,
+        KICK
+    }
+
+    public enum Category {
+        GAMEPLAY(100, 200, Overflow.DROP),
+        CHAT(2, 5, Overflow.REJECT),
+        ROOM_CONTROL(10, 20, Overflow.REJECT),
+        SESSION(2, 10, Overflow.KICK);
+
+        private final double tokensPerSecond;
+        private final double burst;
+        private final Overflow overflow;
+
+        Category(double tokensPerSecond, double burst, Overflow overflow) {
+            this.tokensPerSecond = tokensPerSecond;
+            this.burst = burst;
+            this.overflow = overflow;
+        }
+
+        public static Category of(Object packet) {
+            Rule rule = ruleOf(packet);
+            return rule != null ? rule.category() : null;
+        }
+    }
+
+    private record Rule(Category category, Function<String, ClientBoundPacket> rejection) {
+    }
+
+    private static final Map<Class<?>, Rule> RULES = new HashMap<>();
+
+    static {
+        rule(ServerBoundTouchesPacket.class, Category.GAMEPLAY, null);
+        rule(ServerBoundJudgesPacket.class, Category.GAMEPLAY, null);
+
+        rule(ServerBoundChatPacket.class, Category.CHAT, ClientBoundChatPacket::failed);
+
+        rule(ServerBoundCreateRoomPacket.class, Category.ROOM_CONTROL, ClientBoundCreateRoomPacket::failed);
+        rule(ServerBoundJoinRoomPacket.class, Category.ROOM_CONTROL, ClientBoundJoinRoomPacket::failed);
+        rule(ServerBoundLeaveRoomPacket.class, Category.ROOM_CONTROL, ClientBoundLeaveRoomPacket::failed);
+        rule(ServerBoundLockRoomPacket.class, Category.ROOM_CONTROL, ClientBoundLockRoomPacket::failed);
+        rule(ServerBoundCycleRoomPacket.class, Category.ROOM_CONTROL, ClientBoundCycleRoomPacket::failed);
+        rule(ServerBoundSelectChartPacket.class, Category.ROOM_CONTROL, ClientBoundSelectChartPacket::failed);
+        rule(ServerBoundRequestStartPacket.class, Category.ROOM_CONTROL, ClientBoundRequestStartPacket::failed);
+        rule(ServerBoundReadyPacket.class, Category.ROOM_CONTROL, ClientBoundReadyPacket::failed);
+        rule(ServerBoundCancelReadyPacket.class, Category.ROOM_CONTROL, ClientBoundCancelReadyPacket::failed);
+        rule(ServerBoundPlayedPacket.class, Category.ROOM_CONTROL, ClientBoundPlayedPacket::failed);
+        rule(ServerBoundAbortPacket.class, Category.ROOM_CONTROL, ClientBoundAbortPacket::failed);
+
+        rule(ServerBoundAuthenticatePacket.class, Category.SESSION, null);
+        rule(ServerBoundPingPacket.class, Category.SESSION, null);
+    }
+
+    private static void rule(Class<?> packetClass, Category category, Function<String, ClientBoundPacket> rejection) {
+        RULES.put(packetClass, new Rule(category, rejection));
+    }
+
+    private static Rule ruleOf(Object packet) {
+        for (Class<?> type = packet.getClass(); type != null; type = type.getSuperclass()) {
+            Rule rule = RULES.get(type);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public static final int KICK_THRESHOLD = 100;
+    private static final long VIOLATION_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Map<Category, LongAdder> TOTAL_PASSED = counters();
+    private static final Map<Category, LongAdder> TOTAL_DROPPED = counters();
+    private static final LongAdder TOTAL_KICKED = new LongAdder();
+
+    private static Map<Category, LongAdder> counters() {
+        Map<Category, LongAdder> counters = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            counters.put(category, new LongAdder());
+        }
+        return counters;
+    }
+
+    public static long getTotalPassed(Category category) {
+        return TOTAL_PASSED.get(category).sum();
+    }
+
+    public static long getTotalDropped(Category category) {
+        return TOTAL_DROPPED.get(category).sum();
+    }
+
+    public static long getTotalKicked() {
+        return TOTAL_KICKED.sum();
+    }
+
+    private final LongSupplier clock;
+    private final Map<Category, Bucket> buckets = new EnumMap<>(Category.class);
+
+    private long violationWindowStart;
+    private int violations;
+    private boolean kicked;
+
+    public PacketRateLimiter() {
+        this(System::nanoTime);
+    }
+
+    PacketRateLimiter(LongSupplier clock) {
+        this.clock = clock;
+        long now = clock.getAsLong();
+        for (Category category : Category.values()) {
+            buckets.put(category, new Bucket(category, now));
+        }
+        this.violationWindowStart = now;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        Rule rule = ruleOf(msg);
+        if (rule == null) {
+            super.channelRead(ctx, msg);
+            return;
+        }
+
+        Category category = rule.category();
+        long now = clock.getAsLong();
+        Bucket bucket = buckets.get(category);
+        if (bucket.tryConsume(now)) {
+            TOTAL_PASSED.get(category).increment();
+            super.channelRead(ctx, msg);
+            return;
+        }
+
+        bucket.dropped++;
+        TOTAL_DROPPED.get(category).increment();
+        ReferenceCountUtil.release(msg);
+
+        if (category.overflow == Overflow.KICK) {
+            kick(ctx, category);
+            return;
+        }
+        if (category.overflow == Overflow.REJECT) {
+            ctx.channel().writeAndFlush(rule.rejection().apply(I18nService.INSTANCE.getMessage("error.rate_limited")));
+        }
+        recordViolation(ctx, category, now);
+    }
+
+    private void recordViolation(ChannelHandlerContext ctx, Category category, long now) {
+        if (now - violationWindowStart >= VIOLATION_WINDOW_NANOS) {
+            violationWindowStart = now;
+            violations = 0;
+        }
+
+        if (++violations < KICK_THRESHOLD) {
+            return;
+        }
+        kick(ctx, category);
+    }
+
+    private void kick(ChannelHandlerContext ctx, Category category) {
+        if (kicked) {
+            return;
+        }
+
+        kicked = true;
+        TOTAL_KICKED.increment();
+        Server.getLogger().warn("{}: exceeded {} packet rate limit, disconnecting", ctx.channel().remoteAddress(), category);
+
+        PlayerConnection connection = ctx.pipeline().get(PlayerConnection.class);
+        if (connection != null) {
+            connection.markAsKicked();
+        } else {
+            ctx.close();
+        }
+    }
+
+    public long getDropped(Category category) {
+        return buckets.get(category).dropped;
+    }
+
+    private static class Bucket {
+        private final Category category;
+        private double tokens;
+        private long lastRefill;
+        private long dropped;
+
+        private Bucket(Category category, long now) {
+            this.category = category;
+            this.tokens = category.burst;
+            this.lastRefill = now;
+        }
+
+        private boolean tryConsume(long now) {
+            double elapsedSeconds = (now - lastRefill) / 1_000_000_000.0;
+            tokens = Math.min(category.burst, tokens + elapsedSeconds * category.tokensPerSecond);
+            lastRefill = now;
+
+            if (tokens < 1) {
+                return false;
+            }
+
+            tokens -= 1;
+            return true;
+        }
+    }
+}
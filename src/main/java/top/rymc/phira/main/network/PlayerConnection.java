@@ -1,10 +1,14 @@
 package top.rymc.phira.main.network;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.timeout.ReadTimeoutException;
+import io.netty.util.ReferenceCountUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.logging.log4j.Logger;
 import top.rymc.phira.main.Server;
@@ -13,8 +17,9 @@ import top.rymc.phira.main.event.player.PlayerDisconnectEvent;
 import top.rymc.phira.main.event.network.PacketReceiveEvent;
 import top.rymc.phira.main.event.network.PacketSendEvent;
 import top.rymc.phira.main.game.player.PlayerManager;
-import top.rymc.phira.main.util.ExecutorServiceManager;
-import top.rymc.phira.main.util.ThreadFactoryCompat;
+import top.rymc.phira.main.util.Mailbox;
+import top.rymc.phira.main.util.WorkerPool;
+import top.rymc.phira.protocol.codec.encoder.ServerPacketEncoder;
 import top.rymc.phira.protocol.data.message.ChatMessage;
 import top.rymc.phira.protocol.handler.server.ServerBoundPacketHandler;
 import top.rymc.phira.protocol.packet.ClientBoundPacket;
@@ -23,17 +28,26 @@ import top.rymc.phira.protocol.packet.clientbound.ClientBoundMessagePacket;
 
 import java.net.InetSocketAddress;
 import java.net.SocketException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 @Getter
 public class PlayerConnection extends ChannelInboundHandlerAdapter {
 
-    private final ExecutorService packetExecutor;
+    private final Mailbox packetMailbox;
+    private final MonitorStreamShaper streamShaper = new MonitorStreamShaper(this);
+
+    @Getter(AccessLevel.NONE)
+    private final Queue<PendingWrite> outbound = new ConcurrentLinkedQueue<>();
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
 
     private final Channel channel;
     private final InetSocketAddress remoteAddress;
@@ -52,10 +66,7 @@ public class PlayerConnection extends ChannelInboundHandlerAdapter {
     public PlayerConnection(Channel channel, InetSocketAddress remoteAddress) {
         this.channel = channel;
         this.remoteAddress = remoteAddress;
-
-        this.packetExecutor = ExecutorServiceManager.registerService(Executors.newSingleThreadExecutor(
-                ThreadFactoryCompat.THREAD_FACTORY_CREATOR.apply("LocalPlayer-Worker-" + getRemoteAddressAsString())
-        ));
+        this.packetMailbox = WorkerPool.newMailbox();
     }
 
     public void onClose(Consumer<ChannelHandlerContext> handler) {
@@ -81,7 +92,14 @@ public class PlayerConnection extends ChannelInboundHandlerAdapter {
             return;
         }
 
-        packetExecutor.execute(() -> handle(ctx, packet));
+        try {
+            packetMailbox.execute(() -> handle(ctx, packet));
+        } catch (RejectedExecutionException e) {
+            if (!packetMailbox.isClosed()) {
+                Server.getLogger().warn("{}: {}, disconnecting", getRemoteAddressAsString(), e.getMessage());
+                ctx.close();
+            }
+        }
     }
 
     @SuppressWarnings("resource")
@@ -93,6 +111,15 @@ public class PlayerConnection extends ChannelInboundHandlerAdapter {
         }
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            streamShaper.flushPending();
+        }
+
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         if (!ctx.channel().isActive()) {
@@ -117,7 +144,8 @@ public class PlayerConnection extends ChannelInboundHandlerAdapter {
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-        packetExecutor.shutdownNow();
+        packetMailbox.close();
+        streamShaper.discardPending();
 
         Server.getLogger().info("Client disconnected: {}", getRemoteAddressAsString());
 
@@ -147,7 +175,40 @@ public class PlayerConnection extends ChannelInboundHandlerAdapter {
         };
     }
 
+    public static void sendToAll(Collection<PlayerConnection> connections, ClientBoundPacket packet) {
+        if (connections.isEmpty()) {
+            return;
+        }
+
+        if (connections.size() == 1) {
+            connections.iterator().next().send(packet);
+            return;
+        }
+
+        ByteBuf constant = EncodedPackets.getConstant(packet);
+        ByteBuf encoded = constant != null ? constant : EncodedPackets.encode(packet);
+        if (encoded == null) {
+            connections.forEach(connection -> connection.send(packet));
+            return;
+        }
+
+        try {
+            for (PlayerConnection connection : connections) {
+                connection.sendEncoded(packet, encoded);
+            }
+        } finally {
+            if (constant == null) {
+                encoded.release();
+            }
+        }
+    }
+
     public Optional<ChannelFuture> send(ClientBoundPacket packet) {
+        ByteBuf constant = EncodedPackets.getConstant(packet);
+        if (constant != null) {
+            return sendEncoded(packet, constant);
+        }
+
         if (this.isClosed()) {
             return Optional.empty();
         }
@@ -157,7 +218,76 @@ public class PlayerConnection extends ChannelInboundHandlerAdapter {
             return Optional.empty();
         }
 
-        return Optional.ofNullable(channel.writeAndFlush(packet));
+        return Optional.of(enqueue(packet, null));
+    }
+
+    private Optional<ChannelFuture> sendEncoded(ClientBoundPacket packet, ByteBuf encoded) {
+        if (this.isClosed()) {
+            return Optional.empty();
+        }
+
+        PacketSendEvent event = new PacketSendEvent(this, packet);
+        if (Server.postEvent(event)) {
+            return Optional.empty();
+        }
+
+        ChannelHandlerContext encoderContext = channel.pipeline().context(ServerPacketEncoder.class);
+        if (encoderContext == null) {
+            return Optional.of(enqueue(packet, null));
+        }
+
+        return Optional.of(enqueue(encoded.retainedDuplicate(), encoderContext));
+    }
+
+    private ChannelFuture enqueue(Object message, ChannelHandlerContext context) {
+        ChannelPromise promise = channel.newPromise();
+        outbound.offer(new PendingWrite(message, context, promise));
+
+        if (channel.eventLoop().inEventLoop()) {
+            flushOutbound();
+            return promise;
+        }
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                channel.eventLoop().execute(this::flushOutbound);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                discardOutbound(e);
+            }
+        }
+
+        return promise;
+    }
+
+    private void flushOutbound() {
+        flushScheduled.set(false);
+
+        boolean written = false;
+        PendingWrite write;
+        while ((write = outbound.poll()) != null) {
+            if (write.context() != null) {
+                write.context().write(write.message(), write.promise());
+            } else {
+                channel.write(write.message(), write.promise());
+            }
+            written = true;
+        }
+
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    private void discardOutbound(Throwable cause) {
+        PendingWrite write;
+        while ((write = outbound.poll()) != null) {
+            ReferenceCountUtil.release(write.message());
+            write.promise().tryFailure(cause);
+        }
+    }
+
+    private record PendingWrite(Object message, ChannelHandlerContext context, ChannelPromise promise) {
     }
 
     public void sendChat(String message) {
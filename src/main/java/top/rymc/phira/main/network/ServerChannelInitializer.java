@@ -5,6 +5,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.handler.codec.haproxy.HAProxyMessageDecoder;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.concurrent.ScheduledFuture;
 import top.rymc.phira.main.Server;
 import top.rymc.phira.main.network.handler.AuthenticateHandler;
 import top.rymc.phira.main.network.haproxy.HAProxyHandshakeHandler;
@@ -19,18 +20,38 @@ import java.util.concurrent.TimeUnit;
 
 public class ServerChannelInitializer extends ChannelInitializer<Channel> {
     private final ChannelGroup allChannels;
+    private final ConnectionLimiter limiter;
+    private final long handshakeTimeoutMillis;
 
-    public ServerChannelInitializer(ChannelGroup allChannels) {
+    public ServerChannelInitializer(ChannelGroup allChannels, ConnectionLimiter limiter, long handshakeTimeoutMillis) {
         this.allChannels = allChannels;
+        this.limiter = limiter;
+        this.handshakeTimeoutMillis = handshakeTimeoutMillis;
     }
 
     @Override
     protected void initChannel(Channel channel) {
+        InetSocketAddress originalRemoteAddress = (InetSocketAddress) channel.remoteAddress();
+
+        if (!limiter.tryAcquire()) {
+            Server.getLogger().warn("Rejecting connection from {}: connection limit reached", originalRemoteAddress);
+            channel.close();
+            return;
+        }
+        channel.closeFuture().addListener(future -> limiter.release());
+
         allChannels.add(channel);
 
-        InetSocketAddress originalRemoteAddress = (InetSocketAddress) channel.remoteAddress();
+        ScheduledFuture<?> handshakeDeadline = channel.eventLoop().schedule(() -> {
+            if (channel.isActive()) {
+                Server.getLogger().warn("Disconnecting {}: handshake not completed within {}ms", originalRemoteAddress, handshakeTimeoutMillis);
+                channel.close();
+            }
+        }, handshakeTimeoutMillis, TimeUnit.MILLISECONDS);
+        channel.closeFuture().addListener(future -> handshakeDeadline.cancel(false));
+
         if (!Server.getInstance().getArgs().isProxyProtocol()) {
-            initChannel0(channel, originalRemoteAddress);
+            initChannel0(channel, originalRemoteAddress, handshakeDeadline);
             return;
         }
 
@@ -48,14 +69,21 @@ public class ServerChannelInitializer extends ChannelInitializer<Channel> {
                 return;
             }
 
-            initChannel0(channel, remoteAddress);
+            initChannel0(channel, remoteAddress, handshakeDeadline);
         });
 
     }
 
-    private void initChannel0(Channel channel, InetSocketAddress remoteAddress) {
+    private void initChannel0(Channel channel, InetSocketAddress remoteAddress, ScheduledFuture<?> handshakeDeadline) {
         String ipPort = remoteAddress.getAddress().getHostAddress() + ":" + remoteAddress.getPort();
 
+        if (!limiter.tryAcquire(remoteAddress.getAddress())) {
+            Server.getLogger().warn("Rejecting connection from {}: too many connections from this address", ipPort);
+            channel.close();
+            return;
+        }
+        channel.closeFuture().addListener(future -> limiter.release(remoteAddress.getAddress()));
+
         Server.getLogger().info("Establishing a connection from {}", ipPort);
 
         HandshakeDecoder handshake = new HandshakeDecoder();
@@ -70,14 +98,24 @@ public class ServerChannelInitializer extends ChannelInitializer<Channel> {
                 return;
             }
 
+            handshakeDeadline.cancel(false);
+            if (!channel.isActive()) {
+                return;
+            }
+
             Server.getLogger().info("Receive client version {} from {}", version, ipPort);
 
             channel.pipeline()
                     .addLast(new FrameDecoder())
                     .addLast(new FrameEncoder())
                     .addLast(new ReadTimeoutHandler(5, TimeUnit.SECONDS))
-                    .addLast(new ServerPacketDecoder())
-                    .addLast(new ServerPacketEncoder());
+                    .addLast(new ServerPacketDecoder());
+
+            if (Server.getInstance().getArgs().isPacketRateLimit()) {
+                channel.pipeline().addLast(new PacketRateLimiter());
+            }
+
+            channel.pipeline().addLast(new ServerPacketEncoder());
 
             PlayerConnection connection = new PlayerConnection(channel, remoteAddress);
             connection.setPacketHandler(new AuthenticateHandler(connection));
@@ -1,7 +1,7 @@
 package top.rymc.phira.main.network.handler;
 
 import top.rymc.phira.main.Server;
-import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.event.player.PlayerPostLoginEvent;
 import top.rymc.phira.main.event.player.PlayerPreAuthenticateEvent;
 import top.rymc.phira.main.event.player.PlayerPreLoginEvent;
@@ -14,6 +14,7 @@ import top.rymc.phira.main.game.exception.session.ResumeFailedException;
 import top.rymc.phira.main.game.exception.session.SuspendFailedException;
 import top.rymc.phira.main.network.ConnectionReference;
 import top.rymc.phira.main.network.PlayerConnection;
+import top.rymc.phira.main.util.Mailbox;
 import top.rymc.phira.main.util.PhiraFetcher;
 import top.rymc.phira.protocol.data.FullUserProfile;
 import top.rymc.phira.protocol.data.RoomInfo;
@@ -23,6 +24,8 @@ import top.rymc.phira.protocol.packet.ServerBoundPacket;
 import top.rymc.phira.protocol.packet.clientbound.ClientBoundAuthenticatePacket;
 import top.rymc.phira.protocol.packet.serverbound.*;
 
+import java.util.concurrent.CompletableFuture;
+
 public class AuthenticateHandler extends SimpleServerBoundPacketHandler {
 
     private final PlayerConnection connection;
@@ -42,6 +45,7 @@ public class AuthenticateHandler extends SimpleServerBoundPacketHandler {
 
     @Override
     public void handle(ServerBoundAuthenticatePacket packet) {
+        CompletableFuture<PlayerProfile> profileFuture;
         try {
             String token = packet.getToken();
             Server.getLogger().info("{} sent his token [{}]", connection.getRemoteAddressAsString(), token);
@@ -55,59 +59,79 @@ public class AuthenticateHandler extends SimpleServerBoundPacketHandler {
                 connection.close();
                 return;
             }
-            UserInfo eventUserInfo = preAuthEvent.getUserInfo();
-            UserInfo userInfo = eventUserInfo != null ? eventUserInfo : PhiraFetcher.GET_USER_INFO.apply(token);
-
-            PlayerPreLoginEvent preLoginEvent = new PlayerPreLoginEvent(userInfo);
-            Server.postEvent(preLoginEvent);
-            String preLoginCancelReason = preLoginEvent.getCancelReason();
-            if (preLoginCancelReason != null) {
-                connection.send(ClientBoundAuthenticatePacket.failed(preLoginCancelReason));
-                connection.close();
+            PlayerProfile eventProfile = preAuthEvent.getProfile();
+            profileFuture = eventProfile != null ? CompletableFuture.completedFuture(eventProfile) : PhiraFetcher.getProfileAsync(token);
+        } catch (Exception e) {
+            fail(e);
+            return;
+        }
+
+        Mailbox.continueAfter(profileFuture, (profile, error) -> {
+            if (error != null) {
+                fail(error);
                 return;
             }
 
-            PlayerManager.ResolveResult<LocalPlayer> result = PlayerManager.resolvePlayer(
-                    userInfo.getId(),
-                    LocalPlayer.class,
-                    () -> new LocalPlayer(userInfo, new ConnectionReference(connection)),
-                    (player) -> LocalSessionManager.resume(player, connection),
-                    (remover, player) -> connection.onClose((ctx) -> {
-                        if (player.getConnection() != connection) {
-                            return;
-                        }
-
-                        try {
-                            LocalSessionManager.suspend(player, remover);
-                        } catch (SuspendFailedException e) {
-                            remover.run();
-                        }
-                    })
-            );
-
-            LocalPlayer player = result.player();
-            RoomInfo roomInfo = player.getRoomInfo().orElse(null);
-
-            if (result.type() == PlayerManager.ResolveResult.Type.Create) {
-                connection.setPacketHandler(PlayHandler.create(result.player()));
+            try {
+                login(profile);
+            } catch (Exception e) {
+                fail(e);
             }
+        });
+    }
+
+    private void login(PlayerProfile profile) throws ResumeFailedException {
+        PlayerPreLoginEvent preLoginEvent = new PlayerPreLoginEvent(profile);
+        Server.postEvent(preLoginEvent);
+        String preLoginCancelReason = preLoginEvent.getCancelReason();
+        if (preLoginCancelReason != null) {
+            connection.send(ClientBoundAuthenticatePacket.failed(preLoginCancelReason));
+            connection.close();
+            return;
+        }
 
-            connection.send(ClientBoundAuthenticatePacket.success(new FullUserProfile(userInfo.getId(), userInfo.getName(), false), roomInfo));
+        PlayerManager.ResolveResult<LocalPlayer> result = PlayerManager.resolvePlayer(
+                profile.getId(),
+                LocalPlayer.class,
+                () -> new LocalPlayer(profile, new ConnectionReference(connection)),
+                (player) -> LocalSessionManager.resume(player, connection),
+                (remover, player) -> connection.onClose((ctx) -> {
+                    if (player.getConnection() != connection) {
+                        return;
+                    }
+
+                    try {
+                        LocalSessionManager.suspend(player, remover);
+                    } catch (SuspendFailedException e) {
+                        remover.run();
+                    }
+                })
+        );
+
+        LocalPlayer player = result.player();
+        RoomInfo roomInfo = player.getRoomInfo().orElse(null);
+
+        if (result.type() == PlayerManager.ResolveResult.Type.Create) {
+            connection.setPacketHandler(PlayHandler.create(result.player()));
+        }
+
+        connection.send(ClientBoundAuthenticatePacket.success(new FullUserProfile(profile.getId(), profile.getName(), false), roomInfo));
 
-            Server.getLogger().info("{} has logged in as [{}] {}", connection.getRemoteAddressAsString(), userInfo.getId(), userInfo.getName());
+        Server.getLogger().info("{} has logged in as [{}] {}", connection.getRemoteAddressAsString(), profile.getId(), profile.getName());
 
-            PlayerPostLoginEvent postLoginEvent = new PlayerPostLoginEvent(result);
-            Server.postEvent(postLoginEvent);
-        } catch (GameOperationException e) {
+        PlayerPostLoginEvent postLoginEvent = new PlayerPostLoginEvent(result);
+        Server.postEvent(postLoginEvent);
+    }
+
+    private void fail(Throwable error) {
+        if (error instanceof GameOperationException e) {
             connection.send(ClientBoundAuthenticatePacket.failed(I18nService.INSTANCE.getMessage(e.getMessageKey())));
-            connection.close();
-        } catch (ResumeFailedException e) {
+        } else if (error instanceof ResumeFailedException) {
             connection.send(ClientBoundAuthenticatePacket.failed(I18nService.INSTANCE.getMessage("error.player_already_online")));
-            connection.close();
-        } catch (Exception e) {
-            connection.send(ClientBoundAuthenticatePacket.failed(e.getMessage()));
-            connection.close();
+        } else {
+            connection.send(ClientBoundAuthenticatePacket.failed(error.getMessage()));
         }
+        connection.close();
     }
 
     @Override
@@ -15,6 +15,7 @@ import top.rymc.phira.main.game.room.Room;
 import top.rymc.phira.main.game.room.RoomManager;
 import top.rymc.phira.main.game.i18n.I18nService;
 import top.rymc.phira.main.network.PlayerConnection;
+import top.rymc.phira.main.util.Mailbox;
 import top.rymc.phira.protocol.handler.server.SimpleServerBoundPacketHandler;
 import top.rymc.phira.protocol.packet.ClientBoundPacket;
 import top.rymc.phira.protocol.packet.ServerBoundPacket;
@@ -22,6 +23,8 @@ import top.rymc.phira.protocol.packet.clientbound.*;
 import top.rymc.phira.protocol.packet.serverbound.ServerBoundCreateRoomPacket;
 import top.rymc.phira.protocol.packet.serverbound.ServerBoundJoinRoomPacket;
 
+import java.util.function.Function;
+
 public class PlayHandler extends SimpleServerBoundPacketHandler implements PlayerHolder {
 
     @Getter
@@ -41,6 +44,7 @@ public class PlayHandler extends SimpleServerBoundPacketHandler implements Playe
 
     @Override
     public void handle(ServerBoundCreateRoomPacket packet) {
+        Room room;
         try {
             RoomPreCreateEvent createEvent = new RoomPreCreateEvent(player, packet.getRoomId(), new LocalRoomBuilder().buildSetting());
             Server.postEvent(createEvent);
@@ -50,33 +54,43 @@ public class PlayHandler extends SimpleServerBoundPacketHandler implements Playe
                 return;
             }
 
-            Room room = new LocalRoomBuilder()
+            room = new LocalRoomBuilder()
                     .setting(createEvent.getSetting())
+                    .actor(Server.getInstance().getArgs().isRoomActor())
+                    .streamWindow(Server.getInstance().getArgs().getStreamWindowMillis())
                     .build(packet.getRoomId());
+        } catch (Exception e) {
+            sendFailure(e, ClientBoundCreateRoomPacket::failed);
+            return;
+        }
 
-            room.join(player, false);
-
-            RoomPostCreateEvent createdEvent = new RoomPostCreateEvent(room, player);
-            Server.postEvent(createdEvent);
+        Mailbox.continueAfter(room.joinAsync(player, false), (ignored, error) -> {
+            if (error != null) {
+                sendFailure(error, ClientBoundCreateRoomPacket::failed);
+                return;
+            }
 
-            RoomHandler roomHandler = new RoomHandler(player, room, this);
-            player.getConnection().setPacketHandler(roomHandler);
+            try {
+                RoomPostCreateEvent createdEvent = new RoomPostCreateEvent(room, player);
+                Server.postEvent(createdEvent);
 
-            player.getConnection().send(ClientBoundCreateRoomPacket.success());
+                RoomHandler roomHandler = new RoomHandler(player, room, this);
+                player.getConnection().setPacketHandler(roomHandler);
 
-            room.getView().getProtocolHack().forceSyncInfo(player, false);
+                player.getConnection().send(ClientBoundCreateRoomPacket.success());
 
-        } catch (GameOperationException e) {
-            player.getConnection().send(ClientBoundCreateRoomPacket.failed(I18nService.INSTANCE.getMessage(player, e.getMessageKey())));
-        } catch (Exception e) {
-            player.getConnection().send(ClientBoundCreateRoomPacket.failed(e.getMessage()));
-        }
+                room.getView().getProtocolHack().forceSyncInfo(player, false);
+            } catch (Exception e) {
+                sendFailure(e, ClientBoundCreateRoomPacket::failed);
+            }
+        });
     }
 
     @Override
     public void handle(ServerBoundJoinRoomPacket packet) {
         PlayerConnection connection = player.getConnection();
 
+        Room room;
         try {
             PlayerPreJoinRoomEvent preJoinRoomEvent = new PlayerPreJoinRoomEvent(player, packet.getRoomId(), packet.isMonitor());
             Server.postEvent(preJoinRoomEvent);
@@ -86,7 +100,7 @@ public class PlayHandler extends SimpleServerBoundPacketHandler implements Playe
                 return;
             }
 
-            Room room = RoomManager.findRoom(packet.getRoomId());
+            room = RoomManager.findRoom(packet.getRoomId());
             if (room == null) {
                 throw GameOperationException.roomNotFound();
             }
@@ -98,23 +112,39 @@ public class PlayHandler extends SimpleServerBoundPacketHandler implements Playe
                 connection.send(ClientBoundJoinRoomPacket.failed(postJoinCancelMessage));
                 return;
             }
+        } catch (Exception e) {
+            sendFailure(e, ClientBoundJoinRoomPacket::failed);
+            return;
+        }
+
+        Mailbox.continueAfter(room.joinAsync(player, packet.isMonitor()), (ignored, error) -> {
+            if (error != null) {
+                sendFailure(error, ClientBoundJoinRoomPacket::failed);
+                return;
+            }
 
-            room.join(player, packet.isMonitor());
-            RoomHandler roomHandler = new RoomHandler(player, room, this);
-            connection.setPacketHandler(roomHandler);
+            try {
+                RoomHandler roomHandler = new RoomHandler(player, room, this);
+                connection.setPacketHandler(roomHandler);
 
-            connection.send(room.getView().getProtocolHack().buildJoinSuccessPacket());
+                connection.send(room.getView().getProtocolHack().buildJoinSuccessPacket());
 
-            PlayerJoinRoomSuccessEvent successEvent = new PlayerJoinRoomSuccessEvent(player, room, packet.isMonitor());
-            Server.postEvent(successEvent);
+                PlayerJoinRoomSuccessEvent successEvent = new PlayerJoinRoomSuccessEvent(player, room, packet.isMonitor());
+                Server.postEvent(successEvent);
 
-            room.getView().getProtocolHack().fixClientRoomState(player, true);
-            room.getView().getProtocolHack().forceSyncHost(player, true);
+                room.getView().getProtocolHack().fixClientRoomState(player, true);
+                room.getView().getProtocolHack().forceSyncHost(player, true);
+            } catch (Exception e) {
+                sendFailure(e, ClientBoundJoinRoomPacket::failed);
+            }
+        });
+    }
 
-        } catch (GameOperationException e) {
-            connection.send(ClientBoundJoinRoomPacket.failed(I18nService.INSTANCE.getMessage(player, e.getMessageKey())));
-        } catch (Exception e) {
-            connection.send(ClientBoundJoinRoomPacket.failed(e.getMessage()));
+    private void sendFailure(Throwable error, Function<String, ClientBoundPacket> failedPacket) {
+        if (error instanceof GameOperationException e) {
+            player.getConnection().send(failedPacket.apply(I18nService.INSTANCE.getMessage(player, e.getMessageKey())));
+        } else {
+            player.getConnection().send(failedPacket.apply(error.getMessage()));
         }
     }
 
@@ -7,11 +7,13 @@ import top.rymc.phira.main.game.player.holder.PlayerHolder;
 import top.rymc.phira.main.game.i18n.I18nService;
 import top.rymc.phira.main.game.room.Room;
 import top.rymc.phira.main.game.room.holder.SuspendableRoomHolder;
+import top.rymc.phira.main.util.Mailbox;
 import top.rymc.phira.protocol.handler.server.ServerBoundPacketHandler;
 import top.rymc.phira.protocol.packet.ClientBoundPacket;
 import top.rymc.phira.protocol.packet.clientbound.*;
 import top.rymc.phira.protocol.packet.serverbound.*;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -29,8 +31,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundChatPacket packet) {
-        handleWithException(
-            () -> room.getOperation().chat(player, packet.getMessage()),
+        handleAsync(
+            () -> room.getOperation().chatAsync(player, packet.getMessage()),
             ClientBoundChatPacket::success,
             ClientBoundChatPacket::failed
         );
@@ -38,20 +40,20 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundLeaveRoomPacket packet) {
-        handleWithException(
+        handleAsync(
+            () -> room.leaveAsync(player),
             () -> {
-                room.leave(player);
                 player.getConnection().setPacketHandler(fallback);
+                return ClientBoundLeaveRoomPacket.success();
             },
-            ClientBoundLeaveRoomPacket::success,
             ClientBoundLeaveRoomPacket::failed
         );
     }
 
     @Override
     public void handle(ServerBoundLockRoomPacket packet) {
-        handleWithException(
-            () -> room.getOperation().lockRoom(player),
+        handleAsync(
+            () -> room.getOperation().lockRoomAsync(player),
             ClientBoundLockRoomPacket::success,
             ClientBoundLockRoomPacket::failed
         );
@@ -59,8 +61,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundCycleRoomPacket packet) {
-        handleWithException(
-            () -> room.getOperation().cycleRoom(player),
+        handleAsync(
+            () -> room.getOperation().cycleRoomAsync(player),
             ClientBoundCycleRoomPacket::success,
             ClientBoundCycleRoomPacket::failed
         );
@@ -68,8 +70,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundSelectChartPacket packet) {
-        handleWithException(
-            () -> room.getOperation().selectChart(player, packet.getId()),
+        handleAsync(
+            () -> room.getOperation().selectChartAsync(player, packet.getId()),
             ClientBoundSelectChartPacket::success,
             ClientBoundSelectChartPacket::failed
         );
@@ -77,8 +79,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundReadyPacket packet) {
-        handleWithException(
-            () -> room.getOperation().ready(player),
+        handleAsync(
+            () -> room.getOperation().readyAsync(player),
             ClientBoundReadyPacket::success,
             ClientBoundReadyPacket::failed
         );
@@ -86,8 +88,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundCancelReadyPacket packet) {
-        handleWithException(
-            () -> room.getOperation().cancelReady(player),
+        handleAsync(
+            () -> room.getOperation().cancelReadyAsync(player),
             ClientBoundCancelReadyPacket::success,
             ClientBoundCancelReadyPacket::failed
         );
@@ -95,8 +97,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundRequestStartPacket packet) {
-        handleWithException(
-            () -> room.getOperation().requireStart(player),
+        handleAsync(
+            () -> room.getOperation().requireStartAsync(player),
             ClientBoundRequestStartPacket::success,
             ClientBoundRequestStartPacket::failed
         );
@@ -104,8 +106,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundPlayedPacket packet) {
-        handleWithException(
-            () -> room.getOperation().played(player, packet.getId()),
+        handleAsync(
+            () -> room.getOperation().playedAsync(player, packet.getId()),
             ClientBoundPlayedPacket::success,
             ClientBoundPlayedPacket::failed
         );
@@ -113,8 +115,8 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
 
     @Override
     public void handle(ServerBoundAbortPacket packet) {
-        handleWithException(
-            () -> room.getOperation().abort(player),
+        handleAsync(
+            () -> room.getOperation().abortAsync(player),
             ClientBoundAbortPacket::success,
             ClientBoundAbortPacket::failed
         );
@@ -154,17 +156,37 @@ public class RoomHandler extends ServerBoundPacketHandler implements Suspendable
         player.kick();
     }
 
-    private void handleWithException(
-            Runnable action,
+    private void handleAsync(
+            Supplier<CompletableFuture<Void>> action,
             Supplier<ClientBoundPacket> successPacket,
             Function<String, ClientBoundPacket> failedPacket) {
+        CompletableFuture<Void> future;
         try {
-            action.run();
-            player.getConnection().send(successPacket.get());
-        } catch (GameOperationException e) {
-            player.getConnection().send(failedPacket.apply(I18nService.INSTANCE.getMessage(player, e.getMessageKey())));
+            future = action.get();
         } catch (Exception e) {
-            player.getConnection().send(failedPacket.apply(e.getMessage()));
+            sendFailure(e, failedPacket);
+            return;
+        }
+
+        Mailbox.continueAfter(future, (ignored, error) -> {
+            if (error != null) {
+                sendFailure(error, failedPacket);
+                return;
+            }
+
+            try {
+                player.getConnection().send(successPacket.get());
+            } catch (Exception e) {
+                sendFailure(e, failedPacket);
+            }
+        });
+    }
+
+    private void sendFailure(Throwable error, Function<String, ClientBoundPacket> failedPacket) {
+        if (error instanceof GameOperationException e) {
+            player.getConnection().send(failedPacket.apply(I18nService.INSTANCE.getMessage(player, e.getMessageKey())));
+        } else {
+            player.getConnection().send(failedPacket.apply(error.getMessage()));
         }
     }
 }
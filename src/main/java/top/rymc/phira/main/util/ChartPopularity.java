@@ -0,0 +1,96 @@
+package top.rymc.phira.main.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+public final class ChartPopularity {
+
+    private static final double RESCALE_THRESHOLD = 1e9;
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final LongSupplier clock;
+
+    private final Map<Integer, Double> counters = new HashMap<>();
+    private long landmark;
+
+    public ChartPopularity(int capacity, long halfLifeMillis) {
+        this(capacity, halfLifeMillis, System::currentTimeMillis);
+    }
+
+    ChartPopularity(int capacity, long halfLifeMillis, LongSupplier clock) {
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.clock = clock;
+        this.landmark = clock.getAsLong();
+    }
+
+    public synchronized void record(int chartId, double weight) {
+        if (weight <= 0) {
+            return;
+        }
+
+        double scaled = weight * decayFactor(clock.getAsLong());
+        Double current = counters.get(chartId);
+        if (current != null) {
+            counters.put(chartId, current + scaled);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counters.put(chartId, scaled);
+            return;
+        }
+
+        Map.Entry<Integer, Double> min = null;
+        for (Map.Entry<Integer, Double> entry : counters.entrySet()) {
+            if (min == null || entry.getValue() < min.getValue()) {
+                min = entry;
+            }
+        }
+        counters.remove(min.getKey());
+        counters.put(chartId, min.getValue() + scaled);
+    }
+
+    public synchronized double score(int chartId) {
+        Double counter = counters.get(chartId);
+        return counter != null ? counter / decayFactor(clock.getAsLong()) : 0;
+    }
+
+    public synchronized List<Entry> top(int limit) {
+        double factor = decayFactor(clock.getAsLong());
+        List<Entry> entries = new ArrayList<>(counters.size());
+        for (Map.Entry<Integer, Double> entry : counters.entrySet()) {
+            entries.add(new Entry(entry.getKey(), entry.getValue() / factor));
+        }
+        entries.sort(Comparator.comparingDouble(Entry::score).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    public synchronized void clear() {
+        counters.clear();
+        landmark = clock.getAsLong();
+    }
+
+    private double decayFactor(long now) {
+        double factor = Math.pow(2, (now - landmark) / halfLifeMillis);
+        if (factor < RESCALE_THRESHOLD) {
+            return factor;
+        }
+
+        counters.replaceAll((id, counter) -> counter / factor);
+        landmark = now;
+        return 1;
+    }
+
+    public record Entry(int chartId, double score) {
+    }
+}
@@ -0,0 +1,16 @@
+package top.rymc.phira.main.util;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+@Getter
+public class CircuitOpenException extends IOException {
+
+    private final String endpoint;
+
+    public CircuitOpenException(String endpoint) {
+        super("Upstream endpoint '" + endpoint + "' is unavailable");
+        this.endpoint = endpoint;
+    }
+}
@@ -0,0 +1,280 @@
+package top.rymc.phira.main.util;
+
+import com.google.gson.FormattingStyle;
+import com.google.gson.Gson;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public final class DiskCache<V> implements SecondLevelCache<Integer, V>, Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger("DiskCache");
+
+    private static final Gson GSON = GsonUtil.getGson().newBuilder()
+            .setFormattingStyle(FormattingStyle.COMPACT)
+            .create();
+
+    private static final int MAGIC = 0x4A504331;
+    private static final int FILE_HEADER_SIZE = 4;
+    private static final int ENTRY_HEADER_SIZE = 4 + 8 + 4;
+    private static final int MAX_ENTRY_SIZE = 1 << 20;
+    private static final int MIN_COMPACT_ENTRIES = 1024;
+
+    private final Path path;
+    private final Class<V> type;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final Map<Integer, Entry> index = new HashMap<>();
+    private FileChannel channel;
+    private long writePosition;
+    private int deadEntries;
+
+    private DiskCache(Path path, Class<V> type, long ttlMillis, LongSupplier clock) {
+        this.path = path;
+        this.type = type;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    public static <V> DiskCache<V> open(Path path, Class<V> type, long ttl, TimeUnit unit) throws IOException {
+        return open(path, type, unit.toMillis(ttl), System::currentTimeMillis);
+    }
+
+    static <V> DiskCache<V> open(Path path, Class<V> type, long ttlMillis, LongSupplier clock) throws IOException {
+        DiskCache<V> cache = new DiskCache<>(path, type, ttlMillis, clock);
+        synchronized (cache) {
+            cache.load();
+        }
+        return cache;
+    }
+
+    @Override
+    public V get(Integer key) {
+        while (true) {
+            Entry entry;
+            FileChannel channel;
+            synchronized (this) {
+                entry = index.get(key);
+                if (entry == null || this.channel == null) {
+                    return null;
+                }
+                if (entry.expiresAt() <= clock.getAsLong()) {
+                    index.remove(key);
+                    deadEntries++;
+                    return null;
+                }
+                channel = this.channel;
+            }
+
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+                readFully(channel, buffer, entry.offset() + ENTRY_HEADER_SIZE);
+                return GSON.fromJson(new String(buffer.array(), StandardCharsets.UTF_8), type);
+            } catch (ClosedChannelException e) {
+                synchronized (this) {
+                    if (this.channel == null || this.channel == channel) {
+                        return null;
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Failed to read entry {} from {}", key, path, e);
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void put(Integer key, V value) {
+        if (channel == null) {
+            return;
+        }
+
+        byte[] payload = GSON.toJson(value).getBytes(StandardCharsets.UTF_8);
+        if (payload.length > MAX_ENTRY_SIZE) {
+            return;
+        }
+
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        try {
+            long offset = writePosition;
+            writeEntry(channel, offset, key, expiresAt, payload);
+            writePosition += ENTRY_HEADER_SIZE + payload.length;
+
+            if (index.put(key, new Entry(offset, payload.length, expiresAt)) != null) {
+                deadEntries++;
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to append entry {} to {}", key, path, e);
+            return;
+        }
+
+        if (deadEntries >= MIN_COMPACT_ENTRIES && deadEntries > index.size()) {
+            try {
+                compact();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to compact {}", path, e);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long getFileSize() {
+        return writePosition;
+    }
+
+    public synchronized void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Map<Integer, Entry> compacted = new HashMap<>();
+        long now = clock.getAsLong();
+        long position = FILE_HEADER_SIZE;
+
+        try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(target);
+            for (Map.Entry<Integer, Entry> e : index.entrySet()) {
+                Entry entry = e.getValue();
+                if (entry.expiresAt() <= now) {
+                    continue;
+                }
+
+                ByteBuffer payload = ByteBuffer.allocate(entry.length());
+                readFully(channel, payload, entry.offset() + ENTRY_HEADER_SIZE);
+                writeEntry(target, position, e.getKey(), entry.expiresAt(), payload.array());
+                compacted.put(e.getKey(), new Entry(position, entry.length(), entry.expiresAt()));
+                position += ENTRY_HEADER_SIZE + entry.length();
+            }
+            target.force(true);
+        }
+
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        index.clear();
+        index.putAll(compacted);
+        writePosition = position;
+        deadEntries = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        channel.force(false);
+        channel.close();
+        channel = null;
+    }
+
+    private void load() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < FILE_HEADER_SIZE || !hasValidHeader()) {
+            if (size > 0) {
+                LOGGER.warn("Discarding unreadable cache file {}", path);
+            }
+            channel.truncate(0);
+            writeHeader(channel);
+            writePosition = FILE_HEADER_SIZE;
+            return;
+        }
+
+        long now = clock.getAsLong();
+        long position = FILE_HEADER_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_SIZE);
+        while (position + ENTRY_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+
+            int key = header.getInt();
+            long expiresAt = header.getLong();
+            int length = header.getInt();
+            if (length < 0 || length > MAX_ENTRY_SIZE || position + ENTRY_HEADER_SIZE + length > size) {
+                break;
+            }
+
+            Entry previous = index.put(key, new Entry(position, length, expiresAt));
+            if (previous != null) {
+                deadEntries++;
+            }
+            position += ENTRY_HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            LOGGER.warn("Truncating {} bytes of incomplete data at the end of {}", size - position, path);
+            channel.truncate(position);
+        }
+        writePosition = position;
+
+        int indexed = index.size();
+        index.values().removeIf(entry -> entry.expiresAt() <= now);
+        deadEntries += indexed - index.size();
+
+        if (deadEntries > index.size()) {
+            compact();
+        }
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readFully(channel, magic, 0);
+        return magic.getInt(0) == MAGIC;
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).flip();
+        writeFully(channel, header, 0);
+    }
+
+    private static void writeEntry(FileChannel channel, long position, int key, long expiresAt, byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_HEADER_SIZE + payload.length)
+                .putInt(key)
+                .putLong(expiresAt)
+                .putInt(payload.length)
+                .put(payload)
+                .flip();
+        writeFully(channel, buffer, position);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of cache file");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private record Entry(long offset, int length, long expiresAt) {
+    }
+}
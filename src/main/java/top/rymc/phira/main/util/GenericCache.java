@@ -1,55 +1,275 @@
 package top.rymc.phira.main.util;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import top.rymc.phira.function.throwable.ThrowableFunction;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 public class GenericCache<K, V> {
-    private final Cache<K, V> cache;
+    private final AsyncCache<K, V> cache;
+    private final Function<K, CompletableFuture<V>> loader;
+    private final LongAdder coalescedWaiters = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final long maximumSize;
+    private volatile Cache<K, V> stale;
+    private volatile SecondLevelCache<K, V> secondLevel;
 
-    private GenericCache(long expireAfterWrite, TimeUnit unit, long maximumSize) {
-        this.cache = Caffeine.newBuilder()
+    private GenericCache(long expireAfterWrite, long refreshAfterWrite, TimeUnit unit, long maximumSize, Function<K, CompletableFuture<V>> loader) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
                 .expireAfterWrite(expireAfterWrite, unit)
                 .maximumSize(maximumSize)
-                .recordStats()
-                .build();
+                .recordStats();
+
+        this.loader = loader;
+        this.maximumSize = maximumSize;
+        if (loader != null && refreshAfterWrite > 0) {
+            this.cache = builder
+                    .refreshAfterWrite(refreshAfterWrite, unit)
+                    .buildAsync((key, executor) -> loader.apply(key).thenApply(loaded -> {
+                        remember(key, loaded);
+                        return loaded;
+                    }));
+        } else {
+            this.cache = builder.buildAsync();
+        }
     }
 
     public static <K, V> GenericCache<K, V> create(long expireAfterWrite, TimeUnit unit, long maximumSize) {
-        return new GenericCache<>(expireAfterWrite, unit, maximumSize);
+        return new GenericCache<>(expireAfterWrite, 0, unit, maximumSize, null);
+    }
+
+    public static <K, V> GenericCache<K, V> create(long expireAfterWrite, long refreshAfterWrite, TimeUnit unit, long maximumSize, Function<K, CompletableFuture<V>> loader) {
+        return new GenericCache<>(expireAfterWrite, refreshAfterWrite, unit, maximumSize, loader);
+    }
+
+    public GenericCache<K, V> staleWhileRevalidate(long maxAge, TimeUnit unit) {
+        this.stale = Caffeine.newBuilder()
+                .expireAfterWrite(maxAge, unit)
+                .maximumSize(maximumSize)
+                .build();
+        return this;
+    }
+
+    public GenericCache<K, V> secondLevel(SecondLevelCache<K, V> secondLevel) {
+        this.secondLevel = secondLevel;
+        return this;
     }
 
     public <E extends Exception> V get(K key, ThrowableFunction<K, V, E> loader) throws E {
-        V value = cache.getIfPresent(key);
-        if (value != null) {
-            return value;
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future != created) {
+            return join(future);
+        }
+
+        V stored = loadSecondLevel(key);
+        if (stored != null) {
+            created.complete(stored);
+            return stored;
         }
-        V loaded = loader.apply(key);
-        if (loaded != null) {
-            cache.put(key, loaded);
+
+        V loaded;
+        try {
+            loaded = loader.apply(key);
+        } catch (Throwable t) {
+            V fallback = serveStale(key, created);
+            if (fallback == null) {
+                created.completeExceptionally(t);
+                throw t;
+            }
+            return fallback;
         }
+        remember(key, loaded);
+        created.complete(loaded);
         return loaded;
     }
 
+    public CompletableFuture<V> getAsync(K key) {
+        if (loader == null) {
+            throw new IllegalStateException("Cache has no default loader");
+        }
+        return getAsync(key, loader);
+    }
+
+    public CompletableFuture<V> getAsync(K key, Function<K, CompletableFuture<V>> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future != created) {
+            if (!future.isDone()) {
+                coalescedWaiters.increment();
+            }
+            return future;
+        }
+
+        if (secondLevel == null) {
+            load(key, loader, created);
+            return created;
+        }
+
+        CompletableFuture.supplyAsync(() -> loadSecondLevel(key), WorkerPool.getExecutor())
+                .whenComplete((stored, error) -> {
+                    if (stored != null) {
+                        created.complete(stored);
+                    } else {
+                        load(key, loader, created);
+                    }
+                });
+        return created;
+    }
+
+    private void load(K key, Function<K, CompletableFuture<V>> loader, CompletableFuture<V> created) {
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.apply(key);
+        } catch (Throwable t) {
+            loading = CompletableFuture.failedFuture(t);
+        }
+
+        loading.whenComplete((loaded, error) -> {
+            if (error == null) {
+                remember(key, loaded);
+                created.complete(loaded);
+            } else if (serveStale(key, created) == null) {
+                created.completeExceptionally(error);
+            }
+        });
+    }
+
+    private V loadSecondLevel(K key) {
+        SecondLevelCache<K, V> secondLevel = this.secondLevel;
+        V stored = secondLevel != null ? secondLevel.get(key) : null;
+        if (stored != null) {
+            remember(key, stored, false);
+        }
+        return stored;
+    }
+
+    private void remember(K key, V value) {
+        remember(key, value, true);
+    }
+
+    private void remember(K key, V value, boolean persist) {
+        if (value == null) {
+            return;
+        }
+
+        Cache<K, V> stale = this.stale;
+        if (stale != null) {
+            stale.put(key, value);
+        }
+
+        SecondLevelCache<K, V> secondLevel = this.secondLevel;
+        if (persist && secondLevel != null) {
+            secondLevel.put(key, value);
+        }
+    }
+
+    private V serveStale(K key, CompletableFuture<V> pending) {
+        Cache<K, V> stale = this.stale;
+        V fallback = stale != null ? stale.getIfPresent(key) : null;
+        if (fallback == null) {
+            return null;
+        }
+
+        staleServed.increment();
+        cache.asMap().remove(key, pending);
+        pending.complete(fallback);
+        return fallback;
+    }
+
+    private V join(CompletableFuture<V> future) {
+        if (!future.isDone()) {
+            coalescedWaiters.increment();
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            throw sneakyThrow(Mailbox.unwrap(e));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> RuntimeException sneakyThrow(Throwable t) throws T {
+        throw (T) t;
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+        remember(key, value);
+    }
+
     public void invalidate(K key) {
-        cache.invalidate(key);
+        cache.synchronous().invalidate(key);
+        Cache<K, V> stale = this.stale;
+        if (stale != null) {
+            stale.invalidate(key);
+        }
     }
 
     public void invalidateAll(Iterable<K> keys) {
-        cache.invalidateAll(keys);
+        cache.synchronous().invalidateAll(keys);
+        Cache<K, V> stale = this.stale;
+        if (stale != null) {
+            stale.invalidateAll(keys);
+        }
     }
 
     public void clear() {
-        cache.invalidateAll();
+        cache.synchronous().invalidateAll();
+        Cache<K, V> stale = this.stale;
+        if (stale != null) {
+            stale.invalidateAll();
+        }
     }
 
     public long size() {
-        return cache.estimatedSize();
+        return cache.synchronous().estimatedSize();
+    }
+
+    public long getCoalescedWaiters() {
+        return coalescedWaiters.sum();
+    }
+
+    public long getStaleServed() {
+        return staleServed.sum();
+    }
+
+    public Statistics getStatistics() {
+        CacheStats stats = cache.synchronous().stats();
+        return new Statistics(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.loadSuccessCount(),
+                stats.loadFailureCount(),
+                TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()),
+                stats.averageLoadPenalty() / 1_000_000.0,
+                getCoalescedWaiters(),
+                getStaleServed()
+        );
     }
 
     public String stats() {
-        return cache.stats().toString();
+        return getStatistics().toString();
+    }
+
+    public record Statistics(
+            long hits,
+            long misses,
+            long loadSuccesses,
+            long loadFailures,
+            long totalLoadMillis,
+            double averageLoadMillis,
+            long coalescedWaiters,
+            long staleServed
+    ) {
     }
 }
@@ -0,0 +1,131 @@
+package top.rymc.phira.main.util;
+
+import com.google.gson.reflect.TypeToken;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class HotCharts {
+
+    private static final Logger LOGGER = LogManager.getLogger("HotCharts");
+
+    public static final int TRACKED_CHARTS = 256;
+    public static final int WARM_CHARTS = 64;
+    public static final long HALF_LIFE_HOURS = 6;
+    public static final long WARM_INTERVAL_MINUTES = 5;
+
+    private static final String FILE_NAME = "hot-charts.json";
+
+    @Getter
+    private static final ChartPopularity popularity = new ChartPopularity(TRACKED_CHARTS, TimeUnit.HOURS.toMillis(HALF_LIFE_HOURS));
+
+    private static ScheduledExecutorService scheduler;
+    private static Path file;
+
+    private HotCharts() {
+    }
+
+    public static void recordSelected(int chartId) {
+        popularity.record(chartId, 1);
+    }
+
+    public static void recordPlayed(int chartId, int players) {
+        popularity.record(chartId, players);
+    }
+
+    public static synchronized void start(Path directory) {
+        if (scheduler != null) {
+            return;
+        }
+
+        if (directory != null) {
+            file = directory.resolve(FILE_NAME);
+            load(file);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("Hot-Charts", true));
+        ExecutorServiceManager.registerService(scheduler);
+        scheduler.scheduleWithFixedDelay(HotCharts::warmAndSave, 0, WARM_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+
+        scheduler.shutdownNow();
+        scheduler = null;
+        save();
+        file = null;
+    }
+
+    public static int warm() {
+        List<ChartPopularity.Entry> hot = popularity.top(WARM_CHARTS);
+        for (ChartPopularity.Entry entry : hot) {
+            PhiraFetcher.getChartInfoAsync(entry.chartId()).exceptionally(e -> {
+                LOGGER.debug("Failed to warm chart {}", entry.chartId(), e);
+                return null;
+            });
+        }
+        return hot.size();
+    }
+
+    private static void warmAndSave() {
+        try {
+            int warmed = warm();
+            LOGGER.debug("Warmed {} hot chart(s)", warmed);
+            save();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to warm hot charts", e);
+        }
+    }
+
+    static void load(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<ChartPopularity.Entry> entries = GsonUtil.getGson().fromJson(reader, new TypeToken<List<ChartPopularity.Entry>>() {}.getType());
+            if (entries != null) {
+                entries.forEach(entry -> popularity.record(entry.chartId(), entry.score()));
+                LOGGER.info("Loaded {} hot chart(s) from {}", entries.size(), path);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to load hot charts from {}", path, e);
+        }
+    }
+
+    static void save(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            GsonUtil.getGson().toJson(popularity.top(WARM_CHARTS), writer);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static synchronized void save() {
+        if (file == null) {
+            return;
+        }
+
+        try {
+            save(file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to save hot charts to {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package top.rymc.phira.main.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import lombok.Getter;
+import lombok.Setter;
+import top.rymc.phira.main.data.ChartInfo;
+import top.rymc.phira.main.data.ChartInfoAdapter;
+import top.rymc.phira.main.data.GameRecord;
+import top.rymc.phira.main.data.GameRecordAdapter;
+import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.UserInfoAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class HttpPhiraUpstream implements PhiraUpstream {
+
+    public static final String DEFAULT_HOST = "https://phira.5wyxi.com/";
+
+    private static final String USER_AGENT = "JPhira/1";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 150;
+
+    private static final HttpClient CLIENT = createHttpClient();
+
+    private final UpstreamEndpoint meEndpoint = new UpstreamEndpoint("me");
+    private final UpstreamEndpoint userEndpoint = new UpstreamEndpoint("user");
+    private final UpstreamEndpoint chartEndpoint = new UpstreamEndpoint("chart");
+    private final UpstreamEndpoint recordEndpoint = new UpstreamEndpoint("record");
+
+    @Getter
+    private final List<UpstreamEndpoint> endpoints = List.of(meEndpoint, userEndpoint, chartEndpoint, recordEndpoint);
+
+    @Setter
+    private volatile String host;
+
+    @Setter
+    private volatile boolean hedging = true;
+
+    public HttpPhiraUpstream(String host) {
+        this.host = host;
+    }
+
+    private static HttpClient createHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<UserInfo> fetchUserByToken(String token) {
+        HttpRequest request = createAuthRequest("me", token);
+        return executeWithRetry(meEndpoint, request).thenApply(body -> decode(body, UserInfoAdapter.INSTANCE));
+    }
+
+    @Override
+    public CompletableFuture<UserInfo> fetchUserById(int id) {
+        HttpRequest request = createRequest("user/" + id);
+        return executeWithRetry(userEndpoint, request).thenApply(body -> decode(body, UserInfoAdapter.INSTANCE));
+    }
+
+    @Override
+    public CompletableFuture<ChartInfo> fetchChart(int id) {
+        HttpRequest request = createRequest("chart/" + id);
+        return executeWithRetry(chartEndpoint, request).thenApply(body -> decode(body, ChartInfoAdapter.INSTANCE));
+    }
+
+    @Override
+    public CompletableFuture<GameRecord> fetchRecord(int id) {
+        HttpRequest request = createRequest("record/" + id);
+        return executeWithRetry(recordEndpoint, request, 1).thenApply(body -> decode(body, GameRecordAdapter.INSTANCE));
+    }
+
+    private static <T> T decode(byte[] body, TypeAdapter<T> adapter) {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            return adapter.read(reader);
+        } catch (IOException | RuntimeException e) {
+            throw new CompletionException(new IOException("Malformed response from upstream", e));
+        }
+    }
+
+    private HttpRequest createRequest(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(host + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest createAuthRequest(String path, String token) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(host + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private CompletableFuture<byte[]> executeWithRetry(UpstreamEndpoint endpoint, HttpRequest request) {
+        return executeWithRetry(endpoint, request, MAX_ATTEMPTS);
+    }
+
+    private CompletableFuture<byte[]> executeWithRetry(UpstreamEndpoint endpoint, HttpRequest request, int maxAttempts) {
+        return executeWithRetry(endpoint, request, maxAttempts, 0);
+    }
+
+    private CompletableFuture<byte[]> executeWithRetry(UpstreamEndpoint endpoint, HttpRequest request, int maxAttempts, int attempt) {
+        return executeHedged(endpoint, request).handle((body, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(body);
+            }
+
+            IOException exception = toIOException(error);
+            if (!isRetryable(exception)) {
+                return CompletableFuture.<byte[]>failedFuture(exception);
+            }
+            if (attempt >= maxAttempts - 1) {
+                return CompletableFuture.<byte[]>failedFuture(new TransientUpstreamException(exception));
+            }
+
+            Executor delayed = CompletableFuture.delayedExecutor(RETRY_DELAY_MS << attempt, TimeUnit.MILLISECONDS);
+            return CompletableFuture.runAsync(() -> {}, delayed)
+                    .thenCompose(ignored -> executeWithRetry(endpoint, request, maxAttempts, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    private static boolean isRetryable(IOException exception) {
+        if (exception instanceof CircuitOpenException) {
+            return false;
+        }
+        return !(exception instanceof UpstreamResponseException response) || response.isServerError();
+    }
+
+    private CompletableFuture<byte[]> executeHedged(UpstreamEndpoint endpoint, HttpRequest request) {
+        Exchange primary = executeOnce(endpoint, request);
+        long hedgeDelay = hedging ? endpoint.getHedgeDelayMillis() : -1;
+        if (hedgeDelay <= 0) {
+            return primary.body();
+        }
+
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        List<Exchange> exchanges = new CopyOnWriteArrayList<>();
+        BiConsumer<byte[], Throwable> onAttempt = (body, error) -> {
+            if (error == null) {
+                if (result.complete(body)) {
+                    exchanges.forEach(Exchange::cancel);
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+
+        exchanges.add(primary);
+        primary.body().whenComplete(onAttempt);
+
+        Executor delayed = CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.MILLISECONDS);
+        delayed.execute(() -> {
+            if (result.isDone() || endpoint.getState() != UpstreamEndpoint.State.CLOSED) {
+                return;
+            }
+
+            outstanding.incrementAndGet();
+            endpoint.onHedged();
+            Exchange hedge = executeOnce(endpoint, request);
+            exchanges.add(hedge);
+            if (result.isDone()) {
+                hedge.cancel();
+            }
+            hedge.body().whenComplete(onAttempt);
+        });
+        return result;
+    }
+
+    private Exchange executeOnce(UpstreamEndpoint endpoint, HttpRequest request) {
+        if (!endpoint.tryAcquire()) {
+            CompletableFuture<HttpResponse<byte[]>> rejected = CompletableFuture.failedFuture(new CircuitOpenException(endpoint.getName()));
+            return new Exchange(rejected, rejected.thenApply(HttpResponse::body));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> response = CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<byte[]> body = response
+                .whenComplete((completed, error) -> {
+                    if (error != null) {
+                        if (!(Mailbox.unwrap(error) instanceof CancellationException)) {
+                            endpoint.recordFailure();
+                        }
+                    } else if (completed.statusCode() >= 500) {
+                        endpoint.recordFailure();
+                    } else {
+                        endpoint.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                })
+                .thenApply(HttpPhiraUpstream::validateResponse);
+        return new Exchange(response, body);
+    }
+
+    private record Exchange(CompletableFuture<HttpResponse<byte[]>> response, CompletableFuture<byte[]> body) {
+
+        void cancel() {
+            response.cancel(true);
+        }
+    }
+
+    private static byte[] validateResponse(HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+
+        if (status >= 200 && status < 300) {
+            return response.body();
+        }
+
+        throw new CompletionException(new UpstreamResponseException(status, new String(response.body(), StandardCharsets.UTF_8)));
+    }
+
+    private static IOException toIOException(Throwable error) {
+        Throwable cause = Mailbox.unwrap(error);
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        return new IOException(cause);
+    }
+}
@@ -0,0 +1,179 @@
+package top.rymc.phira.main.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+public final class Mailbox implements Executor {
+
+    private static final Logger LOGGER = LogManager.getLogger("Mailbox");
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int DRAIN_BATCH = 64;
+
+    private static final ThreadLocal<Mailbox> CURRENT = new ThreadLocal<>();
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final Executor executor;
+    private final int capacity;
+
+    private volatile boolean closed;
+    private volatile boolean suspended;
+    private volatile Runnable resumption;
+
+    public Mailbox(Executor executor) {
+        this(executor, DEFAULT_CAPACITY);
+    }
+
+    public Mailbox(Executor executor, int capacity) {
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    public static Mailbox current() {
+        return CURRENT.get();
+    }
+
+    public boolean isCurrent() {
+        return CURRENT.get() == this;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException("Mailbox is closed");
+        }
+
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            throw new RejectedExecutionException("Mailbox is full (" + capacity + " pending tasks)");
+        }
+
+        queue.offer(task);
+        schedule();
+    }
+
+    public static <T> void continueAfter(CompletionStage<T> stage, BiConsumer<? super T, ? super Throwable> continuation) {
+        Mailbox mailbox = current();
+        if (mailbox == null) {
+            T value = null;
+            Throwable error = null;
+            try {
+                value = stage.toCompletableFuture().join();
+            } catch (CompletionException | CancellationException e) {
+                error = unwrap(e);
+            }
+            continuation.accept(value, error);
+            return;
+        }
+
+        mailbox.suspendUntil(stage, continuation);
+    }
+
+    private <T> void suspendUntil(CompletionStage<T> stage, BiConsumer<? super T, ? super Throwable> continuation) {
+        if (suspended || resumption != null) {
+            throw new IllegalStateException("Mailbox is already waiting for a continuation");
+        }
+
+        suspended = true;
+        stage.whenComplete((value, error) -> {
+            resumption = () -> continuation.accept(value, unwrap(error));
+            suspended = false;
+            schedule();
+        });
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    public int size() {
+        return pending.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void close() {
+        closed = true;
+        while (queue.poll() != null) {
+            pending.decrementAndGet();
+        }
+    }
+
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            close();
+            throw e;
+        }
+    }
+
+    private void drain() {
+        Mailbox previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                if (suspended) {
+                    break;
+                }
+
+                Runnable task = resumption;
+                if (task != null) {
+                    resumption = null;
+                } else {
+                    task = queue.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    pending.decrementAndGet();
+                }
+
+                if (closed) {
+                    continue;
+                }
+
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LOGGER.error("Uncaught exception in mailbox task", t);
+                }
+            }
+        } finally {
+            CURRENT.set(previous);
+            scheduled.set(false);
+        }
+
+        if (!closed && !suspended && (resumption != null || !queue.isEmpty())) {
+            schedule();
+        }
+    }
+}
@@ -1,162 +1,156 @@
 package top.rymc.phira.main.util;
 
-import com.google.gson.Gson;
 import lombok.Getter;
 import lombok.Setter;
 import top.rymc.phira.function.throwable.ThrowableFunction;
 import top.rymc.phira.function.throwable.ThrowableIntFunction;
+import top.rymc.phira.main.Server;
 import top.rymc.phira.main.data.ChartInfo;
 import top.rymc.phira.main.data.GameRecord;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.data.UserInfo;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 public final class PhiraFetcher {
 
-    private static final String USER_AGENT = "JPhira/1";
-    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
-    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
-    private static final int MAX_RETRIES = 5;
-    private static final long RETRY_DELAY_MS = 150;
-
-    private static final Gson GSON = GsonUtil.getGson();
-
-    private static final HttpClient CLIENT = createHttpClient();
+    private static final HttpPhiraUpstream HTTP_UPSTREAM = new HttpPhiraUpstream(HttpPhiraUpstream.DEFAULT_HOST);
 
+    @Getter
     @Setter
-    private static String host = "https://phira.5wyxi.com/";
+    private static volatile PhiraUpstream upstream = HTTP_UPSTREAM;
+
+    private static final List<DiskCache<?>> diskCaches = new CopyOnWriteArrayList<>();
 
     @Getter
-    private static final GenericCache<String, UserInfo> tokenCache =
-            GenericCache.create(10, TimeUnit.MINUTES, 10000);
+    private static final GenericCache<String, Integer> tokenCache =
+            GenericCache.create(10, 8, TimeUnit.MINUTES, 10000, token -> upstream.fetchUserByToken(token).thenApply(PhiraFetcher::storeProfile));
     @Getter
     private static final GenericCache<Integer, GameRecord> recordCache =
-            GenericCache.create(30, TimeUnit.MINUTES, 50000);
+            GenericCache.create(30, 0, TimeUnit.MINUTES, 50000, id -> upstream.fetchRecord(id));
     @Getter
     private static final GenericCache<Integer, ChartInfo> chartCache =
-            GenericCache.create(30, TimeUnit.MINUTES, 10000);
+            GenericCache.<Integer, ChartInfo>create(30, 25, TimeUnit.MINUTES, 10000, id -> upstream.fetchChart(id))
+                    .staleWhileRevalidate(6, TimeUnit.HOURS);
     @Getter
-    private static final GenericCache<Integer, UserInfo> userCache =
-            GenericCache.create(10, TimeUnit.MINUTES, 5000);
+    private static final GenericCache<Integer, PlayerProfile> profileCache =
+            GenericCache.<Integer, PlayerProfile>create(10, 8, TimeUnit.MINUTES, 20000, id -> upstream.fetchUserById(id).thenApply(PlayerProfile::of))
+                    .staleWhileRevalidate(1, TimeUnit.HOURS);
+
+    public static ThrowableFunction<String, PlayerProfile, IOException> GET_PROFILE =
+            token -> await(getProfileAsync(token));
+
+    public static ThrowableIntFunction<PlayerProfile, IOException> GET_PROFILE_BY_ID =
+            id -> await(getProfileByIdAsync(id));
 
+    @Deprecated(forRemoval = true)
     public static ThrowableFunction<String, UserInfo, IOException> GET_USER_INFO =
-            token -> tokenCache.get(token, PhiraFetcher::fetchUserByToken);
+            token -> GET_PROFILE.apply(token).toUserInfo();
 
+    @Deprecated(forRemoval = true)
     public static ThrowableIntFunction<UserInfo, IOException> GET_USER_INFO_BY_ID =
-            id -> userCache.get(id, PhiraFetcher::fetchUserById);
+            id -> GET_PROFILE_BY_ID.apply(id).toUserInfo();
 
     public static ThrowableIntFunction<ChartInfo, IOException> GET_CHART_INFO =
-            id -> chartCache.get(id, PhiraFetcher::fetchChartById);
+            id -> await(getChartInfoAsync(id));
 
     public static ThrowableIntFunction<GameRecord, IOException> GET_RECORD_INFO =
-            id -> recordCache.get(id, PhiraFetcher::fetchRecordById);
-
-    private static HttpClient createHttpClient() {
-        return HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_2)
-                .connectTimeout(CONNECT_TIMEOUT)
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
-    }
+            id -> await(getRecordInfoAsync(id));
 
-    private static UserInfo fetchUserByToken(String token) throws IOException {
-        HttpRequest request = createAuthRequest("me", token);
-        String response = executeWithRetry(request);
-        return GSON.fromJson(response, UserInfo.class);
+    public static CompletableFuture<PlayerProfile> getProfileAsync(String token) {
+        return tokenCache.getAsync(token).thenCompose(profileCache::getAsync);
     }
 
-    private static UserInfo fetchUserById(int id) throws IOException {
-        HttpRequest request = createRequest("user/" + id);
-        String response = executeWithRetry(request);
-        return GSON.fromJson(response, UserInfo.class);
+    public static CompletableFuture<PlayerProfile> getProfileByIdAsync(int id) {
+        return profileCache.getAsync(id);
     }
 
-    private static ChartInfo fetchChartById(int id) throws IOException {
-        HttpRequest request = createRequest("chart/" + id);
-        String response = executeWithRetry(request);
-        return GSON.fromJson(response, ChartInfo.class);
+    @Deprecated(forRemoval = true)
+    public static CompletableFuture<UserInfo> getUserInfoAsync(String token) {
+        return getProfileAsync(token).thenApply(PlayerProfile::toUserInfo);
     }
 
-    private static GameRecord fetchRecordById(int id) throws IOException {
-        HttpRequest request = createRequest("record/" + id);
-        String response = executeWithRetry(request);
-        return GSON.fromJson(response, GameRecord.class);
+    @Deprecated(forRemoval = true)
+    public static CompletableFuture<UserInfo> getUserInfoByIdAsync(int id) {
+        return getProfileByIdAsync(id).thenApply(PlayerProfile::toUserInfo);
     }
 
-    private static HttpRequest createRequest(String path) {
-        return HttpRequest.newBuilder()
-                .uri(URI.create(host + path))
-                .timeout(REQUEST_TIMEOUT)
-                .header("User-Agent", USER_AGENT)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
+    public static CompletableFuture<ChartInfo> getChartInfoAsync(int id) {
+        return chartCache.getAsync(id);
     }
 
-    private static HttpRequest createAuthRequest(String path, String token) {
-        return HttpRequest.newBuilder()
-                .uri(URI.create(host + path))
-                .timeout(REQUEST_TIMEOUT)
-                .header("User-Agent", USER_AGENT)
-                .header("Accept", "application/json")
-                .header("Authorization", "Bearer " + token)
-                .GET()
-                .build();
+    public static CompletableFuture<GameRecord> getRecordInfoAsync(int id) {
+        return recordCache.getAsync(id);
     }
 
-    private static String executeWithRetry(HttpRequest request) throws IOException {
-        IOException lastError = null;
-
-        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
-            try {
-                return executeOnce(request);
-            } catch (IOException error) {
-                lastError = error;
-                sleepWithBackOff(attempt);
-            }
-        }
-
-        throw lastError;
+    public static void setHost(String host) {
+        HTTP_UPSTREAM.setHost(host);
     }
 
-    private static String executeOnce(HttpRequest request) throws IOException {
-        try {
-            HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-            return validateResponse(response);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Request interrupted", e);
-        }
+    public static void setHedging(boolean hedging) {
+        HTTP_UPSTREAM.setHedging(hedging);
     }
 
-    private static String validateResponse(HttpResponse<String> response) throws IOException {
-        int status = response.statusCode();
+    public static List<UpstreamEndpoint> getEndpoints() {
+        return HTTP_UPSTREAM.getEndpoints();
+    }
 
-        if (status >= 200 && status < 300) {
-            return response.body();
-        }
+    public static void enableDiskCache(Path directory) throws IOException {
+        DiskCache<ChartInfo> charts = DiskCache.open(directory.resolve("charts.cache"), ChartInfo.class, 7, TimeUnit.DAYS);
+        DiskCache<PlayerProfile> profiles = DiskCache.open(directory.resolve("profiles.cache"), PlayerProfile.class, 1, TimeUnit.DAYS);
 
-        throw new IOException(String.format("HTTP %d: %s", status, response.body()));
+        chartCache.secondLevel(charts);
+        profileCache.secondLevel(profiles);
+        diskCaches.add(charts);
+        diskCaches.add(profiles);
     }
 
-    private static void sleepWithBackOff(int attempt) throws IOException {
-        if (attempt >= MAX_RETRIES - 1) {
-            return;
+    public static void closeDiskCache() {
+        chartCache.secondLevel(null);
+        profileCache.secondLevel(null);
+        for (DiskCache<?> diskCache : diskCaches) {
+            try {
+                diskCache.close();
+            } catch (IOException e) {
+                Server.getLogger().warn("Failed to close disk cache", e);
+            }
         }
+        diskCaches.clear();
+    }
 
-        long delay = RETRY_DELAY_MS * (attempt + 1);
+    public static Map<String, GenericCache.Statistics> getCacheStatistics() {
+        Map<String, GenericCache.Statistics> statistics = new LinkedHashMap<>();
+        statistics.put("token", tokenCache.getStatistics());
+        statistics.put("profile", profileCache.getStatistics());
+        statistics.put("chart", chartCache.getStatistics());
+        statistics.put("record", recordCache.getStatistics());
+        return statistics;
+    }
 
+    private static Integer storeProfile(UserInfo info) {
+        PlayerProfile profile = PlayerProfile.of(info);
+        profileCache.put(profile.getId(), profile);
+        return profile.getId();
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
         try {
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Retry interrupted", e);
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = Mailbox.unwrap(e);
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package top.rymc.phira.main.util;
+
+import top.rymc.phira.main.data.ChartInfo;
+import top.rymc.phira.main.data.GameRecord;
+import top.rymc.phira.main.data.UserInfo;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PhiraUpstream {
+
+    CompletableFuture<UserInfo> fetchUserByToken(String token);
+
+    CompletableFuture<UserInfo> fetchUserById(int id);
+
+    CompletableFuture<ChartInfo> fetchChart(int id);
+
+    CompletableFuture<GameRecord> fetchRecord(int id);
+}
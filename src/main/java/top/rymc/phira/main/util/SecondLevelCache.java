@@ -0,0 +1,8 @@
+package top.rymc.phira.main.util;
+
+public interface SecondLevelCache<K, V> {
+
+    V get(K key);
+
+    void put(K key, V value);
+}
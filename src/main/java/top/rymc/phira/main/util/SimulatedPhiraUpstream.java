@@ -0,0 +1,201 @@
+package top.rymc.phira.main.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import top.rymc.phira.main.data.ChartInfo;
+import top.rymc.phira.main.data.ChartInfoAdapter;
+import top.rymc.phira.main.data.GameRecord;
+import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.UserInfoAdapter;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public final class SimulatedPhiraUpstream implements PhiraUpstream {
+
+    public static final String NAME = "simulator";
+    public static final String TOKEN_PREFIX = "sim-";
+
+    private static final double Z_99 = 2.326;
+    private static final int USER_ID_SPACE = 1_000_000;
+    private static final long EPOCH_SECOND = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond();
+    private static final String[] LEVELS = {"EZ", "HD", "IN", "AT"};
+
+    private final long seed;
+    private final double medianLatencyMillis;
+    private final double latencySigma;
+    private final double errorRate;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public SimulatedPhiraUpstream(long seed, long medianLatencyMillis, long p99LatencyMillis, double errorRate) {
+        this.seed = seed;
+        this.medianLatencyMillis = Math.max(0, medianLatencyMillis);
+        this.latencySigma = medianLatencyMillis > 0 && p99LatencyMillis > medianLatencyMillis
+                ? Math.log((double) p99LatencyMillis / medianLatencyMillis) / Z_99
+                : 0;
+        this.errorRate = Math.min(1, Math.max(0, errorRate));
+    }
+
+    public static int userIdForToken(String token) {
+        if (token.startsWith(TOKEN_PREFIX)) {
+            try {
+                return Integer.parseInt(token.substring(TOKEN_PREFIX.length()));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return Math.floorMod(token.hashCode(), USER_ID_SPACE) + 1;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public CompletableFuture<UserInfo> fetchUserByToken(String token) {
+        return respond(() -> user(userIdForToken(token)));
+    }
+
+    @Override
+    public CompletableFuture<UserInfo> fetchUserById(int id) {
+        return respond(() -> user(id));
+    }
+
+    @Override
+    public CompletableFuture<ChartInfo> fetchChart(int id) {
+        return respond(() -> chart(id));
+    }
+
+    @Override
+    public CompletableFuture<GameRecord> fetchRecord(int id) {
+        return respond(() -> record(id));
+    }
+
+    private <T> CompletableFuture<T> respond(Supplier<T> generator) {
+        requests.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean fail = random.nextDouble() < errorRate;
+        long latency = sampleLatency(random);
+
+        Executor executor = latency > 0 ? CompletableFuture.delayedExecutor(latency, TimeUnit.MILLISECONDS) : Runnable::run;
+        return CompletableFuture.supplyAsync(() -> {
+            if (fail) {
+                failures.increment();
+                throw new CompletionException(new TransientUpstreamException("Simulated upstream failure"));
+            }
+            return generator.get();
+        }, executor);
+    }
+
+    private long sampleLatency(ThreadLocalRandom random) {
+        if (medianLatencyMillis <= 0) {
+            return 0;
+        }
+        return Math.round(medianLatencyMillis * Math.exp(latencySigma * random.nextGaussian()));
+    }
+
+    private SplittableRandom random(String kind, int id) {
+        return new SplittableRandom(seed ^ ((long) kind.hashCode() << 32) ^ id);
+    }
+
+    private static String timestamp(long epochSecond) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC).toString();
+    }
+
+    UserInfo user(int id) {
+        SplittableRandom random = random("user", id);
+        long joined = EPOCH_SECOND + random.nextLong(365L * 24 * 3600);
+
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("name", "SimUser" + id);
+        json.addProperty("avatar", "");
+        json.addProperty("language", random.nextBoolean() ? "zh-CN" : "en-US");
+        json.addProperty("exp", random.nextInt(100_000));
+        json.addProperty("rks", Math.round(random.nextDouble(17) * 100) / 100.0);
+        json.addProperty("joined", timestamp(joined));
+        json.addProperty("last_login", timestamp(joined + random.nextLong(30L * 24 * 3600)));
+        json.addProperty("roles", 0);
+        json.addProperty("banned", false);
+        json.addProperty("login_banned", false);
+        json.addProperty("follower_count", random.nextInt(1000));
+        json.addProperty("following_count", random.nextInt(1000));
+        return UserInfoAdapter.INSTANCE.fromJsonTree(json);
+    }
+
+    ChartInfo chart(int id) {
+        SplittableRandom random = random("chart", id);
+        long created = EPOCH_SECOND + random.nextLong(365L * 24 * 3600);
+        double difficulty = Math.round((1 + random.nextDouble(15)) * 10) / 10.0;
+
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("name", "Simulated Chart " + id);
+        json.addProperty("level", LEVELS[random.nextInt(LEVELS.length)] + " Lv." + (int) difficulty);
+        json.addProperty("difficulty", difficulty);
+        json.addProperty("charter", "SimCharter" + random.nextInt(100));
+        json.addProperty("composer", "SimComposer" + random.nextInt(100));
+        json.addProperty("illustrator", "SimIllustrator" + random.nextInt(100));
+        json.addProperty("ranked", random.nextBoolean());
+        json.addProperty("reviewed", true);
+        json.addProperty("stable", true);
+        json.addProperty("stable_request", false);
+        json.addProperty("illustration", "");
+        json.addProperty("preview", "");
+        json.addProperty("file", "");
+        json.addProperty("uploader", random.nextInt(USER_ID_SPACE) + 1);
+        json.add("tags", new JsonArray());
+        json.addProperty("rating", Math.round(random.nextDouble(5) * 100) / 100.0);
+        json.addProperty("rating_count", random.nextInt(10_000));
+        json.addProperty("created", timestamp(created));
+        json.addProperty("updated", timestamp(created));
+        json.addProperty("chart_updated", timestamp(created));
+        return ChartInfoAdapter.INSTANCE.fromJsonTree(json);
+    }
+
+    GameRecord record(int id) {
+        SplittableRandom random = random("record", id);
+        int notes = 300 + random.nextInt(1700);
+        int miss = random.nextInt(Math.max(1, notes / 50));
+        int bad = random.nextInt(Math.max(1, notes / 100));
+        int good = random.nextInt(Math.max(1, notes / 10));
+        int perfect = notes - miss - bad - good;
+        float accuracy = (perfect + good * 0.65f) / notes;
+        int score = Math.round(accuracy * 900_000 + (float) (notes - miss - bad) / notes * 100_000);
+
+        return new GameRecord(
+                id,
+                random.nextInt(USER_ID_SPACE) + 1,
+                random.nextInt(100_000) + 1,
+                score,
+                accuracy,
+                perfect,
+                good,
+                bad,
+                miss,
+                1.0f,
+                notes - miss - bad,
+                random.nextBoolean(),
+                random.nextBoolean(),
+                0,
+                miss == 0 && bad == 0,
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(EPOCH_SECOND + id), ZoneOffset.UTC),
+                (float) random.nextDouble(),
+                score * 0.4f
+        );
+    }
+}
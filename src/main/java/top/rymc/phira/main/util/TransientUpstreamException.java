@@ -0,0 +1,14 @@
+package top.rymc.phira.main.util;
+
+import java.io.IOException;
+
+public class TransientUpstreamException extends IOException {
+
+    public TransientUpstreamException(String message) {
+        super(message);
+    }
+
+    public TransientUpstreamException(Throwable cause) {
+        super(cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,131 @@
+package top.rymc.phira.main.util;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public final class UpstreamEndpoint {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MILLIS = 10_000;
+
+    private static final int LATENCY_WINDOW = 128;
+    private static final int MIN_HEDGE_SAMPLES = 16;
+    private static final long MIN_HEDGE_DELAY_MILLIS = 20;
+    private static final double HEDGE_PERCENTILE = 0.95;
+
+    @Getter
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyIndex;
+    private int latencyCount;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+
+    public UpstreamEndpoint(String name) {
+        this(name, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS, System::currentTimeMillis);
+    }
+
+    UpstreamEndpoint(String name, int failureThreshold, long openMillis, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openMillis) {
+                rejected.increment();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probing) {
+                rejected.increment();
+                return false;
+            }
+            probing = true;
+        }
+
+        return true;
+    }
+
+    public synchronized void recordSuccess(long latencyMillis) {
+        latencies[latencyIndex] = latencyMillis;
+        latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+
+        consecutiveFailures = 0;
+        probing = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        probing = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized long getHedgeDelayMillis() {
+        if (state != State.CLOSED || latencyCount < MIN_HEDGE_SAMPLES) {
+            return -1;
+        }
+
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(HEDGE_PERCENTILE * latencyCount) - 1;
+        return Math.max(MIN_HEDGE_DELAY_MILLIS, sorted[index]);
+    }
+
+    public void onHedged() {
+        hedged.increment();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getHedged() {
+        return hedged.sum();
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(latencies, 0);
+        latencyIndex = 0;
+        latencyCount = 0;
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probing = false;
+    }
+}
@@ -0,0 +1,20 @@
+package top.rymc.phira.main.util;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+@Getter
+public class UpstreamResponseException extends IOException {
+
+    private final int status;
+
+    public UpstreamResponseException(int status, String body) {
+        super(String.format("HTTP %d: %s", status, body));
+        this.status = status;
+    }
+
+    public boolean isServerError() {
+        return status >= 500;
+    }
+}
@@ -0,0 +1,53 @@
+package top.rymc.phira.main.util;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class WorkerPool {
+
+    private WorkerPool() {
+    }
+
+    private static volatile int configuredThreads = 0;
+
+    public static void configure(int threads) {
+        configuredThreads = threads;
+    }
+
+    private static class Holder {
+        private static final ExecutorService EXECUTOR = create(configuredThreads, "Packet-Worker");
+    }
+
+    private static class RoomHolder {
+        private static final ExecutorService EXECUTOR = create(configuredThreads, "Room-Worker");
+    }
+
+    public static ExecutorService getExecutor() {
+        return Holder.EXECUTOR;
+    }
+
+    public static ExecutorService getRoomExecutor() {
+        return RoomHolder.EXECUTOR;
+    }
+
+    public static Mailbox newMailbox() {
+        return new Mailbox(getExecutor());
+    }
+
+    public static Mailbox newRoomMailbox() {
+        return new Mailbox(getRoomExecutor());
+    }
+
+    private static ExecutorService create(int threads, String poolName) {
+        if (threads <= 0 && ThreadFactoryCompat.VIRTUAL_THREAD_AVAILABLE) {
+            return ThreadFactoryCompat.BATCH_EXECUTOR_CREATOR.get();
+        }
+
+        int size = threads > 0 ? threads : Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        return ExecutorServiceManager.registerService(
+                Executors.newFixedThreadPool(size, new DefaultThreadFactory(poolName, true))
+        );
+    }
+}
@@ -98,4 +98,46 @@ class ServerArgsTest {
         assertThat(args.isProxyProtocol()).isTrue();
         assertThat(args.getDefaultLanguage()).isEqualTo("en-GB");
     }
+
+    @Test
+    @DisplayName("should use auto transport with one acceptor per cpu by default")
+    void shouldUseAutoTransportWithOneAcceptorPerCpuByDefault() {
+        ServerArgs args = new ServerArgs(new String[]{});
+
+        assertThat(args.getTransport()).isEqualTo("auto");
+        assertThat(args.getAcceptors()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("should parse custom transport and acceptors from arguments")
+    void shouldParseCustomTransportAndAcceptorsFromArguments() {
+        ServerArgs args = new ServerArgs(new String[]{"--transport", "epoll", "--acceptors", "4"});
+
+        assertThat(args.getTransport()).isEqualTo("epoll");
+        assertThat(args.getAcceptors()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("should parse connection limits and handshake timeout from arguments")
+    void shouldParseConnectionLimitsAndHandshakeTimeoutFromArguments() {
+        ServerArgs args = new ServerArgs(new String[]{
+                "--max-connections", "1000",
+                "--max-connections-per-ip", "4",
+                "--handshake-timeout", "3000"
+        });
+
+        assertThat(args.getMaxConnections()).isEqualTo(1000);
+        assertThat(args.getMaxConnectionsPerIp()).isEqualTo(4);
+        assertThat(args.getHandshakeTimeoutMillis()).isEqualTo(3000);
+    }
+
+    @Test
+    @DisplayName("should enable boolean flags when given without a value")
+    void shouldEnableBooleanFlagsWhenGivenWithoutValue() {
+        ServerArgs args = new ServerArgs(new String[]{"--proxy-protocol", "--room-actor", "--packet-rate-limit", "false"});
+
+        assertThat(args.isProxyProtocol()).isTrue();
+        assertThat(args.isRoomActor()).isTrue();
+        assertThat(args.isPacketRateLimit()).isFalse();
+    }
 }
@@ -0,0 +1,104 @@
+package top.rymc.phira.main.data;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.main.util.GsonUtil;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeAdapterTest {
+
+    private static final String USER_JSON = """
+            {"id":7,"name":"Alice","avatar":"a.png","language":"en-US","bio":"long bio","exp":1200,"rks":15.25,
+            "joined":"2024-01-01T00:00:00Z","last_login":"2024-06-01T12:00:00+08:00","roles":3,"banned":false,
+            "login_banned":true,"follower_count":10,"following_count":20,"email":"alice@example.com","badges":[{"id":1}]}
+            """;
+
+    private static final String CHART_JSON = """
+            {"id":42,"name":"Chart","level":"IN 14","difficulty":14.6,"charter":"C","composer":"M","illustrator":"I",
+            "description":"very long description","ranked":true,"reviewed":false,"stable":true,"stable_request":false,
+            "illustration":"i.png","preview":"p.ogg","file":"f.zip","uploader":9,"tags":["a","b"],"rating":4.5,
+            "rating_count":88,"created":"2024-01-01T00:00:00Z","updated":"2024-01-02T00:00:00Z","chart_updated":null}
+            """;
+
+    private static final String RECORD_JSON = """
+            {"id":1000,"player":7,"chart":42,"score":998765,"accuracy":0.995,"perfect":500,"good":10,"bad":0,
+            "miss":0,"speed":1.0,"max_combo":510,"best":true,"best_std":false,"mods":0,"full_combo":true,
+            "time":"2024-06-01T12:00:00Z","std":0.5,"std_score":399506.0}
+            """;
+
+    private final Gson gson = GsonUtil.getGson();
+
+    @Test
+    @DisplayName("should decode user fields and skip bio and email when reading UserInfo")
+    void shouldDecodeUserFieldsAndSkipBioAndEmailWhenReadingUserInfo() throws IOException {
+        UserInfo reflective = gson.fromJson(USER_JSON, UserInfo.class);
+        UserInfo decoded = UserInfoAdapter.INSTANCE.fromJson(USER_JSON);
+
+        assertThat(decoded)
+                .usingRecursiveComparison()
+                .ignoringFields("bio", "email")
+                .isEqualTo(reflective);
+        assertThat(decoded.getLastLogin()).isEqualTo(OffsetDateTime.of(2024, 6, 1, 12, 0, 0, 0, ZoneOffset.ofHours(8)));
+        assertThat(decoded.getBio()).isNull();
+        assertThat(decoded.getEmail()).isNull();
+    }
+
+    @Test
+    @DisplayName("should decode chart fields and skip description and tags when reading ChartInfo")
+    void shouldDecodeChartFieldsAndSkipDescriptionAndTagsWhenReadingChartInfo() throws IOException {
+        ChartInfo reflective = gson.fromJson(CHART_JSON, ChartInfo.class);
+        ChartInfo decoded = ChartInfoAdapter.INSTANCE.fromJson(CHART_JSON);
+
+        assertThat(decoded)
+                .usingRecursiveComparison()
+                .ignoringFields("description", "tags")
+                .isEqualTo(reflective);
+        assertThat(decoded.getChartUpdated()).isNull();
+        assertThat(decoded.getDescription()).isNull();
+        assertThat(decoded.getTags()).isNull();
+    }
+
+    @Test
+    @DisplayName("should decode every field when reading GameRecord")
+    void shouldDecodeEveryFieldWhenReadingGameRecord() throws IOException {
+        GameRecord reflective = gson.fromJson(RECORD_JSON, GameRecord.class);
+        GameRecord decoded = GameRecordAdapter.INSTANCE.fromJson(RECORD_JSON);
+
+        assertThat(decoded).isEqualTo(reflective);
+    }
+
+    @Test
+    @DisplayName("should read back same values when written by adapter")
+    void shouldReadBackSameValuesWhenWrittenByAdapter() throws IOException {
+        ChartInfo chart = ChartInfoAdapter.INSTANCE.fromJson(CHART_JSON);
+        UserInfo user = UserInfoAdapter.INSTANCE.fromJson(USER_JSON);
+        GameRecord record = GameRecordAdapter.INSTANCE.fromJson(RECORD_JSON);
+
+        assertThat(ChartInfoAdapter.INSTANCE.fromJson(ChartInfoAdapter.INSTANCE.toJson(chart))).isEqualTo(chart);
+        assertThat(UserInfoAdapter.INSTANCE.fromJson(UserInfoAdapter.INSTANCE.toJson(user))).isEqualTo(user);
+        assertThat(GameRecordAdapter.INSTANCE.fromJson(GameRecordAdapter.INSTANCE.toJson(record))).isEqualTo(record);
+    }
+
+    @Test
+    @DisplayName("should keep only used fields and intern strings when building PlayerProfile")
+    void shouldKeepOnlyUsedFieldsAndInternStringsWhenBuildingPlayerProfile() throws IOException {
+        UserInfo user = UserInfoAdapter.INSTANCE.fromJson(USER_JSON);
+        PlayerProfile profile = PlayerProfile.of(user);
+
+        assertThat(profile.getId()).isEqualTo(user.getId());
+        assertThat(profile.getName()).isSameAs(user.getName().intern());
+        assertThat(profile.getLanguage()).isSameAs(user.getLanguage().intern());
+        assertThat(profile.isBanned()).isEqualTo(user.isBanned());
+        assertThat(profile.isLoginBanned()).isEqualTo(user.isLoginBanned());
+
+        PlayerProfile decoded = gson.fromJson(gson.toJson(profile), PlayerProfile.class);
+        assertThat(decoded).isEqualTo(profile);
+        assertThat(decoded.getName()).isSameAs(profile.getName());
+    }
+}
@@ -7,7 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.game.player.Player;
 
 import java.lang.reflect.Field;
@@ -1,14 +1,16 @@
 package top.rymc.phira.main.game.player;
 
+import io.netty.channel.ChannelHandlerContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import top.rymc.phira.function.throwable.ThrowableConsumer;
-import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.game.exception.session.PlayerTypeMismatchException;
 import top.rymc.phira.main.game.exception.session.ResumeFailedException;
 import top.rymc.phira.main.game.exception.session.SessionException;
@@ -21,11 +23,15 @@ import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,7 +40,7 @@ import static org.mockito.Mockito.when;
 class PlayerManagerTest {
 
     @Mock
-    private UserInfo userInfo;
+    private PlayerProfile profile;
 
     @Mock
     private ConnectionReference connectionRef;
@@ -57,17 +63,22 @@ class PlayerManagerTest {
     }
 
     private void clearPlayersMap() throws Exception {
-        Field playersField = PlayerManager.class.getDeclaredField("PLAYERS");
-        playersField.setAccessible(true);
-        Map<?, ?> playersMap = (Map<?, ?>) playersField.get(null);
-        playersMap.clear();
+        for (String name : List.of("PLAYERS", "CONNECTIONS", "NAMES")) {
+            Field field = PlayerManager.class.getDeclaredField(name);
+            field.setAccessible(true);
+            ((Map<?, ?>) field.get(null)).clear();
+        }
+
+        Field onlineField = PlayerManager.class.getDeclaredField("ONLINE");
+        onlineField.setAccessible(true);
+        ((Set<?>) onlineField.get(null)).clear();
     }
 
     @Test
     @DisplayName("should create new player when userId does not exist")
     void shouldCreateNewPlayerWhenUserIdDoesNotExist() throws ResumeFailedException {
         int userId = 1001;
-        Supplier<LocalPlayer> constructor = () -> new LocalPlayer(userInfo, connectionRef);
+        Supplier<LocalPlayer> constructor = () -> new LocalPlayer(profile, connectionRef);
         BiConsumer<Runnable, LocalPlayer> closeBinder = (remover, player) -> {};
 
         PlayerManager.ResolveResult<LocalPlayer> result = PlayerManager.resolvePlayer(
@@ -77,14 +88,14 @@ class PlayerManagerTest {
         assertThat(result).isNotNull();
         assertThat(result.type()).isEqualTo(PlayerManager.ResolveResult.Type.Create);
         assertThat(result.player()).isNotNull();
-        assertThat(result.player().getUserInfo()).isEqualTo(userInfo);
+        assertThat(result.player().getProfile()).isEqualTo(profile);
     }
 
     @Test
     @DisplayName("should resume existing player when userId exists")
     void shouldResumeExistingPlayerWhenUserIdExists() throws SessionException {
         int userId = 1002;
-        LocalPlayer existingPlayer = new LocalPlayer(userInfo, connectionRef);
+        LocalPlayer existingPlayer = new LocalPlayer(profile, connectionRef);
         Supplier<LocalPlayer> constructor = () -> existingPlayer;
         BiConsumer<Runnable, LocalPlayer> closeBinder = (remover, player) -> {};
 
@@ -107,7 +118,7 @@ class PlayerManagerTest {
     @DisplayName("should throw PlayerTypeMismatchException when type mismatches")
     void shouldThrowPlayerTypeMismatchExceptionWhenTypeMismatches() throws ResumeFailedException {
         int userId = 1003;
-        LocalPlayer existingPlayer = new LocalPlayer(userInfo, connectionRef);
+        LocalPlayer existingPlayer = new LocalPlayer(profile, connectionRef);
         Supplier<LocalPlayer> constructor = () -> existingPlayer;
         BiConsumer<Runnable, LocalPlayer> closeBinder = (remover, player) -> {};
 
@@ -126,14 +137,13 @@ class PlayerManagerTest {
     @DisplayName("should return correct LocalPlayer by PlayerConnection")
     void shouldReturnCorrectLocalPlayerByPlayerConnection() throws ResumeFailedException {
         int userId = 1004;
-        LocalPlayer player = new LocalPlayer(userInfo, connectionRef);
+        LocalPlayer player = new LocalPlayer(profile, connectionRef);
         Supplier<LocalPlayer> constructor = () -> player;
         BiConsumer<Runnable, LocalPlayer> closeBinder = (remover, p) -> {};
+        when(connectionRef.get()).thenReturn(connection);
 
         PlayerManager.resolvePlayer(userId, LocalPlayer.class, constructor, resumer, closeBinder);
 
-        when(connectionRef.get()).thenReturn(connection);
-
         Optional<LocalPlayer> result = PlayerManager.getPlayer(connection);
 
         assertThat(result).isPresent();
@@ -154,7 +164,7 @@ class PlayerManagerTest {
     @DisplayName("should return player by id if exists")
     void shouldReturnPlayerByIdIfExists() throws ResumeFailedException {
         int userId = 1005;
-        LocalPlayer player = new LocalPlayer(userInfo, connectionRef);
+        LocalPlayer player = new LocalPlayer(profile, connectionRef);
         Supplier<LocalPlayer> constructor = () -> player;
         BiConsumer<Runnable, LocalPlayer> closeBinder = (remover, p) -> {};
 
@@ -180,7 +190,7 @@ class PlayerManagerTest {
     @DisplayName("should return true for online player")
     void shouldReturnTrueForOnlinePlayer() throws ResumeFailedException {
         int userId = 1006;
-        LocalPlayer player = new LocalPlayer(userInfo, connectionRef);
+        LocalPlayer player = new LocalPlayer(profile, connectionRef);
         Supplier<LocalPlayer> constructor = () -> player;
         BiConsumer<Runnable, LocalPlayer> closeBinder = (remover, p) -> {};
 
@@ -198,7 +208,7 @@ class PlayerManagerTest {
     @DisplayName("should return false for offline player")
     void shouldReturnFalseForOfflinePlayer() throws ResumeFailedException {
         int userId = 1007;
-        LocalPlayer player = new LocalPlayer(userInfo, connectionRef);
+        LocalPlayer player = new LocalPlayer(profile, connectionRef);
         Supplier<LocalPlayer> constructor = () -> player;
         BiConsumer<Runnable, LocalPlayer> closeBinder = (remover, p) -> {};
 
@@ -228,15 +238,15 @@ class PlayerManagerTest {
         int onlineUserId = 1008;
         int offlineUserId = 1009;
 
-        UserInfo onlineUserInfo = mock(UserInfo.class);
-        UserInfo offlineUserInfo = mock(UserInfo.class);
+        PlayerProfile onlineProfile = mock(PlayerProfile.class);
+        PlayerProfile offlineProfile = mock(PlayerProfile.class);
         ConnectionReference onlineConnectionRef = mock(ConnectionReference.class);
         ConnectionReference offlineConnectionRef = mock(ConnectionReference.class);
         PlayerConnection onlineConnection = mock(PlayerConnection.class);
         PlayerConnection offlineConnection = mock(PlayerConnection.class);
 
-        LocalPlayer onlinePlayer = new LocalPlayer(onlineUserInfo, onlineConnectionRef);
-        LocalPlayer offlinePlayer = new LocalPlayer(offlineUserInfo, offlineConnectionRef);
+        LocalPlayer onlinePlayer = new LocalPlayer(onlineProfile, onlineConnectionRef);
+        LocalPlayer offlinePlayer = new LocalPlayer(offlineProfile, offlineConnectionRef);
 
         Supplier<LocalPlayer> onlineConstructor = () -> onlinePlayer;
         Supplier<LocalPlayer> offlineConstructor = () -> offlinePlayer;
@@ -270,13 +280,13 @@ class PlayerManagerTest {
         int userId1 = 1010;
         int userId2 = 1011;
 
-        UserInfo userInfo1 = mock(UserInfo.class);
-        UserInfo userInfo2 = mock(UserInfo.class);
+        PlayerProfile profile1 = mock(PlayerProfile.class);
+        PlayerProfile profile2 = mock(PlayerProfile.class);
         ConnectionReference connectionRef1 = mock(ConnectionReference.class);
         ConnectionReference connectionRef2 = mock(ConnectionReference.class);
 
-        LocalPlayer player1 = new LocalPlayer(userInfo1, connectionRef1);
-        LocalPlayer player2 = new LocalPlayer(userInfo2, connectionRef2);
+        LocalPlayer player1 = new LocalPlayer(profile1, connectionRef1);
+        LocalPlayer player2 = new LocalPlayer(profile2, connectionRef2);
 
         Supplier<LocalPlayer> constructor1 = () -> player1;
         Supplier<LocalPlayer> constructor2 = () -> player2;
@@ -299,6 +309,63 @@ class PlayerManagerTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    @DisplayName("should drop player from connection index and online count when connection closes")
+    void shouldDropPlayerFromConnectionIndexAndOnlineCountWhenConnectionCloses() throws ResumeFailedException {
+        int userId = 1012;
+        LocalPlayer player = new LocalPlayer(profile, connectionRef);
+        when(connectionRef.get()).thenReturn(connection);
+
+        PlayerManager.resolvePlayer(userId, LocalPlayer.class, () -> player, resumer, (remover, p) -> {});
+
+        ArgumentCaptor<Consumer<ChannelHandlerContext>> closeHandler = ArgumentCaptor.forClass(Consumer.class);
+        verify(connection).onClose(closeHandler.capture());
+        assertThat(PlayerManager.getOnlineCount()).isEqualTo(1);
+
+        closeHandler.getValue().accept(null);
+
+        assertThat(PlayerManager.getPlayer(connection)).isEmpty();
+        assertThat(PlayerManager.getOnlineCount()).isZero();
+        assertThat(PlayerManager.getPlayer(userId)).contains(player);
+    }
+
+    @Test
+    @DisplayName("should find player by name and forget it when removed")
+    void shouldFindPlayerByNameAndForgetItWhenRemoved() throws ResumeFailedException {
+        int userId = 1013;
+        LocalPlayer player = new LocalPlayer(profile, connectionRef);
+        when(profile.getName()).thenReturn("Alice");
+        AtomicReference<Runnable> removerRef = new AtomicReference<>();
+
+        PlayerManager.resolvePlayer(userId, LocalPlayer.class, () -> player, resumer, (remover, p) -> removerRef.set(remover));
+
+        assertThat(PlayerManager.getPlayer("Alice")).contains(player);
+
+        removerRef.get().run();
+
+        assertThat(PlayerManager.getPlayer("Alice")).isEmpty();
+        assertThat(PlayerManager.getPlayer(userId)).isEmpty();
+        assertThat(PlayerManager.getOnlineCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should index new connection when session is resumed")
+    void shouldIndexNewConnectionWhenSessionIsResumed() throws ResumeFailedException {
+        int userId = 1014;
+        PlayerConnection newConnection = mock(PlayerConnection.class);
+        LocalPlayer player = new LocalPlayer(profile, connectionRef);
+        when(connectionRef.get()).thenReturn(connection);
+        PlayerManager.resolvePlayer(userId, LocalPlayer.class, () -> player, resumer, (remover, p) -> {});
+
+        when(connectionRef.get()).thenReturn(newConnection);
+        PlayerManager.ResolveResult<LocalPlayer> result = PlayerManager.resolvePlayer(userId, LocalPlayer.class, () -> player, resumer, (remover, p) -> {});
+
+        assertThat(result.type()).isEqualTo(PlayerManager.ResolveResult.Type.Resume);
+        assertThat(PlayerManager.getPlayer(newConnection)).contains(player);
+        assertThat(PlayerManager.getPlayer(connection)).isEmpty();
+        verify(newConnection).onClose(any());
+    }
+
     private static class AnotherPlayerType implements Player {
         @Override
         public Optional<top.rymc.phira.main.game.room.Room> getRoom() {
@@ -310,7 +377,7 @@ class PlayerManagerTest {
         }
 
         @Override
-        public UserInfo getUserInfo() {
+        public PlayerProfile getProfile() {
             return null;
         }
 
@@ -6,7 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.game.player.operations.LocalPlayerOperations;
 import top.rymc.phira.main.game.room.Room;
 import top.rymc.phira.main.network.ConnectionReference;
@@ -26,7 +26,7 @@ import static org.mockito.Mockito.when;
 class LocalPlayerTest {
 
     @Mock
-    private UserInfo userInfo;
+    private PlayerProfile profile;
 
     @Mock
     private ConnectionReference connectionRef;
@@ -41,7 +41,7 @@ class LocalPlayerTest {
 
     @BeforeEach
     void setUp() {
-        localPlayer = new LocalPlayer(userInfo, connectionRef);
+        localPlayer = new LocalPlayer(profile, connectionRef);
     }
 
     @Test
@@ -110,8 +110,8 @@ class LocalPlayerTest {
     void shouldReturnUserProfileWithCorrectIdAndName() {
         int expectedId = 123;
         String expectedName = "TestPlayer";
-        when(userInfo.getId()).thenReturn(expectedId);
-        when(userInfo.getName()).thenReturn(expectedName);
+        when(profile.getId()).thenReturn(expectedId);
+        when(profile.getName()).thenReturn(expectedName);
 
         UserProfile result = localPlayer.toProtocol();
 
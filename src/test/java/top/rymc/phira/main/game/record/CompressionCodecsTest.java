@@ -0,0 +1,124 @@
+package top.rymc.phira.main.game.record;
+
+import com.github.luben.zstd.Zstd;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressionCodecsTest {
+
+    private static byte[] payload(int size) {
+        Random random = new Random(size);
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i % 64 < 48 ? i / 64 : random.nextInt());
+        }
+        return bytes;
+    }
+
+    @Test
+    @DisplayName("should restore original bytes when compressed and decompressed")
+    void shouldRestoreOriginalBytesWhenCompressedAndDecompressed() {
+        for (PhiraRecord.CompressionType type : PhiraRecord.CompressionType.values()) {
+            for (int size : new int[] {0, 10 * 1024, 1024 * 1024}) {
+                for (boolean direct : new boolean[] {true, false}) {
+                    byte[] original = payload(size);
+                    ByteBuf input = direct ? Unpooled.directBuffer(size).writeBytes(original) : Unpooled.wrappedBuffer(original);
+
+                    ByteBuf compressed = type.compress(input, type == PhiraRecord.CompressionType.DEFLATE ? 6 : 3);
+                    ByteBuf restored = type.decompress(compressed);
+                    try {
+                        assertThat(input.readableBytes()).as("%s %d direct=%s", type, size, direct).isEqualTo(size);
+                        assertThat(ByteBufUtil.getBytes(restored)).as("%s %d direct=%s", type, size, direct).isEqualTo(original);
+                    } finally {
+                        input.release();
+                        compressed.release();
+                        restored.release();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should decompress zstd frame without content size when written as a stream")
+    void shouldDecompressZstdFrameWithoutContentSizeWhenWrittenAsAStream() throws IOException {
+        byte[] original = payload(300 * 1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream body = PhiraRecord.CompressionType.ZSTD.compress(out, 3)) {
+            body.write(original);
+        }
+
+        ByteBuf restored = PhiraRecord.CompressionType.ZSTD.decompress(Unpooled.wrappedBuffer(out.toByteArray()));
+        try {
+            assertThat(ByteBufUtil.getBytes(restored)).isEqualTo(original);
+        } finally {
+            restored.release();
+        }
+    }
+
+    @Test
+    @DisplayName("should decompress deflate stream when written as a stream")
+    void shouldDecompressDeflateStreamWhenWrittenAsAStream() throws IOException {
+        byte[] original = payload(300 * 1024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream body = PhiraRecord.CompressionType.DEFLATE.compress(out, 6)) {
+            body.write(original);
+        }
+
+        ByteBuf restored = PhiraRecord.CompressionType.DEFLATE.decompress(Unpooled.wrappedBuffer(out.toByteArray()));
+        try {
+            assertThat(ByteBufUtil.getBytes(restored)).isEqualTo(original);
+        } finally {
+            restored.release();
+        }
+    }
+
+    @Test
+    @DisplayName("should decompress record compressed by one-shot zstd api")
+    void shouldDecompressRecordCompressedByOneShotZstdApi() {
+        byte[] original = payload(64 * 1024);
+
+        ByteBuf restored = PhiraRecord.CompressionType.ZSTD.decompress(Unpooled.wrappedBuffer(Zstd.compress(original, 3)));
+        try {
+            assertThat(ByteBufUtil.getBytes(restored)).isEqualTo(original);
+        } finally {
+            restored.release();
+        }
+    }
+
+    @Test
+    @DisplayName("should throw DecoderException when compressed data is corrupted")
+    void shouldThrowDecoderExceptionWhenCompressedDataIsCorrupted() {
+        byte[] garbage = payload(1024);
+
+        assertThatThrownBy(() -> PhiraRecord.CompressionType.ZSTD.decompress(Unpooled.wrappedBuffer(garbage)))
+                .isInstanceOf(DecoderException.class);
+        assertThatThrownBy(() -> PhiraRecord.CompressionType.DEFLATE.decompress(Unpooled.wrappedBuffer(garbage)))
+                .isInstanceOf(DecoderException.class);
+    }
+
+    @Test
+    @DisplayName("should throw DecoderException when deflate stream is truncated")
+    void shouldThrowDecoderExceptionWhenDeflateStreamIsTruncated() {
+        ByteBuf compressed = PhiraRecord.CompressionType.DEFLATE.compress(Unpooled.wrappedBuffer(payload(64 * 1024)), 6);
+        ByteBuf truncated = compressed.slice(0, compressed.readableBytes() / 2);
+        try {
+            assertThatThrownBy(() -> PhiraRecord.CompressionType.DEFLATE.decompress(truncated))
+                    .isInstanceOf(DecoderException.class);
+        } finally {
+            compressed.release();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package top.rymc.phira.main.game.record;
 
+import com.github.luben.zstd.Zstd;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.AfterEach;
@@ -14,7 +15,9 @@ import java.lang.reflect.Constructor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -134,6 +137,66 @@ class PhiraRecordTest {
         assertThat(records).hasSize(2);
     }
 
+    @Test
+    @DisplayName("should decode header without loading streams when read from file")
+    void shouldDecodeHeaderWithoutLoadingStreamsWhenReadFromFile() {
+        try {
+            for (PhiraRecord.CompressionType type : PhiraRecord.CompressionType.values()) {
+                PhiraRecord.setCompression(type, type == PhiraRecord.CompressionType.DEFLATE ? 6 : 3);
+                PhiraRecord original = new PhiraRecord(7, 1700000000000L, 100, "TestChart", 3, "Player1", new ArrayList<>(), new ArrayList<>());
+                PhiraRecord.saveAsFile(original, tempDir);
+
+                PhiraRecord record = PhiraRecord.readFromFile(tempDir.resolve("7.phirarec"));
+
+                assertThat(record).as("%s", type).isNotNull();
+                assertThat(record.getFileCompressionType()).isEqualTo(type);
+                assertThat(record.getId()).isEqualTo(7);
+                assertThat(record.getTime()).isEqualTo(1700000000000L);
+                assertThat(record.getChartName()).isEqualTo("TestChart");
+                assertThat(record.getUserName()).isEqualTo("Player1");
+                assertThat(record.getFile()).isEqualTo(tempDir.resolve("7.phirarec"));
+
+                try (Stream<TouchFrame> touches = record.streamTouchFrames();
+                     Stream<JudgeEvent> judges = record.streamJudgeEvents()) {
+                    assertThat(touches).isEmpty();
+                    assertThat(judges).isEmpty();
+                }
+                assertThat(record.getTouchFrames()).isEmpty();
+                assertThat(record.getJudgeEvents()).isEmpty();
+            }
+        } finally {
+            PhiraRecord.setCompression(PhiraRecord.CompressionType.ZSTD, Zstd.defaultCompressionLevel());
+        }
+    }
+
+    @Test
+    @DisplayName("should decode header when it extends past the probed prefix")
+    void shouldDecodeHeaderWhenItExtendsPastTheProbedPrefix() {
+        try {
+            PhiraRecord.setCompression(PhiraRecord.CompressionType.NONE, 0);
+            String chartName = "Chart".repeat(2000);
+            PhiraRecord.saveAsFile(new PhiraRecord(9, 1700000000000L, 100, chartName, 3, "Player1", new ArrayList<>(), new ArrayList<>()), tempDir);
+
+            PhiraRecord record = PhiraRecord.readFromFile(tempDir.resolve("9.phirarec"));
+
+            assertThat(record).isNotNull();
+            assertThat(record.getChartName()).isEqualTo(chartName);
+            assertThat(record.getUserName()).isEqualTo("Player1");
+        } finally {
+            PhiraRecord.setCompression(PhiraRecord.CompressionType.ZSTD, Zstd.defaultCompressionLevel());
+        }
+    }
+
+    @Test
+    @DisplayName("should return null when record file is truncated")
+    void shouldReturnNullWhenRecordFileIsTruncated() throws IOException {
+        PhiraRecord.saveAsFile(new PhiraRecord(8, System.currentTimeMillis(), 100, "TestChart", 1, "Player1", new ArrayList<>(), new ArrayList<>()), tempDir);
+        Path file = tempDir.resolve("8.phirarec");
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), 14));
+
+        assertThat(PhiraRecord.readFromFile(file)).isNull();
+    }
+
     @Test
     @DisplayName("should return empty list for non-existent directory")
     void shouldReturnEmptyListForNonExistentDirectory() {
@@ -0,0 +1,91 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.protocol.codec.Encodeable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlayStreamBufferTest {
+
+    private record Sample(int id, float time, int padding) implements Encodeable {
+
+        @Override
+        public void encode(ByteBuf buf) {
+            buf.writeIntLE(id);
+            buf.writeFloatLE(time);
+            buf.writeIntLE(padding);
+            buf.writeZero(padding);
+        }
+
+        static Sample decode(ByteBuf buf) {
+            int id = buf.readIntLE();
+            float time = buf.readFloatLE();
+            int padding = buf.readIntLE();
+            buf.skipBytes(padding);
+            return new Sample(id, time, padding);
+        }
+    }
+
+    private static PlayStreamBuffer<Sample> newBuffer() {
+        return new PlayStreamBuffer<>(Sample::decode);
+    }
+
+    @Test
+    @DisplayName("should return appended elements in order when read back")
+    void shouldReturnAppendedElementsInOrderWhenReadBack() {
+        PlayStreamBuffer<Sample> buffer = newBuffer();
+
+        buffer.append(List.of(new Sample(1, 0.5f, 0), new Sample(2, 1.5f, 3)));
+        buffer.append(List.of());
+        buffer.append(new Sample(3, 2.5f, 1));
+
+        assertThat(buffer).containsExactly(new Sample(1, 0.5f, 0), new Sample(2, 1.5f, 3), new Sample(3, 2.5f, 1));
+        assertThat(buffer.byteSize()).isEqualTo(12 * 3 + 4);
+    }
+
+    @Test
+    @DisplayName("should keep every element when stream spans many chunks and index pages")
+    void shouldKeepEveryElementWhenStreamSpansManyChunksAndIndexPages() {
+        PlayStreamBuffer<Sample> buffer = newBuffer();
+        List<Sample> expected = new ArrayList<>();
+
+        int count = PlayStreamBuffer.INDEX_PAGE_SIZE * 5 + 7;
+        for (int i = 0; i < count; i++) {
+            Sample sample = new Sample(i, i / 60f, i % 97);
+            expected.add(sample);
+            buffer.append(sample);
+        }
+
+        assertThat(buffer.byteSize()).isGreaterThan(PlayStreamBuffer.CHUNK_SIZE * 3L);
+        assertThat(buffer).hasSize(count).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("should store element larger than a chunk when appended")
+    void shouldStoreElementLargerThanAChunkWhenAppended() {
+        PlayStreamBuffer<Sample> buffer = newBuffer();
+        Sample large = new Sample(7, 1f, PlayStreamBuffer.CHUNK_SIZE * 2);
+
+        buffer.append(new Sample(1, 0f, 0));
+        buffer.append(large);
+        buffer.append(new Sample(2, 2f, 0));
+
+        assertThat(buffer).containsExactly(new Sample(1, 0f, 0), large, new Sample(2, 2f, 0));
+    }
+
+    @Test
+    @DisplayName("should throw IndexOutOfBoundsException when index is past the end")
+    void shouldThrowIndexOutOfBoundsExceptionWhenIndexIsPastTheEnd() {
+        PlayStreamBuffer<Sample> buffer = newBuffer();
+        buffer.append(new Sample(1, 0f, 0));
+
+        assertThatThrownBy(() -> buffer.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(newBuffer()).isEmpty();
+    }
+}
@@ -0,0 +1,146 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecordArchiverTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        RecordArchiver.stop();
+    }
+
+    private static PhiraRecord record(int id) {
+        return record(id, null);
+    }
+
+    private static PhiraRecord record(int id, CountDownLatch gate) {
+        PhiraRecord record = mock(PhiraRecord.class);
+        when(record.getId()).thenReturn(id);
+        doAnswer(invocation -> {
+            if (gate != null) {
+                gate.await(5, TimeUnit.SECONDS);
+            }
+            ByteBuf buf = invocation.getArgument(0);
+            buf.writeCharSequence("record-" + id, StandardCharsets.UTF_8);
+            return null;
+        }).when(record).encode(any());
+        return record;
+    }
+
+    @Test
+    @DisplayName("should write record file atomically when submitted")
+    void shouldWriteRecordFileAtomicallyWhenSubmitted() throws IOException {
+        RecordArchiver.start(directory, 16, 2);
+        RecordArchiver.Statistics before = RecordArchiver.getStatistics();
+
+        assertThat(RecordArchiver.submit(record(1))).isTrue();
+        assertThat(RecordArchiver.submit(record(2))).isTrue();
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(RecordArchiver.getStatistics().archived()).isEqualTo(before.archived() + 2));
+
+        assertThat(Files.readString(directory.resolve("1.phirarec"))).isEqualTo("record-1");
+        assertThat(Files.readString(directory.resolve("2.phirarec"))).isEqualTo("record-2");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).noneMatch(file -> file.toString().endsWith(".tmp"));
+        }
+
+        RecordArchiver.Statistics after = RecordArchiver.getStatistics();
+        assertThat(after.submitted()).isEqualTo(before.submitted() + 2);
+        assertThat(after.batches()).isGreaterThan(before.batches());
+        assertThat(after.queued()).isZero();
+        assertThat(after.remainingCapacity()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("should reject record when queue is full")
+    void shouldRejectRecordWhenQueueIsFull() throws IOException {
+        RecordArchiver.start(directory, 1, 1);
+        RecordArchiver.Statistics before = RecordArchiver.getStatistics();
+        CountDownLatch gate = new CountDownLatch(1);
+
+        assertThat(RecordArchiver.submit(record(1, gate))).isTrue();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> RecordArchiver.getStatistics().queued() == 0);
+
+        assertThat(RecordArchiver.submit(record(2))).isTrue();
+        assertThat(RecordArchiver.submit(record(3))).isFalse();
+        assertThat(RecordArchiver.getStatistics().queued()).isEqualTo(1);
+        assertThat(RecordArchiver.getStatistics().rejected()).isEqualTo(before.rejected() + 1);
+
+        gate.countDown();
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(RecordArchiver.getStatistics().archived()).isEqualTo(before.archived() + 2));
+        assertThat(directory.resolve("3.phirarec")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("should write on calling thread and count it when queue is full")
+    void shouldWriteOnCallingThreadAndCountItWhenQueueIsFull() throws IOException {
+        RecordArchiver.start(directory, 1, 1);
+        RecordArchiver.Statistics before = RecordArchiver.getStatistics();
+        CountDownLatch gate = new CountDownLatch(1);
+
+        assertThat(RecordArchiver.submit(record(1, gate))).isTrue();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> RecordArchiver.getStatistics().queued() == 0);
+        assertThat(RecordArchiver.submit(record(2))).isTrue();
+
+        CompletableFuture<Path> written = RecordArchiver.submit(3, out -> out.write("spilled-3".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(written).isCompletedWithValue(directory.resolve("3.phirarec"));
+        assertThat(directory.resolve("3.phirarec")).hasContent("spilled-3");
+        assertThat(directory.resolve("3.phirarec.tmp")).doesNotExist();
+        RecordArchiver.Statistics after = RecordArchiver.getStatistics();
+        assertThat(after.synchronous()).isEqualTo(before.synchronous() + 1);
+        assertThat(after.archived()).isEqualTo(before.archived() + 1);
+
+        gate.countDown();
+    }
+
+    @Test
+    @DisplayName("should drain queued records when stopped")
+    void shouldDrainQueuedRecordsWhenStopped() throws IOException {
+        RecordArchiver.start(directory, 64, 2);
+
+        for (int id = 1; id <= 40; id++) {
+            assertThat(RecordArchiver.submit(record(id))).isTrue();
+        }
+        RecordArchiver.stop();
+
+        for (int id = 1; id <= 40; id++) {
+            assertThat(directory.resolve(id + ".phirarec")).exists();
+        }
+        assertThat(RecordArchiver.isEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject record when archiver is not started")
+    void shouldRejectRecordWhenArchiverIsNotStarted() {
+        RecordArchiver.Statistics before = RecordArchiver.getStatistics();
+
+        assertThat(RecordArchiver.submit(record(1))).isFalse();
+        assertThat(RecordArchiver.getStatistics().rejected()).isEqualTo(before.rejected() + 1);
+    }
+}
@@ -0,0 +1,90 @@
+package top.rymc.phira.main.game.record;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordBodyReaderTest {
+
+    private static byte[] payload(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + i / 7);
+        }
+        return bytes;
+    }
+
+    private static InputStream trickle(byte[] bytes) {
+        return new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("should decode values spanning window boundaries when stream returns short reads")
+    void shouldDecodeValuesSpanningWindowBoundariesWhenStreamReturnsShortReads() throws IOException {
+        byte[] original = payload(300_000);
+
+        try (RecordBodyReader reader = new RecordBodyReader(trickle(original))) {
+            for (int offset = 0; offset < original.length; offset += 50_000) {
+                byte[] block = reader.read(buf -> {
+                    byte[] bytes = new byte[50_000];
+                    buf.readBytes(bytes);
+                    return bytes;
+                });
+                assertThat(block).isEqualTo(Arrays.copyOfRange(original, offset, offset + 50_000));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should throw EOFException when body ends inside a value")
+    void shouldThrowEOFExceptionWhenBodyEndsInsideAValue() throws IOException {
+        try (RecordBodyReader reader = new RecordBodyReader(trickle(payload(6)))) {
+            assertThat(reader.read(ByteBuf::readByte)).isEqualTo((byte) 0);
+
+            assertThatThrownBy(() -> reader.read(ByteBuf::readLongLE))
+                    .isInstanceOf(EOFException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("should stream elements after multi-byte list size and close input when stream is closed")
+    void shouldStreamElementsAfterMultiByteListSizeAndCloseInputWhenStreamIsClosed() throws IOException {
+        byte[] bytes = new byte[2 + 300];
+        bytes[0] = (byte) 0xAC;
+        bytes[1] = 0x02;
+        for (int i = 0; i < 300; i++) {
+            bytes[2 + i] = (byte) i;
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream in = new ByteArrayInputStream(bytes) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        RecordBodyReader reader = new RecordBodyReader(in);
+        try (Stream<Byte> elements = reader.streamList(ByteBuf::readByte)) {
+            assertThat(elements.limit(3).toList()).containsExactly((byte) 0, (byte) 1, (byte) 2);
+            assertThat(closed).isFalse();
+        }
+
+        assertThat(closed).isTrue();
+    }
+}
@@ -0,0 +1,202 @@
+package top.rymc.phira.main.game.record;
+
+import com.github.luben.zstd.Zstd;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.rymc.phira.protocol.codec.Encodeable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class RecordSpillTest {
+
+    @TempDir
+    Path directory;
+
+    private record Sample(int value) implements Encodeable {
+
+        @Override
+        public void encode(ByteBuf buf) {
+            buf.writeIntLE(value);
+            buf.writeIntLE(~value);
+        }
+
+        byte[] bytes() {
+            return new byte[] {
+                    (byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24),
+                    (byte) ~value, (byte) (~value >> 8), (byte) (~value >> 16), (byte) (~value >> 24)
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        RecordSpill.start(directory);
+        RecordArchiver.start(directory, 16, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RecordArchiver.stop();
+        RecordSpill.stop();
+        PhiraRecord.setCompression(PhiraRecord.CompressionType.ZSTD, Zstd.defaultCompressionLevel());
+    }
+
+    @Test
+    @DisplayName("should count elements per player and kind when appends are interleaved")
+    void shouldCountElementsPerPlayerAndKindWhenAppendsAreInterleaved() {
+        try (RecordSpill spill = RecordSpill.open()) {
+            assertThat(spill).isNotNull();
+
+            spill.append(1, RecordSpill.Kind.TOUCH, List.of(new Sample(10), new Sample(11)));
+            spill.append(2, RecordSpill.Kind.JUDGE, List.of(new Sample(20)));
+            spill.append(1, RecordSpill.Kind.JUDGE, List.of(new Sample(12)));
+
+            assertThat(spill.count(1, RecordSpill.Kind.TOUCH)).isEqualTo(2);
+            assertThat(spill.count(1, RecordSpill.Kind.JUDGE)).isEqualTo(1);
+            assertThat(spill.count(2, RecordSpill.Kind.TOUCH)).isZero();
+            assertThat(spill.count(2, RecordSpill.Kind.JUDGE)).isEqualTo(1);
+            assertThat(spill.contains(3)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("should write player streams into record file when finished")
+    void shouldWritePlayerStreamsIntoRecordFileWhenFinished() throws IOException {
+        PhiraRecord.setCompression(PhiraRecord.CompressionType.NONE, 0);
+
+        Path spillFile;
+        Path recordFile;
+        try (RecordSpill spill = RecordSpill.open()) {
+            spillFile = spill.getFile();
+            spill.append(1, RecordSpill.Kind.JUDGE, List.of(new Sample(100)));
+            spill.append(1, RecordSpill.Kind.TOUCH, List.of(new Sample(1)));
+            spill.append(2, RecordSpill.Kind.TOUCH, List.of(new Sample(-5)));
+            spill.append(1, RecordSpill.Kind.TOUCH, List.of(new Sample(2)));
+
+            recordFile = spill.finish(1, 4242, 0, 7, "Chart", "Player1").getFile();
+        }
+
+        assertThat(recordFile).isEqualTo(directory.resolve("4242.phirarec"));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> Files.exists(recordFile) && !Files.exists(spillFile));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(recordFile);
+        }
+
+        byte[] content = Files.readAllBytes(recordFile);
+        int touches = indexOf(content, concat(new Sample(1).bytes(), new Sample(2).bytes()));
+        int judges = indexOf(content, new Sample(100).bytes());
+        assertThat(touches).isNotNegative();
+        assertThat(judges).isGreaterThan(touches);
+        assertThat(indexOf(content, new Sample(-5).bytes())).isNegative();
+    }
+
+    @Test
+    @DisplayName("should write only own entries for each player when finished across flushes")
+    void shouldWriteOnlyOwnEntriesForEachPlayerWhenFinishedAcrossFlushes() throws IOException {
+        PhiraRecord.setCompression(PhiraRecord.CompressionType.NONE, 0);
+
+        Path first;
+        Path second;
+        try (RecordSpill spill = RecordSpill.open()) {
+            for (int i = 0; i < 5000; i++) {
+                spill.append(1, RecordSpill.Kind.TOUCH, List.of(new Sample(i)));
+                spill.append(2, RecordSpill.Kind.TOUCH, List.of(new Sample(1000000 + i)));
+            }
+
+            first = spill.finish(1, 1, 0, 7, "Chart", "Player1").getFile();
+            spill.append(2, RecordSpill.Kind.JUDGE, List.of(new Sample(2000000)));
+            second = spill.finish(2, 2, 0, 7, "Chart", "Player2").getFile();
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> Files.exists(first) && Files.exists(second));
+
+        byte[] firstContent = Files.readAllBytes(first);
+        byte[] secondContent = Files.readAllBytes(second);
+        assertThat(indexOf(firstContent, concat(new Sample(3000).bytes(), new Sample(3001).bytes()))).isNotNegative();
+        assertThat(indexOf(firstContent, new Sample(1000000).bytes())).isNegative();
+        assertThat(indexOf(secondContent, concat(new Sample(1003000).bytes(), new Sample(1003001).bytes()))).isNotNegative();
+        assertThat(indexOf(secondContent, new Sample(2000000).bytes())).isNotNegative();
+        assertThat(indexOf(secondContent, new Sample(3000).bytes())).isNegative();
+    }
+
+    @Test
+    @DisplayName("should keep failed players indexed and refuse to finish when spill write fails")
+    void shouldKeepFailedPlayersIndexedAndRefuseToFinishWhenSpillWriteFails() {
+        List<Sample> batch = IntStream.range(0, 4096).mapToObj(Sample::new).toList();
+
+        try (RecordSpill spill = RecordSpill.open()) {
+            assertThat(spill).isNotNull();
+            assertThat(spill.append(1, RecordSpill.Kind.TOUCH, List.of(new Sample(1)))).isTrue();
+
+            Thread.currentThread().interrupt();
+            boolean appended;
+            try {
+                appended = spill.append(2, RecordSpill.Kind.TOUCH, batch);
+            } finally {
+                Thread.interrupted();
+            }
+
+            assertThat(appended).isFalse();
+            assertThat(spill.isFailed()).isTrue();
+            assertThat(spill.contains(1)).isTrue();
+            assertThat(spill.contains(2)).isTrue();
+            assertThat(spill.append(3, RecordSpill.Kind.TOUCH, List.of(new Sample(3)))).isFalse();
+            assertThat(spill.contains(3)).isFalse();
+            assertThatThrownBy(() -> spill.finish(1, 1, 0, 7, "Chart", "Player1")).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("should not create spill when recording directory is not set")
+    void shouldNotCreateSpillWhenRecordingDirectoryIsNotSet() {
+        RecordSpill.stop();
+
+        assertThat(RecordSpill.isEnabled()).isFalse();
+        assertThat(RecordSpill.open()).isNull();
+    }
+
+    @Test
+    @DisplayName("should discard stale spill files when started")
+    void shouldDiscardStaleSpillFilesWhenStarted() throws IOException {
+        Path stale = Files.createFile(directory.resolve("stale" + RecordSpill.EXTENSION));
+        Path record = Files.createFile(directory.resolve("1.phirarec"));
+
+        RecordSpill.start(directory);
+
+        assertThat(stale).doesNotExist();
+        assertThat(record).exists();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static int indexOf(byte[] content, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= content.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (content[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
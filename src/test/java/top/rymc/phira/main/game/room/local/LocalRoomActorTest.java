@@ -0,0 +1,148 @@
+package top.rymc.phira.main.game.room.local;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.main.game.exception.GameOperationException;
+import top.rymc.phira.main.game.player.Player;
+import top.rymc.phira.main.game.room.state.RoomGameState;
+import top.rymc.phira.main.util.Mailbox;
+import top.rymc.phira.test.TestServerSetup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalRoomActorTest {
+
+    private ExecutorService roomExecutor;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestServerSetup.init();
+        roomExecutor = Executors.newFixedThreadPool(4);
+        callers = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        roomExecutor.shutdownNow();
+    }
+
+    private LocalRoom createActorRoom(String roomId, int maxPlayer) {
+        LocalRoom.RoomSetting setting = new LocalRoom.RoomSetting(false, true, maxPlayer, false, false, false, true);
+        return new LocalRoom(() -> {}, roomId, setting, RoomGameState.Type.SelectChart, null, new Mailbox(roomExecutor), 0);
+    }
+
+    private Player mockPlayer(int id) {
+        Player player = mock(Player.class);
+        when(player.getId()).thenReturn(id);
+        when(player.getName()).thenReturn("Player" + id);
+        return player;
+    }
+
+    @Test
+    @DisplayName("should rethrow operation exception to caller when room runs as actor")
+    void shouldRethrowOperationExceptionToCallerWhenRoomRunsAsActor() {
+        LocalRoom room = createActorRoom("actor-room", 8);
+        Player host = mockPlayer(1);
+        Player member = mockPlayer(2);
+
+        room.join(host, false);
+        room.join(member, false);
+
+        assertThat(room.isActor()).isTrue();
+        assertThat(room.isHost(host)).isTrue();
+        assertThatThrownBy(() -> room.getOperation().lockRoom(member))
+                .isInstanceOf(GameOperationException.class);
+    }
+
+    @Test
+    @DisplayName("should never exceed max player when many rooms are joined concurrently")
+    void shouldNeverExceedMaxPlayerWhenManyRoomsAreJoinedConcurrently() throws Exception {
+        int roomCount = 1000;
+        int maxPlayer = 2;
+        int joinersPerRoom = 5;
+
+        List<LocalRoom> rooms = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            rooms.add(createActorRoom("room-" + i, maxPlayer));
+        }
+        for (int i = 0; i < roomCount * joinersPerRoom; i++) {
+            players.add(mockPlayer(i + 1));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < players.size(); i++) {
+            LocalRoom room = rooms.get(i % roomCount);
+            Player player = players.get(i);
+            futures.add(callers.submit(() -> {
+                start.await();
+                try {
+                    room.join(player, false);
+                } catch (GameOperationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        for (LocalRoom room : rooms) {
+            assertThat(room.getPlayerManager().getPlayers()).hasSize(maxPlayer);
+            assertThat(room.getPlayerManager().getHost()).isPresent();
+        }
+        assertThat(rejected.get()).isEqualTo(roomCount * (joinersPerRoom - maxPlayer));
+    }
+
+    @Test
+    @DisplayName("should return pending future without blocking caller when actor is busy")
+    void shouldReturnPendingFutureWithoutBlockingCallerWhenActorIsBusy() throws Exception {
+        LocalRoom room = createActorRoom("busy-room", 8);
+        Player host = mockPlayer(1);
+        room.join(host, false);
+
+        CountDownLatch release = new CountDownLatch(1);
+        room.getSerialExecutor().execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CompletableFuture<Void> lock = room.getOperation().lockRoomAsync(host);
+        CompletableFuture<Void> rejectedJoin = room.joinAsync(mockPlayer(2), false);
+
+        assertThat(lock).isNotDone();
+        assertThat(rejectedJoin).isNotDone();
+
+        release.countDown();
+
+        lock.get(5, TimeUnit.SECONDS);
+        assertThat(room.getSetting().isLocked()).isTrue();
+        assertThatThrownBy(() -> rejectedJoin.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(GameOperationException.class);
+    }
+}
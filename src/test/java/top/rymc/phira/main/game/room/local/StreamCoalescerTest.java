@@ -0,0 +1,140 @@
+package top.rymc.phira.main.game.room.local;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.main.game.player.local.LocalPlayer;
+import top.rymc.phira.main.network.PlayerConnection;
+import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
+import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamCoalescerTest {
+
+    private EmbeddedChannel channel;
+    private final Map<Integer, List<TouchFrame>> sentTouches = new LinkedHashMap<>();
+    private final Map<Integer, List<JudgeEvent>> sentJudges = new LinkedHashMap<>();
+    private final List<Integer> touchPackets = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        channel = new EmbeddedChannel();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    private StreamCoalescer createCoalescer(long windowMillis) {
+        return createCoalescer(windowMillis, Runnable::run);
+    }
+
+    private StreamCoalescer createCoalescer(long windowMillis, Executor flushExecutor) {
+        return new StreamCoalescer(
+                windowMillis,
+                flushExecutor,
+                (playerId, frames) -> {
+                    touchPackets.add(playerId);
+                    sentTouches.computeIfAbsent(playerId, k -> new ArrayList<>()).addAll(frames);
+                },
+                (playerId, events) -> sentJudges.computeIfAbsent(playerId, k -> new ArrayList<>()).addAll(events)
+        );
+    }
+
+    private LocalPlayer mockLocalPlayer(int id) {
+        PlayerConnection connection = mock(PlayerConnection.class);
+        when(connection.getChannel()).thenReturn(channel);
+        LocalPlayer player = mock(LocalPlayer.class);
+        when(player.getId()).thenReturn(id);
+        when(player.getConnection()).thenReturn(connection);
+        return player;
+    }
+
+    @Test
+    @DisplayName("should forward streams immediately when window is disabled")
+    void shouldForwardStreamsImmediatelyWhenWindowIsDisabled() {
+        StreamCoalescer coalescer = createCoalescer(0);
+        LocalPlayer player = mockLocalPlayer(1);
+
+        coalescer.touches(player, List.of(mock(TouchFrame.class)));
+        coalescer.touches(player, List.of(mock(TouchFrame.class)));
+
+        assertThat(touchPackets).containsExactly(1, 1);
+    }
+
+    @Test
+    @DisplayName("should merge streams per player until window elapses")
+    void shouldMergeStreamsPerPlayerUntilWindowElapses() {
+        StreamCoalescer coalescer = createCoalescer(5);
+        LocalPlayer first = mockLocalPlayer(1);
+        LocalPlayer second = mockLocalPlayer(2);
+
+        coalescer.touches(first, List.of(mock(TouchFrame.class), mock(TouchFrame.class)));
+        coalescer.touches(second, List.of(mock(TouchFrame.class)));
+        coalescer.touches(first, List.of(mock(TouchFrame.class)));
+        coalescer.judges(first, List.of(mock(JudgeEvent.class)));
+        coalescer.judges(first, List.of(mock(JudgeEvent.class)));
+
+        assertThat(touchPackets).isEmpty();
+        assertThat(sentJudges).isEmpty();
+
+        channel.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+        channel.runScheduledPendingTasks();
+
+        assertThat(touchPackets).containsExactly(1, 2);
+        assertThat(sentTouches.get(1)).hasSize(3);
+        assertThat(sentTouches.get(2)).hasSize(1);
+        assertThat(sentJudges.get(1)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("should start a new window after flushing")
+    void shouldStartNewWindowAfterFlushing() {
+        StreamCoalescer coalescer = createCoalescer(5);
+        LocalPlayer player = mockLocalPlayer(1);
+
+        coalescer.touches(player, List.of(mock(TouchFrame.class)));
+        channel.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+        channel.runScheduledPendingTasks();
+
+        coalescer.touches(player, List.of(mock(TouchFrame.class)));
+        assertThat(touchPackets).containsExactly(1);
+
+        channel.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+        channel.runScheduledPendingTasks();
+        assertThat(touchPackets).containsExactly(1, 1);
+    }
+
+    @Test
+    @DisplayName("should flush inline and keep scheduling when flush executor rejects")
+    void shouldFlushInlineAndKeepSchedulingWhenFlushExecutorRejects() {
+        StreamCoalescer coalescer = createCoalescer(5, task -> {
+            throw new RejectedExecutionException("closed");
+        });
+        LocalPlayer player = mockLocalPlayer(1);
+
+        coalescer.touches(player, List.of(mock(TouchFrame.class)));
+        channel.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+        channel.runScheduledPendingTasks();
+        assertThat(touchPackets).containsExactly(1);
+
+        coalescer.touches(player, List.of(mock(TouchFrame.class)));
+        channel.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+        channel.runScheduledPendingTasks();
+        assertThat(touchPackets).containsExactly(1, 1);
+    }
+}
@@ -13,6 +13,10 @@ import top.rymc.phira.main.game.player.Player;
 import top.rymc.phira.main.game.player.operations.PlayerOperations;
 import top.rymc.phira.main.game.room.local.LocalRoom;
 import top.rymc.phira.main.util.PhiraFetcher;
+import top.rymc.phira.main.util.PhiraUpstream;
+import top.rymc.phira.main.util.SimulatedPhiraUpstream;
+import top.rymc.phira.main.util.TransientUpstreamException;
+import top.rymc.phira.main.util.UpstreamResponseException;
 import top.rymc.phira.protocol.data.monitor.judge.JudgeEvent;
 import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
 import top.rymc.phira.protocol.data.state.GameState;
@@ -22,6 +26,11 @@ import top.rymc.phira.test.MockPhiraServer;
 import java.io.IOException;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -285,4 +294,103 @@ class RoomPlayingStateTest {
 
         assertThat(result).isInstanceOf(Playing.class);
     }
+
+    @Test
+    @DisplayName("should retry record lookup and end game when first lookup fails")
+    void shouldRetryRecordLookupAndEndGameWhenFirstLookupFails() {
+        PhiraUpstream previousUpstream = PhiraFetcher.getUpstream();
+        long previousDelay = RoomPlaying.getRecordRetryDelayMillis();
+        AtomicInteger attempts = new AtomicInteger();
+        SimulatedPhiraUpstream simulator = new SimulatedPhiraUpstream(0, 0, 0, 0);
+        PhiraUpstream flaky = mock(PhiraUpstream.class);
+        when(flaky.fetchRecord(1000)).thenAnswer(invocation -> attempts.getAndIncrement() == 0
+                ? CompletableFuture.failedFuture(new TransientUpstreamException("not yet available"))
+                : simulator.fetchRecord(1000));
+
+        try {
+            PhiraFetcher.setUpstream(flaky);
+            RoomPlaying.setRecordRetryDelayMillis(10);
+            roomPlaying = new RoomPlaying(room, stateUpdater, chartInfo);
+            BlockingQueue<Runnable> serial = new LinkedBlockingQueue<>();
+            when(room.getSerialExecutor()).thenReturn(serial::add);
+            when(playerManager.getPlayers()).thenReturn(Set.of(player));
+            when(playerManager.getMonitors()).thenReturn(Set.of());
+            when(playerManager.getPlayersCopy()).thenReturn(Set.of(player));
+
+            CompletableFuture<Void> result = roomPlaying.playedAsync(player, 1000);
+            runNext(serial);
+
+            assertThat(result).isDone();
+
+            assertThat(attempts).hasValue(2);
+            verify(stateUpdater).accept(any(RoomSelectChart.class));
+        } finally {
+            PhiraFetcher.setUpstream(previousUpstream);
+            RoomPlaying.setRecordRetryDelayMillis(previousDelay);
+        }
+    }
+
+    @Test
+    @DisplayName("should not retry record lookup when upstream rejects it with client error")
+    void shouldNotRetryRecordLookupWhenUpstreamRejectsItWithClientError() {
+        PhiraUpstream previousUpstream = PhiraFetcher.getUpstream();
+        long previousDelay = RoomPlaying.getRecordRetryDelayMillis();
+        AtomicInteger attempts = new AtomicInteger();
+        PhiraUpstream rejecting = mock(PhiraUpstream.class);
+        when(rejecting.fetchRecord(1001)).thenAnswer(invocation -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new UpstreamResponseException(404, "not found"));
+        });
+
+        try {
+            PhiraFetcher.setUpstream(rejecting);
+            RoomPlaying.setRecordRetryDelayMillis(10);
+            roomPlaying = new RoomPlaying(room, stateUpdater, chartInfo);
+            when(room.getSerialExecutor()).thenReturn(Runnable::run);
+            when(playerManager.getPlayers()).thenReturn(Set.of(player));
+            when(playerManager.getMonitors()).thenReturn(Set.of());
+            when(playerManager.getPlayersCopy()).thenReturn(Set.of(player));
+
+            CompletableFuture<Void> result = roomPlaying.playedAsync(player, 1001);
+
+            assertThat(result).isCompletedExceptionally();
+            assertThat(attempts).hasValue(1);
+            verify(stateUpdater).accept(any(RoomSelectChart.class));
+        } finally {
+            PhiraFetcher.setUpstream(previousUpstream);
+            RoomPlaying.setRecordRetryDelayMillis(previousDelay);
+        }
+    }
+
+    @Test
+    @DisplayName("should ignore abort and repeated result when record lookup is pending")
+    void shouldIgnoreAbortAndRepeatedResultWhenRecordLookupIsPending() {
+        roomPlaying = new RoomPlaying(room, stateUpdater, chartInfo);
+        BlockingQueue<Runnable> serial = new LinkedBlockingQueue<>();
+        when(room.getSerialExecutor()).thenReturn(serial::add);
+        when(playerManager.getPlayers()).thenReturn(Set.of(player, secondPlayer));
+        when(playerManager.getMonitors()).thenReturn(Set.of());
+        when(playerManager.getPlayersCopy()).thenReturn(Set.of(player, secondPlayer));
+        mockPhiraServer.slowNextRequests(1, 300);
+
+        CompletableFuture<Void> first = roomPlaying.playedAsync(player, 1000);
+        CompletableFuture<Void> second = roomPlaying.playedAsync(player, 1000);
+        roomPlaying.abort(player);
+        runNext(serial);
+
+        assertThat(second).isSameAs(first);
+        verify(playerManager).broadcast(any());
+        assertThat(mockPhiraServer.getRequestCount("record")).isEqualTo(1);
+    }
+
+    private static void runNext(BlockingQueue<Runnable> serial) {
+        try {
+            Runnable task = serial.poll(5, TimeUnit.SECONDS);
+            assertThat(task).isNotNull();
+            task.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
 }
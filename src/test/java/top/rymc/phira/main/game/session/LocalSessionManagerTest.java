@@ -10,7 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.mockito.Mockito.lenient;
 
-import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.main.data.PlayerProfile;
 import top.rymc.phira.main.game.exception.session.ResumeFailedException;
 import top.rymc.phira.main.game.exception.session.SessionException;
 import top.rymc.phira.main.game.exception.session.SuspendFailedException;
@@ -35,7 +35,7 @@ class LocalSessionManagerTest {
     private static final int PLAYER_ID = 123;
 
     @Mock
-    private UserInfo userInfo;
+    private PlayerProfile profile;
 
     @Mock
     private PlayerConnection playerConnection;
@@ -53,14 +53,14 @@ class LocalSessionManagerTest {
     @BeforeEach
     void setUp() {
         LocalSessionManager.setSuspendTimeout(100, TimeUnit.MILLISECONDS);
-        lenient().when(userInfo.getId()).thenReturn(PLAYER_ID);
-        lenient().when(userInfo.getName()).thenReturn("TestPlayer");
+        lenient().when(profile.getId()).thenReturn(PLAYER_ID);
+        lenient().when(profile.getName()).thenReturn("TestPlayer");
         lenient().when(playerConnection.getPacketHandler()).thenAnswer(inv -> currentHandler);
     }
 
     private LocalPlayer createTestPlayer() {
         ConnectionReference connectionRef = new ConnectionReference(playerConnection);
-        return new LocalPlayer(userInfo, connectionRef);
+        return new LocalPlayer(profile, connectionRef);
     }
 
     private LocalRoom createTestRoom() {
@@ -219,4 +219,48 @@ class LocalSessionManagerTest {
 
         await().atMost(500, TimeUnit.MILLISECONDS).untilAsserted(() -> assertThat(secondRemoverCalled.get()).isTrue());
     }
-}
+
+    @Test
+    @DisplayName("should count resumed session when resume")
+    void shouldCountResumedSessionWhenResume() throws SessionException {
+        LocalPlayer player = createTestPlayer();
+        LocalRoom room = createTestRoom();
+        room.join(player, false);
+
+        currentHandler = new TestHandler(player, room);
+        player.getConnection().setPacketHandler(currentHandler);
+
+        LocalSessionManager.Statistics before = LocalSessionManager.getStatistics();
+        LocalSessionManager.suspend(player, () -> {});
+
+        assertThat(LocalSessionManager.getStatistics().pending()).isEqualTo(before.pending() + 1);
+
+        LocalSessionManager.resume(player, newPlayerConnection);
+
+        LocalSessionManager.Statistics after = LocalSessionManager.getStatistics();
+        assertThat(after.pending()).isEqualTo(before.pending());
+        assertThat(after.resumed()).isEqualTo(before.resumed() + 1);
+        assertThat(after.expired()).isEqualTo(before.expired());
+    }
+
+    @Test
+    @DisplayName("should count expired session when session timeout")
+    void shouldCountExpiredSessionWhenSessionTimeout() throws SessionException {
+        LocalPlayer player = createTestPlayer();
+        LocalRoom room = createTestRoom();
+        room.join(player, false);
+
+        currentHandler = new TestHandler(player, room);
+        player.getConnection().setPacketHandler(currentHandler);
+
+        LocalSessionManager.Statistics before = LocalSessionManager.getStatistics();
+        LocalSessionManager.suspend(player, () -> {});
+
+        await().atMost(500, TimeUnit.MILLISECONDS).untilAsserted(() ->
+                assertThat(LocalSessionManager.getStatistics().expired()).isEqualTo(before.expired() + 1));
+
+        LocalSessionManager.Statistics after = LocalSessionManager.getStatistics();
+        assertThat(after.pending()).isEqualTo(before.pending());
+        assertThat(after.resumed()).isEqualTo(before.resumed());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package top.rymc.phira.main.network;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionLimiterTest {
+
+    @Test
+    @DisplayName("should reject connections beyond global limit until one is released")
+    void shouldRejectConnectionsBeyondGlobalLimitUntilOneIsReleased() {
+        ConnectionLimiter limiter = new ConnectionLimiter(2, 0);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getConnections()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should limit connections per address independently")
+    void shouldLimitConnectionsPerAddressIndependently() throws Exception {
+        ConnectionLimiter limiter = new ConnectionLimiter(0, 1);
+        InetAddress first = InetAddress.getByName("10.0.0.1");
+        InetAddress second = InetAddress.getByName("10.0.0.2");
+
+        assertThat(limiter.tryAcquire(first)).isTrue();
+        assertThat(limiter.tryAcquire(first)).isFalse();
+        assertThat(limiter.tryAcquire(second)).isTrue();
+
+        limiter.release(first);
+
+        assertThat(limiter.getConnections(first)).isZero();
+        assertThat(limiter.tryAcquire(first)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should never reject when limits are disabled")
+    void shouldNeverRejectWhenLimitsAreDisabled() throws Exception {
+        ConnectionLimiter limiter = new ConnectionLimiter(0, 0);
+        InetAddress address = InetAddress.getByName("10.0.0.1");
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            assertThat(limiter.tryAcquire(address)).isTrue();
+        }
+        assertThat(limiter.getRejected()).isZero();
+    }
+}
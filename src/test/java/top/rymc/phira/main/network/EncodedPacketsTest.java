@@ -0,0 +1,92 @@
+package top.rymc.phira.main.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.protocol.codec.encoder.ServerPacketEncoder;
+import top.rymc.phira.protocol.data.message.ChatMessage;
+import top.rymc.phira.protocol.packet.ClientBoundPacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundMessagePacket;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundPongPacket;
+import top.rymc.phira.test.TestServerSetup;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedPacketsTest {
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestServerSetup.init();
+    }
+
+    private static byte[] bytesOf(ClientBoundPacket packet) {
+        ByteBuf encoded = EncodedPackets.encode(packet);
+        try {
+            return ByteBufUtil.getBytes(encoded);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    @Test
+    @DisplayName("should keep pre-encoded bytes for constant packets only")
+    void shouldKeepPreEncodedBytesForConstantPacketsOnly() {
+        ByteBuf pong = EncodedPackets.getConstant(ClientBoundPongPacket.INSTANCE);
+
+        assertThat(pong).isNotNull();
+        assertThat(ByteBufUtil.getBytes(pong)).isEqualTo(bytesOf(ClientBoundPongPacket.INSTANCE));
+        assertThat(EncodedPackets.getConstant(EncodedPackets.GAME_END)).isNotNull();
+        assertThat(EncodedPackets.getConstant(EncodedPackets.START_PLAYING)).isNotNull();
+        assertThat(EncodedPackets.getConstant(ClientBoundMessagePacket.create(new ChatMessage(1, "hi")))).isNull();
+    }
+
+    @Test
+    @DisplayName("should write identical encoded bytes to every connection when sending to all")
+    void shouldWriteIdenticalEncodedBytesToEveryConnectionWhenSendingToAll() {
+        ClientBoundPacket packet = ClientBoundMessagePacket.create(new ChatMessage(1, "hello"));
+        byte[] expected = bytesOf(packet);
+
+        List<EmbeddedChannel> channels = new ArrayList<>();
+        List<PlayerConnection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            EmbeddedChannel channel = new EmbeddedChannel(new ServerPacketEncoder());
+            channels.add(channel);
+            connections.add(new PlayerConnection(channel, new InetSocketAddress("127.0.0.1", 10000 + i)));
+        }
+
+        PlayerConnection.sendToAll(connections, packet);
+
+        for (EmbeddedChannel channel : channels) {
+            ByteBuf written = channel.readOutbound();
+            assertThat(ByteBufUtil.getBytes(written)).isEqualTo(expected);
+            written.release();
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    @DisplayName("should skip closed connections when sending to all")
+    void shouldSkipClosedConnectionsWhenSendingToAll() {
+        EmbeddedChannel open = new EmbeddedChannel(new ServerPacketEncoder());
+        EmbeddedChannel closed = new EmbeddedChannel(new ServerPacketEncoder());
+        closed.close();
+
+        PlayerConnection.sendToAll(List.of(
+                new PlayerConnection(open, new InetSocketAddress("127.0.0.1", 10000)),
+                new PlayerConnection(closed, new InetSocketAddress("127.0.0.1", 10001))
+        ), EncodedPackets.GAME_END);
+
+        ByteBuf written = open.readOutbound();
+        assertThat(ByteBufUtil.getBytes(written)).isEqualTo(bytesOf(EncodedPackets.GAME_END));
+        written.release();
+        assertThat((Object) closed.readOutbound()).isNull();
+        open.finishAndReleaseAll();
+    }
+}
@@ -0,0 +1,138 @@
+package top.rymc.phira.main.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.protocol.codec.encoder.ServerPacketEncoder;
+import top.rymc.phira.protocol.data.monitor.touch.TouchFrame;
+import top.rymc.phira.test.TestServerSetup;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MonitorStreamShaperTest {
+
+    private EmbeddedChannel channel;
+    private PlayerConnection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestServerSetup.init();
+        channel = new EmbeddedChannel(new ServerPacketEncoder());
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16));
+        connection = new PlayerConnection(channel, new InetSocketAddress("127.0.0.1", 10000));
+        channel.pipeline().addLast(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    private static List<TouchFrame> frames(int count) {
+        List<TouchFrame> frames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            frames.add(mock(TouchFrame.class));
+        }
+        return frames;
+    }
+
+    private void fillOutboundBuffer() {
+        channel.write(Unpooled.wrappedBuffer(new byte[64]));
+        assertThat(channel.isWritable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should let touches through when channel is writable")
+    void shouldLetTouchesThroughWhenChannelIsWritable() {
+        MonitorStreamShaper shaper = connection.getStreamShaper();
+
+        assertThat(shaper.offerTouches(1, frames(4))).isTrue();
+        assertThat(shaper.getPendingFrames()).isZero();
+        assertThat(shaper.getShedTouchFrames()).isZero();
+    }
+
+    @Test
+    @DisplayName("should merge pending touches and shed oldest frames when channel is not writable")
+    void shouldMergePendingTouchesAndShedOldestFramesWhenChannelIsNotWritable() {
+        MonitorStreamShaper shaper = connection.getStreamShaper();
+        fillOutboundBuffer();
+
+        assertThat(shaper.offerTouches(1, frames(20))).isFalse();
+        assertThat(shaper.offerTouches(1, frames(20))).isFalse();
+        assertThat(shaper.offerTouches(2, frames(3))).isFalse();
+
+        assertThat(shaper.getPendingFrames()).isEqualTo(MonitorStreamShaper.MAX_PENDING_FRAMES + 3);
+        assertThat(shaper.getShedTouchFrames()).isEqualTo(40 - MonitorStreamShaper.MAX_PENDING_FRAMES);
+        assertThat(shaper.getDeferredTouchBatches()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should send one merged batch per player when channel becomes writable again")
+    void shouldSendOneMergedBatchPerPlayerWhenChannelBecomesWritableAgain() {
+        MonitorStreamShaper shaper = connection.getStreamShaper();
+        fillOutboundBuffer();
+        shaper.offerTouches(1, frames(5));
+        shaper.offerTouches(1, frames(5));
+        shaper.offerTouches(2, frames(5));
+
+        channel.flush();
+        channel.runPendingTasks();
+
+        List<ByteBuf> written = new ArrayList<>();
+        ByteBuf buf;
+        while ((buf = channel.readOutbound()) != null) {
+            written.add(buf);
+        }
+
+        assertThat(written).hasSize(3);
+        assertThat(shaper.getPendingFrames()).isZero();
+        assertThat(shaper.offerTouches(1, frames(1))).isTrue();
+        written.forEach(ByteBuf::release);
+    }
+
+    @Test
+    @DisplayName("should hold back new touches until pending batch is sent when flushing")
+    void shouldHoldBackNewTouchesUntilPendingBatchIsSentWhenFlushing() throws Exception {
+        Channel mockChannel = mock(Channel.class);
+        PlayerConnection mockConnection = mock(PlayerConnection.class);
+        when(mockConnection.getChannel()).thenReturn(mockChannel);
+        MonitorStreamShaper shaper = new MonitorStreamShaper(mockConnection);
+
+        when(mockChannel.isWritable()).thenReturn(false);
+        shaper.offerTouches(1, frames(2));
+        when(mockChannel.isWritable()).thenReturn(true);
+
+        AtomicReference<CompletableFuture<Boolean>> concurrentOffer = new AtomicReference<>();
+        when(mockConnection.send(any())).thenAnswer(invocation -> {
+            CompletableFuture<Boolean> offer = CompletableFuture.supplyAsync(() -> shaper.offerTouches(1, frames(1)));
+            concurrentOffer.set(offer);
+            Thread.sleep(100);
+            assertThat(offer).isNotDone();
+            return Optional.empty();
+        });
+
+        shaper.flushPending();
+
+        assertThat(concurrentOffer.get().get(5, TimeUnit.SECONDS)).isTrue();
+        verify(mockConnection, times(1)).send(any());
+    }
+}
@@ -0,0 +1,120 @@
+package top.rymc.phira.main.network;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundPlayedPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundChatPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundPingPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundPlayedPacket;
+import top.rymc.phira.protocol.packet.serverbound.ServerBoundTouchesPacket;
+import top.rymc.phira.test.TestServerSetup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PacketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private PacketRateLimiter limiter;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestServerSetup.init();
+        limiter = new PacketRateLimiter(now::get);
+        channel = new EmbeddedChannel(limiter);
+    }
+
+    private int countInbound() {
+        int count = 0;
+        while (channel.readInbound() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    @DisplayName("should drop chat packets beyond burst and refill over time")
+    void shouldDropChatPacketsBeyondBurstAndRefillOverTime() {
+        for (int i = 0; i < 8; i++) {
+            channel.writeInbound(mock(ServerBoundChatPacket.class));
+        }
+
+        assertThat(countInbound()).isEqualTo(5);
+        assertThat(limiter.getDropped(PacketRateLimiter.Category.CHAT)).isEqualTo(3);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        channel.writeInbound(mock(ServerBoundChatPacket.class));
+        channel.writeInbound(mock(ServerBoundChatPacket.class));
+        channel.writeInbound(mock(ServerBoundChatPacket.class));
+
+        assertThat(countInbound()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should keep separate budgets per category and pass unclassified messages")
+    void shouldKeepSeparateBudgetsPerCategoryAndPassUnclassifiedMessages() {
+        for (int i = 0; i < 10; i++) {
+            channel.writeInbound(mock(ServerBoundChatPacket.class));
+        }
+        countInbound();
+
+        channel.writeInbound(mock(ServerBoundTouchesPacket.class));
+        channel.writeInbound(mock(ServerBoundPingPacket.class));
+        channel.writeInbound(new Object());
+
+        assertThat(countInbound()).isEqualTo(3);
+        assertThat(limiter.getDropped(PacketRateLimiter.Category.GAMEPLAY)).isZero();
+    }
+
+    @Test
+    @DisplayName("should close connection on sustained abuse")
+    void shouldCloseConnectionOnSustainedAbuse() {
+        for (int i = 0; i < 5 + PacketRateLimiter.KICK_THRESHOLD; i++) {
+            channel.writeInbound(mock(ServerBoundChatPacket.class));
+        }
+
+        assertThat(channel.isActive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should answer with failed reply when request packet exceeds budget")
+    void shouldAnswerWithFailedReplyWhenRequestPacketExceedsBudget() {
+        for (int i = 0; i < 21; i++) {
+            channel.writeInbound(mock(ServerBoundPlayedPacket.class));
+        }
+
+        assertThat(countInbound()).isEqualTo(20);
+        assertThat((Object) channel.readOutbound()).isInstanceOf(ClientBoundPlayedPacket.class);
+        assertThat((Object) channel.readOutbound()).isNull();
+        assertThat(channel.isActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should silently drop gameplay packets when budget is exceeded")
+    void shouldSilentlyDropGameplayPacketsWhenBudgetIsExceeded() {
+        for (int i = 0; i < 201; i++) {
+            channel.writeInbound(mock(ServerBoundTouchesPacket.class));
+        }
+
+        assertThat(countInbound()).isEqualTo(200);
+        assertThat((Object) channel.readOutbound()).isNull();
+        assertThat(limiter.getDropped(PacketRateLimiter.Category.GAMEPLAY)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should disconnect when session packets exceed budget")
+    void shouldDisconnectWhenSessionPacketsExceedBudget() {
+        for (int i = 0; i < 11; i++) {
+            channel.writeInbound(mock(ServerBoundPingPacket.class));
+        }
+
+        assertThat(countInbound()).isEqualTo(10);
+        assertThat(channel.isActive()).isFalse();
+    }
+}
@@ -0,0 +1,148 @@
+package top.rymc.phira.main.network;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalIoHandler;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.protocol.codec.encoder.ServerPacketEncoder;
+import top.rymc.phira.protocol.data.message.ChatMessage;
+import top.rymc.phira.protocol.packet.clientbound.ClientBoundMessagePacket;
+import top.rymc.phira.test.TestServerSetup;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class PlayerConnectionTest {
+
+    private EventLoopGroup group;
+    private Channel serverChannel;
+    private Channel clientChannel;
+    private Channel channel;
+
+    private final AtomicInteger writes = new AtomicInteger();
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestServerSetup.init();
+        group = new MultiThreadIoEventLoopGroup(1, LocalIoHandler.newFactory());
+
+        CompletableFuture<Channel> accepted = new CompletableFuture<>();
+        LocalAddress address = new LocalAddress("player-connection-test");
+        serverChannel = new ServerBootstrap()
+                .group(group)
+                .channel(LocalServerChannel.class)
+                .childHandler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                        ch.pipeline().addLast(new ChannelOutboundHandlerAdapter() {
+                            @Override
+                            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                                writes.incrementAndGet();
+                                ReferenceCountUtil.release(msg);
+                                promise.setSuccess();
+                            }
+
+                            @Override
+                            public void flush(ChannelHandlerContext ctx) {
+                                flushes.incrementAndGet();
+                            }
+                        });
+                        ch.pipeline().addLast(new ServerPacketEncoder());
+                        ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelActive(ChannelHandlerContext ctx) {
+                                accepted.complete(ctx.channel());
+                                ctx.fireChannelActive();
+                            }
+                        });
+                    }
+                })
+                .bind(address).sync().channel();
+
+        clientChannel = new Bootstrap()
+                .group(group)
+                .channel(LocalChannel.class)
+                .handler(new ChannelInitializer<LocalChannel>() {
+                    @Override
+                    protected void initChannel(LocalChannel ch) {
+                    }
+                })
+                .connect(address).sync().channel();
+
+        channel = accepted.get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        clientChannel.close().sync();
+        serverChannel.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    @DisplayName("should coalesce packets sent in one burst into a single flush")
+    void shouldCoalescePacketsSentInOneBurstIntoSingleFlush() throws Exception {
+        PlayerConnection connection = new PlayerConnection(channel, new InetSocketAddress("127.0.0.1", 10000));
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        channel.eventLoop().execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        List<ChannelFuture> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            connection.send(ClientBoundMessagePacket.create(new ChatMessage(1, "message " + i))).ifPresent(futures::add);
+        }
+        blocker.countDown();
+
+        for (ChannelFuture future : futures) {
+            assertThat(future.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(future.isSuccess()).isTrue();
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> flushes.get() > 0);
+        assertThat(writes.get()).isEqualTo(10);
+        assertThat(flushes.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should deliver queued packets before a close issued after them")
+    void shouldDeliverQueuedPacketsBeforeCloseIssuedAfterThem() throws Exception {
+        PlayerConnection connection = new PlayerConnection(channel, new InetSocketAddress("127.0.0.1", 10000));
+
+        ChannelFuture future = connection.send(ClientBoundMessagePacket.create(new ChatMessage(-1, "bye"))).orElseThrow();
+        connection.close();
+
+        assertThat(future.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.isSuccess()).isTrue();
+        assertThat(writes.get()).isEqualTo(1);
+    }
+}
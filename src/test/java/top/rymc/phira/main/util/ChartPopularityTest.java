@@ -0,0 +1,83 @@
+package top.rymc.phira.main.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ChartPopularityTest {
+
+    private static final long HALF_LIFE = 1000;
+
+    private AtomicLong now;
+    private ChartPopularity popularity;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(0);
+        popularity = new ChartPopularity(3, HALF_LIFE, now::get);
+    }
+
+    @Test
+    @DisplayName("should order charts by accumulated weight when listing top charts")
+    void shouldOrderChartsByAccumulatedWeightWhenListingTopCharts() {
+        popularity.record(1, 1);
+        popularity.record(2, 3);
+        popularity.record(3, 2);
+        popularity.record(1, 5);
+
+        assertThat(popularity.top(2)).extracting(ChartPopularity.Entry::chartId).containsExactly(1, 2);
+        assertThat(popularity.score(1)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("should halve scores when one half life elapsed")
+    void shouldHalveScoresWhenOneHalfLifeElapsed() {
+        popularity.record(1, 8);
+
+        now.addAndGet(HALF_LIFE);
+
+        assertThat(popularity.score(1)).isCloseTo(4, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("should rank recent activity above older activity when both have same weight")
+    void shouldRankRecentActivityAboveOlderActivityWhenBothHaveSameWeight() {
+        popularity.record(1, 4);
+        now.addAndGet(HALF_LIFE * 2);
+        popularity.record(2, 2);
+
+        assertThat(popularity.top(1)).extracting(ChartPopularity.Entry::chartId).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("should replace least popular chart and inherit its count when capacity is exceeded")
+    void shouldReplaceLeastPopularChartAndInheritItsCountWhenCapacityIsExceeded() {
+        popularity.record(1, 5);
+        popularity.record(2, 1);
+        popularity.record(3, 3);
+
+        popularity.record(4, 1);
+
+        assertThat(popularity.size()).isEqualTo(3);
+        assertThat(popularity.score(2)).isZero();
+        assertThat(popularity.score(4)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should keep relative scores when counters are rescaled after a long time")
+    void shouldKeepRelativeScoresWhenCountersAreRescaledAfterLongTime() {
+        popularity.record(1, 4);
+        popularity.record(2, 2);
+
+        now.addAndGet(HALF_LIFE * 40);
+        popularity.record(3, 1);
+
+        assertThat(popularity.top(3)).extracting(ChartPopularity.Entry::chartId).containsExactly(3, 1, 2);
+        assertThat(popularity.score(1) / popularity.score(2)).isCloseTo(2, within(1e-6));
+    }
+}
@@ -0,0 +1,170 @@
+package top.rymc.phira.main.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskCacheTest {
+
+    record Sample(int id, String name) {
+    }
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("samples.cache");
+        now = new AtomicLong(1_000);
+    }
+
+    private DiskCache<Sample> open() throws IOException {
+        return DiskCache.open(file, Sample.class, 10_000, now::get);
+    }
+
+    @Test
+    @DisplayName("should return stored entries when reopened")
+    void shouldReturnStoredEntriesWhenReopened() throws IOException {
+        try (DiskCache<Sample> cache = open()) {
+            cache.put(1, new Sample(1, "first"));
+            cache.put(2, new Sample(2, "second"));
+        }
+
+        try (DiskCache<Sample> cache = open()) {
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.get(1)).isEqualTo(new Sample(1, "first"));
+            assertThat(cache.get(2)).isEqualTo(new Sample(2, "second"));
+            assertThat(cache.get(3)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should return latest value when key written multiple times")
+    void shouldReturnLatestValueWhenKeyWrittenMultipleTimes() throws IOException {
+        try (DiskCache<Sample> cache = open()) {
+            cache.put(1, new Sample(1, "old"));
+            cache.put(1, new Sample(1, "new"));
+        }
+
+        try (DiskCache<Sample> cache = open()) {
+            assertThat(cache.get(1)).isEqualTo(new Sample(1, "new"));
+        }
+    }
+
+    @Test
+    @DisplayName("should drop entries when ttl elapsed")
+    void shouldDropEntriesWhenTtlElapsed() throws IOException {
+        try (DiskCache<Sample> cache = open()) {
+            cache.put(1, new Sample(1, "first"));
+            now.addAndGet(10_000);
+
+            assertThat(cache.get(1)).isNull();
+        }
+
+        try (DiskCache<Sample> cache = open()) {
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("should keep complete entries and discard partial tail when file was cut off")
+    void shouldKeepCompleteEntriesAndDiscardPartialTailWhenFileWasCutOff() throws IOException {
+        try (DiskCache<Sample> cache = open()) {
+            cache.put(1, new Sample(1, "first"));
+            cache.put(2, new Sample(2, "second"));
+        }
+
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (DiskCache<Sample> cache = open()) {
+            assertThat(cache.get(1)).isEqualTo(new Sample(1, "first"));
+            assertThat(cache.get(2)).isNull();
+
+            cache.put(3, new Sample(3, "third"));
+        }
+
+        try (DiskCache<Sample> cache = open()) {
+            assertThat(cache.get(3)).isEqualTo(new Sample(3, "third"));
+        }
+    }
+
+    @Test
+    @DisplayName("should shrink file and keep live entries when compacted")
+    void shouldShrinkFileAndKeepLiveEntriesWhenCompacted() throws IOException {
+        try (DiskCache<Sample> cache = open()) {
+            for (int i = 0; i < 100; i++) {
+                cache.put(1, new Sample(1, "version " + i));
+            }
+            cache.put(2, new Sample(2, "second"));
+            long before = cache.getFileSize();
+
+            cache.compact();
+
+            assertThat(cache.getFileSize()).isLessThan(before);
+            assertThat(Files.size(file)).isEqualTo(cache.getFileSize());
+            assertThat(cache.get(1)).isEqualTo(new Sample(1, "version 99"));
+            assertThat(cache.get(2)).isEqualTo(new Sample(2, "second"));
+        }
+    }
+
+    @Test
+    @DisplayName("should keep serving entries when compacted concurrently with reads")
+    void shouldKeepServingEntriesWhenCompactedConcurrentlyWithReads() throws Exception {
+        try (DiskCache<Sample> cache = open()) {
+            for (int i = 0; i < 64; i++) {
+                cache.put(i, new Sample(i, "entry " + i));
+            }
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger misses = new AtomicInteger();
+            Thread reader = new Thread(() -> {
+                int key = 0;
+                while (running.get()) {
+                    if (cache.get(key) == null) {
+                        misses.incrementAndGet();
+                    }
+                    key = (key + 1) % 64;
+                }
+            });
+            reader.start();
+
+            for (int i = 0; i < 200; i++) {
+                cache.compact();
+            }
+            running.set(false);
+            reader.join();
+
+            assertThat(misses.get()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("should start empty when file has unknown header")
+    void shouldStartEmptyWhenFileHasUnknownHeader() throws IOException {
+        Files.writeString(file, "not a cache file");
+
+        try (DiskCache<Sample> cache = open()) {
+            assertThat(cache.size()).isZero();
+            cache.put(1, new Sample(1, "first"));
+            assertThat(cache.get(1)).isEqualTo(new Sample(1, "first"));
+        }
+    }
+}
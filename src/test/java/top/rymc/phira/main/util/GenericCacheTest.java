@@ -4,10 +4,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 
 class GenericCacheTest {
 
@@ -108,4 +120,163 @@ class GenericCacheTest {
         cache.clear();
         assertThat(cache.size()).isEqualTo(0);
     }
+
+    @Test
+    @DisplayName("should run loader once when concurrent gets race on same key")
+    void shouldRunLoaderOnceWhenConcurrentGetsRaceOnSameKey() throws InterruptedException {
+        AtomicInteger callCount = new AtomicInteger(0);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("key1", k -> {
+                    callCount.incrementAndGet();
+                    release.await();
+                    return "value1";
+                })));
+            }
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> cache.getCoalescedWaiters() == 7);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result).succeedsWithin(5, TimeUnit.SECONDS).isEqualTo("value1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(callCount.get()).isEqualTo(1);
+        assertThat(cache.getStatistics().misses()).isEqualTo(1);
+        assertThat(cache.getStatistics().hits()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("should share in-flight future when getAsync called for pending key")
+    void shouldShareInFlightFutureWhenGetAsyncCalledForPendingKey() {
+        AtomicInteger callCount = new AtomicInteger(0);
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.getAsync("key1", k -> {
+            callCount.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = cache.getAsync("key1", k -> {
+            callCount.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+
+        upstream.complete("value1");
+
+        assertThat(first).isCompletedWithValue("value1");
+        assertThat(second).isCompletedWithValue("value1");
+        assertThat(callCount.get()).isEqualTo(1);
+        assertThat(cache.getCoalescedWaiters()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not cache failure when loader throws")
+    void shouldNotCacheFailureWhenLoaderThrows() {
+        assertThatThrownBy(() -> cache.get("key1", k -> {
+            throw new IOException("upstream down");
+        })).isInstanceOf(IOException.class);
+
+        String result = cache.get("key1", k -> "value1");
+
+        assertThat(result).isEqualTo("value1");
+        assertThat(cache.getStatistics().loadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should reload in background and keep serving old value when entry is due for refresh")
+    void shouldReloadInBackgroundAndKeepServingOldValueWhenEntryIsDueForRefresh() {
+        AtomicInteger version = new AtomicInteger(0);
+        GenericCache<String, String> refreshing = GenericCache.create(10_000, 50, TimeUnit.MILLISECONDS, 100,
+                k -> CompletableFuture.completedFuture("v" + version.incrementAndGet()));
+
+        assertThat(refreshing.getAsync("key1")).succeedsWithin(1, TimeUnit.SECONDS).isEqualTo("v1");
+
+        await().pollDelay(100, TimeUnit.MILLISECONDS).atMost(5, TimeUnit.SECONDS)
+                .until(() -> !refreshing.getAsync("key1").join().equals("v1"));
+        assertThat(refreshing.getStatistics().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should serve last known value when entry expired and reload fails")
+    void shouldServeLastKnownValueWhenEntryExpiredAndReloadFails() {
+        GenericCache<String, String> staleCache = GenericCache.<String, String>create(50, TimeUnit.MILLISECONDS, 100)
+                .staleWhileRevalidate(1, TimeUnit.HOURS);
+        staleCache.get("key1", k -> "value1");
+
+        await().atMost(500, TimeUnit.MILLISECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+                .untilAsserted(() -> assertThat(staleCache.getStaleServed()).isZero());
+
+        CompletableFuture<String> result = staleCache.getAsync("key1", k -> CompletableFuture.failedFuture(new IOException("upstream down")));
+
+        assertThat(result).isCompletedWithValue("value1");
+        assertThat(staleCache.getStaleServed()).isEqualTo(1);
+
+        String refreshed = staleCache.get("key1", k -> "value2");
+        assertThat(refreshed).isEqualTo("value2");
+    }
+
+    @Test
+    @DisplayName("should use second level value and persist loaded values when second level attached")
+    void shouldUseSecondLevelValueAndPersistLoadedValuesWhenSecondLevelAttached() {
+        Map<String, String> stored = new ConcurrentHashMap<>();
+        stored.put("key1", "stored1");
+        cache.secondLevel(new SecondLevelCache<>() {
+            @Override
+            public String get(String key) {
+                return stored.get(key);
+            }
+
+            @Override
+            public void put(String key, String value) {
+                stored.put(key, value);
+            }
+        });
+        AtomicInteger callCount = new AtomicInteger(0);
+
+        String first = cache.get("key1", k -> {
+            callCount.incrementAndGet();
+            return "loaded1";
+        });
+        String second = cache.get("key2", k -> {
+            callCount.incrementAndGet();
+            return "loaded2";
+        });
+
+        assertThat(first).isEqualTo("stored1");
+        assertThat(second).isEqualTo("loaded2");
+        assertThat(callCount.get()).isEqualTo(1);
+        assertThat(stored).containsEntry("key2", "loaded2");
+    }
+
+    @Test
+    @DisplayName("should read second level off the caller thread when loaded asynchronously")
+    void shouldReadSecondLevelOffCallerThreadWhenLoadedAsynchronously() {
+        Thread caller = Thread.currentThread();
+        List<Thread> readers = new ArrayList<>();
+        cache.secondLevel(new SecondLevelCache<>() {
+            @Override
+            public synchronized String get(String key) {
+                readers.add(Thread.currentThread());
+                return "stored".equals(key) ? "stored1" : null;
+            }
+
+            @Override
+            public void put(String key, String value) {
+            }
+        });
+
+        String stored = cache.getAsync("stored", k -> CompletableFuture.completedFuture("loaded")).join();
+        String loaded = cache.getAsync("missing", k -> CompletableFuture.completedFuture("loaded")).join();
+
+        assertThat(stored).isEqualTo("stored1");
+        assertThat(loaded).isEqualTo("loaded");
+        assertThat(readers).hasSize(2).doesNotContain(caller);
+    }
 }
@@ -0,0 +1,65 @@
+package top.rymc.phira.main.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class HotChartsTest {
+
+    private PhiraUpstream previousUpstream;
+    private SimulatedPhiraUpstream upstream;
+
+    @BeforeEach
+    void setUp() {
+        previousUpstream = PhiraFetcher.getUpstream();
+        upstream = new SimulatedPhiraUpstream(0, 0, 0, 0);
+        PhiraFetcher.setUpstream(upstream);
+        PhiraFetcher.getChartCache().clear();
+        HotCharts.getPopularity().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        PhiraFetcher.setUpstream(previousUpstream);
+        PhiraFetcher.getChartCache().clear();
+        HotCharts.getPopularity().clear();
+    }
+
+    @Test
+    @DisplayName("should load hot charts into chart cache when warming")
+    void shouldLoadHotChartsIntoChartCacheWhenWarming() {
+        HotCharts.recordSelected(11);
+        HotCharts.recordPlayed(12, 4);
+
+        assertThat(HotCharts.warm()).isEqualTo(2);
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(PhiraFetcher.getChartCache().size()).isEqualTo(2));
+        assertThat(upstream.getRequests()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should restore ranking when hot list is saved and loaded")
+    void shouldRestoreRankingWhenHotListIsSavedAndLoaded(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("hot-charts.json");
+        HotCharts.recordPlayed(1, 1);
+        HotCharts.recordPlayed(2, 5);
+        HotCharts.recordPlayed(3, 3);
+
+        HotCharts.save(file);
+        HotCharts.getPopularity().clear();
+        HotCharts.load(file);
+
+        assertThat(HotCharts.getPopularity().top(3))
+                .extracting(ChartPopularity.Entry::chartId)
+                .containsExactly(2, 3, 1);
+    }
+}
@@ -0,0 +1,186 @@
+package top.rymc.phira.main.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class MailboxTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should run tasks in submission order")
+    void shouldRunTasksInSubmissionOrder() {
+        Mailbox mailbox = new Mailbox(executor);
+        List<Integer> result = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            mailbox.execute(() -> result.add(value));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> result.size() == 1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(result.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    @DisplayName("should never run tasks of the same mailbox concurrently")
+    void shouldNeverRunTasksOfSameMailboxConcurrently() throws InterruptedException {
+        Mailbox mailbox = new Mailbox(executor);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 250; i++) {
+                    mailbox.execute(() -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        running.decrementAndGet();
+                        done.incrementAndGet();
+                    });
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> done.get() == 1000);
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should reject tasks when capacity exceeded")
+    void shouldRejectTasksWhenCapacityExceeded() {
+        CountDownLatch blocker = new CountDownLatch(1);
+        Mailbox mailbox = new Mailbox(executor, 2);
+
+        mailbox.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        await().atMost(5, TimeUnit.SECONDS).until(() -> mailbox.size() == 0);
+
+        mailbox.execute(() -> {});
+        mailbox.execute(() -> {});
+
+        assertThatThrownBy(() -> mailbox.execute(() -> {}))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        blocker.countDown();
+    }
+
+    @Test
+    @DisplayName("should discard pending tasks and reject new ones when closed")
+    void shouldDiscardPendingTasksAndRejectNewOnesWhenClosed() {
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        Mailbox mailbox = new Mailbox(executor);
+
+        mailbox.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        mailbox.execute(executed::incrementAndGet);
+
+        mailbox.close();
+        blocker.countDown();
+
+        assertThat(mailbox.isClosed()).isTrue();
+        assertThatThrownBy(() -> mailbox.execute(executed::incrementAndGet))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(executed.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("should expose current mailbox while running a task")
+    void shouldExposeCurrentMailboxWhileRunningTask() {
+        Mailbox mailbox = new Mailbox(executor);
+        List<Mailbox> seen = Collections.synchronizedList(new ArrayList<>());
+
+        mailbox.execute(() -> seen.add(Mailbox.current()));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> seen.size() == 1);
+        assertThat(seen.get(0)).isSameAs(mailbox);
+        assertThat(Mailbox.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("should hold queued tasks until continuation runs when suspended")
+    void shouldHoldQueuedTasksUntilContinuationRunsWhenSuspended() {
+        Mailbox mailbox = new Mailbox(executor);
+        CompletableFuture<String> pendingFetch = new CompletableFuture<>();
+        List<String> result = Collections.synchronizedList(new ArrayList<>());
+
+        mailbox.execute(() -> {
+            result.add("first");
+            Mailbox.continueAfter(pendingFetch, (value, error) -> result.add(value));
+        });
+        mailbox.execute(() -> result.add("second"));
+
+        await().atMost(5, TimeUnit.SECONDS).until(mailbox::isSuspended);
+        assertThat(result).containsExactly("first");
+
+        pendingFetch.complete("continuation");
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> result.size() == 3);
+        assertThat(result).containsExactly("first", "continuation", "second");
+    }
+
+    @Test
+    @DisplayName("should pass unwrapped error to continuation when stage fails")
+    void shouldPassUnwrappedErrorToContinuationWhenStageFails() {
+        IllegalStateException failure = new IllegalStateException("boom");
+        List<Throwable> errors = new ArrayList<>();
+
+        Mailbox.continueAfter(CompletableFuture.failedFuture(failure), (value, error) -> errors.add(error));
+
+        assertThat(errors).containsExactly(failure);
+    }
+}
@@ -0,0 +1,139 @@
+package top.rymc.phira.main.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.main.data.ChartInfo;
+import top.rymc.phira.main.data.PlayerProfile;
+import top.rymc.phira.main.data.UserInfo;
+import top.rymc.phira.test.MockPhiraServer;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhiraFetcherTest {
+
+    private MockPhiraServer mockPhiraServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockPhiraServer = new MockPhiraServer();
+        mockPhiraServer.start();
+        PhiraFetcher.setHost(mockPhiraServer.getBaseUrl());
+        resetFetcher();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockPhiraServer.stop();
+        PhiraFetcher.setHost("https://phira.5wyxi.com/");
+        resetFetcher();
+    }
+
+    private void resetFetcher() {
+        PhiraFetcher.getEndpoints().forEach(UpstreamEndpoint::reset);
+        PhiraFetcher.getChartCache().clear();
+        PhiraFetcher.getProfileCache().clear();
+        PhiraFetcher.getRecordCache().clear();
+        PhiraFetcher.getTokenCache().clear();
+    }
+
+    private UpstreamEndpoint endpoint(String name) {
+        return PhiraFetcher.getEndpoints().stream()
+                .filter(endpoint -> endpoint.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("should fail fast without contacting upstream when circuit is open")
+    void shouldFailFastWithoutContactingUpstreamWhenCircuitIsOpen() {
+        mockPhiraServer.setFailureStatus(503);
+
+        for (int i = 0; i < UpstreamEndpoint.DEFAULT_FAILURE_THRESHOLD; i++) {
+            int id = i;
+            assertThatThrownBy(() -> PhiraFetcher.GET_RECORD_INFO.apply(id)).isInstanceOf(IOException.class);
+        }
+        int requestsWhileFailing = mockPhiraServer.getRequestCount("record");
+
+        assertThat(endpoint("record").getState()).isEqualTo(UpstreamEndpoint.State.OPEN);
+        assertThatThrownBy(() -> PhiraFetcher.GET_RECORD_INFO.apply(99)).isInstanceOf(CircuitOpenException.class);
+        assertThat(mockPhiraServer.getRequestCount("record")).isEqualTo(requestsWhileFailing);
+        assertThat(endpoint("chart").getState()).isEqualTo(UpstreamEndpoint.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("should leave retries to caller and report transient failure when record lookup hits server error")
+    void shouldLeaveRetriesToCallerAndReportTransientFailureWhenRecordLookupHitsServerError() {
+        mockPhiraServer.setFailureStatus(503);
+
+        assertThatThrownBy(() -> PhiraFetcher.GET_RECORD_INFO.apply(1))
+                .isInstanceOf(TransientUpstreamException.class)
+                .hasCauseInstanceOf(UpstreamResponseException.class);
+
+        assertThat(mockPhiraServer.getRequestCount("record")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not retry when upstream rejects request with client error")
+    void shouldNotRetryWhenUpstreamRejectsRequestWithClientError() {
+        mockPhiraServer.setFailureStatus(404);
+
+        assertThatThrownBy(() -> PhiraFetcher.GET_CHART_INFO.apply(1)).isInstanceOf(UpstreamResponseException.class);
+
+        assertThat(mockPhiraServer.getRequestCount("chart")).isEqualTo(1);
+        assertThat(endpoint("chart").getState()).isEqualTo(UpstreamEndpoint.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("should answer from hedged request when primary request is slow")
+    void shouldAnswerFromHedgedRequestWhenPrimaryRequestIsSlow() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            PhiraFetcher.GET_CHART_INFO.apply(1000 + i);
+        }
+        long hedgedBefore = endpoint("chart").getHedged();
+        int requestsBefore = mockPhiraServer.getRequestCount("chart");
+        mockPhiraServer.slowNextRequests(1, 3000);
+
+        long start = System.nanoTime();
+        ChartInfo info = PhiraFetcher.GET_CHART_INFO.apply(1);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(info.getId()).isEqualTo(1);
+        assertThat(elapsed).isLessThan(Duration.ofMillis(2000));
+        assertThat(endpoint("chart").getHedged() - hedgedBefore).isEqualTo(1);
+        assertThat(mockPhiraServer.getRequestCount("chart") - requestsBefore).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should share one profile and skip user request when id was resolved by token")
+    void shouldShareOneProfileAndSkipUserRequestWhenIdWasResolvedByToken() throws IOException {
+        PlayerProfile byToken = PhiraFetcher.GET_PROFILE.apply("token");
+        PlayerProfile byId = PhiraFetcher.GET_PROFILE_BY_ID.apply(1);
+
+        assertThat(byToken.getName()).isEqualTo("testuser");
+        assertThat(byId).isSameAs(byToken);
+        assertThat(PhiraFetcher.getTokenCache().getAsync("token").join()).isEqualTo(1);
+        assertThat(mockPhiraServer.getRequestCount("user")).isZero();
+    }
+
+    @Test
+    @DisplayName("should serve deprecated user info from cached profile when queried through legacy accessors")
+    @SuppressWarnings("removal")
+    void shouldServeDeprecatedUserInfoFromCachedProfileWhenQueriedThroughLegacyAccessors() throws IOException {
+        PlayerProfile profile = PhiraFetcher.GET_PROFILE.apply("token");
+
+        UserInfo byToken = PhiraFetcher.GET_USER_INFO.apply("token");
+        UserInfo byId = PhiraFetcher.GET_USER_INFO_BY_ID.apply(profile.getId());
+
+        assertThat(byToken.getId()).isEqualTo(profile.getId());
+        assertThat(byToken.getName()).isEqualTo("testuser");
+        assertThat(byId).isEqualTo(byToken);
+        assertThat(PhiraFetcher.getUserInfoByIdAsync(profile.getId()).join()).isEqualTo(byToken);
+        assertThat(mockPhiraServer.getRequestCount("user")).isZero();
+    }
+}
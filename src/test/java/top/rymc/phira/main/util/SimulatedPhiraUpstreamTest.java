@@ -0,0 +1,84 @@
+package top.rymc.phira.main.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.rymc.phira.main.data.ChartInfo;
+import top.rymc.phira.main.data.UserInfo;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimulatedPhiraUpstreamTest {
+
+    @Test
+    @DisplayName("should generate identical data when seeds are equal")
+    void shouldGenerateIdenticalDataWhenSeedsAreEqual() {
+        SimulatedPhiraUpstream first = new SimulatedPhiraUpstream(42, 0, 0, 0);
+        SimulatedPhiraUpstream second = new SimulatedPhiraUpstream(42, 0, 0, 0);
+
+        ChartInfo chart = first.fetchChart(7).join();
+        assertThat(chart.getId()).isEqualTo(7);
+        assertThat(chart).usingRecursiveComparison().isEqualTo(second.fetchChart(7).join());
+        assertThat(first.fetchUserById(3).join()).usingRecursiveComparison().isEqualTo(second.fetchUserById(3).join());
+        assertThat(first.fetchRecord(11).join()).usingRecursiveComparison().isEqualTo(second.fetchRecord(11).join());
+    }
+
+    @Test
+    @DisplayName("should generate different data when seeds differ")
+    void shouldGenerateDifferentDataWhenSeedsDiffer() {
+        ChartInfo first = new SimulatedPhiraUpstream(1, 0, 0, 0).fetchChart(7).join();
+        ChartInfo second = new SimulatedPhiraUpstream(2, 0, 0, 0).fetchChart(7).join();
+
+        assertThat(first).usingRecursiveComparison().isNotEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("should resolve user id from token when token has simulator prefix")
+    void shouldResolveUserIdFromTokenWhenTokenHasSimulatorPrefix() {
+        SimulatedPhiraUpstream upstream = new SimulatedPhiraUpstream(0, 0, 0, 0);
+
+        UserInfo user = upstream.fetchUserByToken("sim-5").join();
+
+        assertThat(user.getId()).isEqualTo(5);
+        assertThat(SimulatedPhiraUpstream.userIdForToken("any-token"))
+                .isPositive()
+                .isEqualTo(SimulatedPhiraUpstream.userIdForToken("any-token"));
+    }
+
+    @Test
+    @DisplayName("should fail with io exception when error rate is one")
+    void shouldFailWithIoExceptionWhenErrorRateIsOne() {
+        SimulatedPhiraUpstream upstream = new SimulatedPhiraUpstream(0, 0, 0, 1.0);
+
+        assertThatThrownBy(() -> upstream.fetchChart(1).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThat(upstream.getRequests()).isEqualTo(1);
+        assertThat(upstream.getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should complete immediately when latency is zero")
+    void shouldCompleteImmediatelyWhenLatencyIsZero() {
+        SimulatedPhiraUpstream upstream = new SimulatedPhiraUpstream(0, 0, 0, 0);
+
+        assertThat(upstream.fetchChart(1).isDone()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should delay response when latency is configured")
+    void shouldDelayResponseWhenLatencyIsConfigured() {
+        SimulatedPhiraUpstream upstream = new SimulatedPhiraUpstream(0, 100, 100, 0);
+
+        long start = System.nanoTime();
+        CompletableFuture<ChartInfo> future = upstream.fetchChart(1);
+        assertThat(future.isDone()).isFalse();
+
+        future.join();
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(90);
+    }
+}
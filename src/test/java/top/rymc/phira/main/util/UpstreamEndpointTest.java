@@ -0,0 +1,92 @@
+package top.rymc.phira.main.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamEndpointTest {
+
+    private AtomicLong now;
+    private UpstreamEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(0);
+        endpoint = new UpstreamEndpoint("chart", 3, 1000, now::get);
+    }
+
+    @Test
+    @DisplayName("should open and reject requests when consecutive failures reach threshold")
+    void shouldOpenAndRejectRequestsWhenConsecutiveFailuresReachThreshold() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(endpoint.tryAcquire()).isTrue();
+            endpoint.recordFailure();
+        }
+
+        assertThat(endpoint.getState()).isEqualTo(UpstreamEndpoint.State.OPEN);
+        assertThat(endpoint.tryAcquire()).isFalse();
+        assertThat(endpoint.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should allow a single probe when open duration elapsed")
+    void shouldAllowSingleProbeWhenOpenDurationElapsed() {
+        for (int i = 0; i < 3; i++) {
+            endpoint.recordFailure();
+        }
+
+        now.set(1000);
+
+        assertThat(endpoint.getState()).isEqualTo(UpstreamEndpoint.State.HALF_OPEN);
+        assertThat(endpoint.tryAcquire()).isTrue();
+        assertThat(endpoint.tryAcquire()).isFalse();
+
+        endpoint.recordSuccess(10);
+
+        assertThat(endpoint.getState()).isEqualTo(UpstreamEndpoint.State.CLOSED);
+        assertThat(endpoint.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should reopen when probe fails")
+    void shouldReopenWhenProbeFails() {
+        for (int i = 0; i < 3; i++) {
+            endpoint.recordFailure();
+        }
+
+        now.set(1000);
+        assertThat(endpoint.tryAcquire()).isTrue();
+        endpoint.recordFailure();
+
+        assertThat(endpoint.getState()).isEqualTo(UpstreamEndpoint.State.OPEN);
+        assertThat(endpoint.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reset failure count when request succeeds")
+    void shouldResetFailureCountWhenRequestSucceeds() {
+        endpoint.recordFailure();
+        endpoint.recordFailure();
+        endpoint.recordSuccess(10);
+        endpoint.recordFailure();
+        endpoint.recordFailure();
+
+        assertThat(endpoint.getState()).isEqualTo(UpstreamEndpoint.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("should derive hedge delay from latency percentile when enough samples recorded")
+    void shouldDeriveHedgeDelayFromLatencyPercentileWhenEnoughSamplesRecorded() {
+        assertThat(endpoint.getHedgeDelayMillis()).isNegative();
+
+        for (int i = 1; i <= 100; i++) {
+            endpoint.recordSuccess(i);
+        }
+
+        assertThat(endpoint.getHedgeDelayMillis()).isEqualTo(95);
+    }
+}
@@ -2,6 +2,7 @@ package top.rymc.phira.test;
 
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import top.rymc.phira.main.util.GsonUtil;
 
@@ -13,6 +14,9 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MockPhiraServer {
     private static final Gson GSON = GsonUtil.getGson();
@@ -21,14 +25,21 @@ public class MockPhiraServer {
     private final Map<Integer, Map<String, Object>> records = new ConcurrentHashMap<>();
     private final Map<Integer, Map<String, Object>> charts = new ConcurrentHashMap<>();
     private final Map<Integer, Map<String, Object>> users = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger slowRequests = new AtomicInteger();
+    private ExecutorService executor;
+    private volatile long latencyMillis;
+    private volatile long slowLatencyMillis;
+    private volatile int failureStatus;
 
     public void start() throws IOException {
         server = HttpServer.create(new InetSocketAddress(0), 0);
-        server.createContext("/me", this::handleMe);
-        server.createContext("/user/", this::handleUser);
-        server.createContext("/chart/", this::handleChart);
-        server.createContext("/record/", this::handleRecord);
-        server.setExecutor(null);
+        server.createContext("/me", exchange -> intercept("me", exchange, this::handleMe));
+        server.createContext("/user/", exchange -> intercept("user", exchange, this::handleUser));
+        server.createContext("/chart/", exchange -> intercept("chart", exchange, this::handleChart));
+        server.createContext("/record/", exchange -> intercept("record", exchange, this::handleRecord));
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
         server.start();
         port = server.getAddress().getPort();
     }
@@ -37,6 +48,27 @@ public class MockPhiraServer {
         if (server != null) {
             server.stop(0);
         }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public void setLatency(long millis) {
+        this.latencyMillis = millis;
+    }
+
+    public void slowNextRequests(int count, long millis) {
+        this.slowLatencyMillis = millis;
+        this.slowRequests.set(count);
+    }
+
+    public void setFailureStatus(int status) {
+        this.failureStatus = status;
+    }
+
+    public int getRequestCount(String endpoint) {
+        AtomicInteger count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
     }
 
     public String getBaseUrl() {
@@ -113,6 +145,29 @@ public class MockPhiraServer {
         users.put(id, user);
     }
 
+    private void intercept(String endpoint, HttpExchange exchange, HttpHandler handler) throws IOException {
+        requestCounts.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+
+        long delay = slowRequests.getAndUpdate(n -> Math.max(0, n - 1)) > 0 ? slowLatencyMillis : latencyMillis;
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+                return;
+            }
+        }
+
+        int status = failureStatus;
+        if (status != 0) {
+            sendResponse(exchange, status, "{\"error\":\"Injected failure\"}");
+            return;
+        }
+
+        handler.handle(exchange);
+    }
+
     private void handleMe(HttpExchange exchange) throws IOException {
         String authHeader = exchange.getRequestHeaders().getFirst("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {